@@ -0,0 +1,105 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import com.edstruments.multitenantresourcemanagement.archive.AuditSegmentReader;
+import com.edstruments.multitenantresourcemanagement.archive.AuditSegmentWriter;
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan cost of an archived month through {@link AuditSegmentReader#query}, on one segment of
+ * {@code rows} entries spread over {@code tenants} tenants:
+ * <ul>
+ *     <li>{@code tenantMonth}: every entry of one tenant</li>
+ *     <li>{@code tenantAction}: one tenant, one action</li>
+ *     <li>{@code tenantDay}: one tenant, a one-day time range</li>
+ * </ul>
+ * The segment size is printed once after it is written.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditArchiveBenchmark {
+
+    private static final LocalDateTime MONTH_START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"50"})
+    public int tenants;
+
+    private Path dir;
+    private AuditSegmentReader reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("audit-archive-bench");
+        Path segment = dir.resolve("audit_logs_202501.seg");
+        SplittableRandom rnd = new SplittableRandom(42);
+        AuditAction[] actions = AuditAction.values();
+        int perTenant = rows / tenants;
+        long stepMicros = 31L * 24 * 3600 * 1_000_000 / perTenant;
+        long id = 0;
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(segment)) {
+            for (long tenant = 1; tenant <= tenants; tenant++) {
+                for (int i = 0; i < perTenant; i++) {
+                    writer.append(AuditLog.builder()
+                            .id(++id)
+                            .tenantId(tenant)
+                            .userId(rnd.nextLong(1, 200))
+                            .action(actions[rnd.nextInt(actions.length)])
+                            .entityType("Resource")
+                            .entityId(rnd.nextLong(1, 100_000))
+                            .details("benchmark entry " + i)
+                            .timestamp(MONTH_START.plusNanos(i * stepMicros * 1_000))
+                            .build());
+                }
+            }
+            writer.finish();
+        }
+        System.out.printf("%n  segment: %d rows, %d bytes%n", rows, Files.size(segment));
+        reader = AuditSegmentReader.open(segment);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public long tenantMonth() {
+        return reader.query(randomTenant(), null, null, null, null).count();
+    }
+
+    @Benchmark
+    public long tenantAction() {
+        return reader.query(randomTenant(), null, null, AuditAction.DELETED_RESOURCE, null).count();
+    }
+
+    @Benchmark
+    public long tenantDay() {
+        LocalDateTime from = MONTH_START.plusDays(ThreadLocalRandom.current().nextInt(30));
+        return reader.query(randomTenant(), from, from.plusDays(1), null, null).count();
+    }
+
+    private long randomTenant() {
+        return ThreadLocalRandom.current().nextLong(1, tenants + 1);
+    }
+}
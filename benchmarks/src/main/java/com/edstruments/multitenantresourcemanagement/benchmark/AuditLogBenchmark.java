@@ -0,0 +1,54 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import com.edstruments.multitenantresourcemanagement.service.AuditLogService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-thread cost of {@link AuditLogService#log} with the asynchronous batched writer
+ * ({@code asyncEnabled=true}) and with a synchronous insert per entry ({@code false}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AuditLogBenchmark {
+
+    @Param({"true", "false"})
+    public boolean asyncEnabled;
+
+    @Param({"10"})
+    public int tenantCount;
+
+    private ConfigurableApplicationContext ctx;
+    private AuditLogService auditLogService;
+    private long[] tenantIds;
+
+    @Setup
+    public void setUp() {
+        ctx = BenchmarkContext.start("audit.async.enabled=" + asyncEnabled);
+        tenantIds = BenchmarkContext.seedTenants(ctx, tenantCount, 0);
+        auditLogService = ctx.getBean(AuditLogService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public void log() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int t = rnd.nextInt(tenantIds.length);
+        BenchmarkContext.useTenant(t);
+        long tenantId = tenantIds[t];
+        auditLogService.log(rnd.nextLong(1, 100), tenantId, AuditAction.UPDATED_RESOURCE, "Resource", rnd.nextLong(1, 10_000), "benchmark");
+    }
+}
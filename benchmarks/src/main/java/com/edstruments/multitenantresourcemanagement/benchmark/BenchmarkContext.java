@@ -0,0 +1,130 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import com.edstruments.multitenantresourcemanagement.MultiTenantResourceManagementApplication;
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import com.edstruments.multitenantresourcemanagement.entity.Resource;
+import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.service.ResourceService;
+import com.edstruments.multitenantresourcemanagement.service.TenantService;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Boots the application against an in-memory H2 database and seeds benchmark tenants.
+ * The embedded server binds to a random local port; benchmarks call the beans directly.
+ */
+final class BenchmarkContext {
+
+    private static final int SEED_CHUNK = 5_000;
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Starts the application context. {@code extraProperties} are {@code key=value} pairs
+     * overriding the defaults below. They are passed as command-line arguments so that they
+     * take precedence over {@code application.properties}.
+     */
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        return start(ctx -> { }, extraProperties);
+    }
+
+    /**
+     * Like {@link #start(String...)}, running {@code initializer} before the beans are created
+     * (e.g. to register a bean post-processor).
+     */
+    static ConfigurableApplicationContext start(ApplicationContextInitializer<ConfigurableApplicationContext> initializer,
+                                                String... extraProperties) {
+        Map<String, String> props = new LinkedHashMap<>();
+        for (String p : List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "server.port=0",
+                "spring.jpa.show-sql=false",
+                "spring.sql.init.mode=never",
+                "logging.level.root=WARN",
+                "logging.level.com.edstruments=WARN",
+                "quota.reconcile-interval-ms=3600000",
+                "rate.limit.enabled=false")) {
+            props.put(p.substring(0, p.indexOf('=')), p.substring(p.indexOf('=') + 1));
+        }
+        // a repeated command-line argument would be joined into a list, so overrides replace the default
+        for (String p : extraProperties) {
+            props.put(p.substring(0, p.indexOf('=')), p.substring(p.indexOf('=') + 1));
+        }
+        return new SpringApplicationBuilder(MultiTenantResourceManagementApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .initializers(initializer)
+                .run(props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+    }
+
+    /**
+     * Creates {@code tenantCount} tenants with their own schema and effectively unlimited
+     * quotas, each holding {@code rowsPerTenant} resources named {@code "item <n> <word>"}
+     * in its schema. Calls on the tenants' data must select the schema first, see
+     * {@link #useTenant(int)}.
+     *
+     * @return the tenant ids, by tenant index
+     */
+    static long[] seedTenants(ConfigurableApplicationContext ctx, int tenantCount, int rowsPerTenant) {
+        TenantService tenantService = ctx.getBean(TenantService.class);
+        ResourceService resourceService = ctx.getBean(ResourceService.class);
+        String[] words = {"report", "invoice", "contract", "budget", "roadmap", "summary", "draft", "archive"};
+        long[] ids = new long[tenantCount];
+        for (int t = 0; t < tenantCount; t++) {
+            Tenant tenant = tenantService.createTenant(Tenant.builder()
+                    .name("bench-" + t)
+                    .schemaName(schemaName(t))
+                    .maxUsers(Integer.MAX_VALUE)
+                    .maxResources(Integer.MAX_VALUE)
+                    .maxResourcesPerUser(Integer.MAX_VALUE)
+                    .isActive(true)
+                    .build());
+            ids[t] = tenant.getId();
+            for (int from = 0; from < rowsPerTenant; from += SEED_CHUNK) {
+                List<Resource> chunk = new ArrayList<>();
+                for (int n = from; n < Math.min(rowsPerTenant, from + SEED_CHUNK); n++) {
+                    chunk.add(Resource.builder()
+                            .name("item " + n + " " + words[n % words.length])
+                            .description("seeded " + words[(n / 7) % words.length])
+                            .ownerId((long) (n % 10) + 1)
+                            .build());
+                }
+                long tenantId = ids[t];
+                inTenant(t, () -> resourceService.createResources(tenantId, chunk));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Selects the schema of the tenant with the given index for the calling thread, as the
+     * tenant filter does for a request.
+     */
+    static void useTenant(int tenantIndex) {
+        TenantContext.setCurrentTenant(schemaName(tenantIndex));
+    }
+
+    /**
+     * Runs {@code work} in the schema of the tenant with the given index.
+     */
+    static <T> T inTenant(int tenantIndex, Supplier<T> work) {
+        useTenant(tenantIndex);
+        try {
+            return work.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    static String schemaName(int tenantIndex) {
+        return "bench_t" + tenantIndex;
+    }
+}
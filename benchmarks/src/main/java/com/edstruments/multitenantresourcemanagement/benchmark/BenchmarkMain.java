@@ -0,0 +1,26 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Delegates to the JMH launcher and, unless a result
+ * format is given on the command line, writes machine-readable results to
+ * {@code jmh-result.json} so that runs can be diffed.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(List.of(args));
+        if (!options.contains("-rf") && !options.contains("-h") && !options.contains("-l")) {
+            options.addAll(List.of("-rf", "json"));
+            if (!options.contains("-rff")) {
+                options.addAll(List.of("-rff", "jmh-result.json"));
+            }
+        }
+        org.openjdk.jmh.Main.main(options.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,74 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.SchemaBasedMultiTenantConnectionProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of borrowing a tenant connection from {@link SchemaBasedMultiTenantConnectionProvider}:
+ * <ul>
+ *     <li>{@code plainPool}: Hikari checkout without tenant handling (baseline)</li>
+ *     <li>{@code sameTenant}: every checkout for one tenant, the schema is already set</li>
+ *     <li>{@code rotatingTenants}: random tenant per checkout, forcing schema switches</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConnectionCheckoutBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int tenantCount;
+
+    private ConfigurableApplicationContext ctx;
+    private SchemaBasedMultiTenantConnectionProvider provider;
+    private DataSource dataSource;
+    private String[] schemas;
+
+    @Setup
+    public void setUp() {
+        ctx = BenchmarkContext.start();
+        BenchmarkContext.seedTenants(ctx, tenantCount, 0);
+        provider = ctx.getBean(SchemaBasedMultiTenantConnectionProvider.class);
+        dataSource = ctx.getBean(DataSource.class);
+        schemas = new String[tenantCount];
+        for (int i = 0; i < tenantCount; i++) {
+            schemas[i] = BenchmarkContext.schemaName(i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public void plainPool() throws SQLException {
+        dataSource.getConnection().close();
+    }
+
+    @Benchmark
+    public void sameTenant() throws SQLException {
+        checkout(schemas[0]);
+    }
+
+    @Benchmark
+    public void rotatingTenants() throws SQLException {
+        checkout(schemas[ThreadLocalRandom.current().nextInt(schemas.length)]);
+    }
+
+    private void checkout(String schema) throws SQLException {
+        Connection c = provider.getConnection(schema);
+        provider.releaseConnection(schema, c);
+    }
+}
@@ -0,0 +1,104 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import com.edstruments.multitenantresourcemanagement.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of JWT issue and verification:
+ * <ul>
+ *     <li>{@code issueToken}: signing a new token as done on login</li>
+ *     <li>{@code rebuildKeyAndParser}: key and parser built on every call (previous behaviour)</li>
+ *     <li>{@code sharedParser}: key and parser built once, full signature check on every call</li>
+ *     <li>{@code cachedVerification}: {@link JwtTokenProvider#validateAndGetClaims} with the verified-token cache</li>
+ * </ul>
+ * Each call picks one of {@code activeTokens} tokens, simulating that many concurrently active users.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "SecretKeyForJWTTokenGeneration123456789";
+
+    @Param({"1000"})
+    public int activeTokens;
+
+    private JwtTokenProvider provider;
+    private io.jsonwebtoken.JwtParser sharedParser;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        provider = JwtTokenProviderFactory.create(SECRET);
+        sharedParser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        tokens = new String[activeTokens];
+        for (int i = 0; i < activeTokens; i++) {
+            tokens[i] = provider.generateToken((long) i, "user" + i, (long) (i % 50), "ADMIN");
+        }
+    }
+
+    private String nextToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    @Benchmark
+    public String issueToken() {
+        int i = ThreadLocalRandom.current().nextInt(activeTokens);
+        return provider.generateToken((long) i, "user" + i, (long) (i % 50), "ADMIN");
+    }
+
+    @Benchmark
+    public Claims rebuildKeyAndParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(nextToken())
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return sharedParser.parseClaimsJws(nextToken()).getBody();
+    }
+
+    @Benchmark
+    public Claims cachedVerification() {
+        return provider.validateAndGetClaims(nextToken());
+    }
+
+    /**
+     * Builds a {@link JwtTokenProvider} outside a Spring context with the defaults
+     * from application.properties.
+     */
+    static final class JwtTokenProviderFactory {
+
+        private JwtTokenProviderFactory() {
+        }
+
+        static JwtTokenProvider create(String secret) {
+            JwtTokenProvider provider = new JwtTokenProvider();
+            ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+            ReflectionTestUtils.setField(provider, "jwtExpirationMs", 86_400_000L);
+            ReflectionTestUtils.setField(provider, "keyId", "k1");
+            ReflectionTestUtils.setField(provider, "retiredKeys", "");
+            ReflectionTestUtils.setField(provider, "cacheMaxSize", 10_000L);
+            ReflectionTestUtils.setField(provider, "cacheTtlSeconds", 300L);
+            ReflectionTestUtils.invokeMethod(provider, "init");
+            return provider;
+        }
+    }
+}
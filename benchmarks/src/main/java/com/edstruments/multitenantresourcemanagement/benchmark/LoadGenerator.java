@@ -0,0 +1,422 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import com.edstruments.multitenantresourcemanagement.dto.BatchItemResult;
+import com.edstruments.multitenantresourcemanagement.entity.Resource;
+import com.edstruments.multitenantresourcemanagement.entity.User;
+import com.edstruments.multitenantresourcemanagement.enums.UserRole;
+import com.edstruments.multitenantresourcemanagement.repository.UserRepository;
+import com.edstruments.multitenantresourcemanagement.service.ResourceService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test. Boots the application on a random local port with embedded H2,
+ * provisions tenants through {@code TenantService.createTenant}, seeds users and resources,
+ * then drives a mixed workload over HTTP from concurrent virtual clients and reports
+ * per-endpoint and per-tenant throughput and HdrHistogram latency percentiles.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar \
+ *     com.edstruments.multitenantresourcemanagement.benchmark.LoadGenerator \
+ *     --tenants=10 --clients=32 --duration=60 --profile=noisy --out=load-result.json
+ * </pre>
+ *
+ * Profiles:
+ * <ul>
+ *     <li>{@code uniform}: clients are spread evenly over all tenants</li>
+ *     <li>{@code noisy}: a {@code noisy-share} fraction of the clients hammers tenant 0 without
+ *     think time while the remaining clients spread over the other tenants, so the latency
+ *     of the quiet tenants shows how well they are isolated from the noisy one</li>
+ * </ul>
+ *
+ * Rate limiting is off unless {@code --rate-limit=true}; with it on, rejected requests
+ * ({@code 429}) are counted as errors.
+ */
+public final class LoadGenerator {
+
+    private static final String PASSWORD = "load-test";
+    private static final String[] SEARCH_WORDS = {"report", "invoice", "contract", "budget", "roadmap", "summary"};
+    private static final String[] SEARCH_MODES = {"prefix", "substring", "ranked"};
+
+    private final Options options;
+    private final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<Op, Recorder> endpointLatency = new EnumMap<>(Op.class);
+    private final Map<Op, LongAdder> endpointErrors = new EnumMap<>(Op.class);
+    private Recorder[] tenantLatency;
+    private LongAdder[] tenantErrors;
+    private String baseUrl;
+    private volatile boolean running = true;
+
+    /**
+     * Operations of the traffic mix with their relative weights.
+     */
+    enum Op {
+        LOGIN("POST /auth/login", 3),
+        LIST("GET /resources", 25),
+        SEARCH("GET /resources/search", 15),
+        GET("GET /resources/{id}", 17),
+        CREATE("POST /resources", 10),
+        UPDATE("PUT /resources/{id}", 10),
+        DELETE("DELETE /resources/{id}", 5),
+        AUDIT("GET /audit-logs/scroll", 15);
+
+        final String endpoint;
+        final int weight;
+
+        Op(String endpoint, int weight) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+    }
+
+    record Options(int tenants, int usersPerTenant, int rowsPerTenant, int clients, int warmupSeconds,
+                   int durationSeconds, String profile, double noisyShare, long thinkMs, boolean rateLimit,
+                   String out) {
+
+        static Options parse(String[] args) {
+            Map<String, String> m = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                m.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+            Options o = new Options(
+                    Integer.parseInt(m.getOrDefault("tenants", "10")),
+                    Integer.parseInt(m.getOrDefault("users-per-tenant", "5")),
+                    Integer.parseInt(m.getOrDefault("rows-per-tenant", "1000")),
+                    Integer.parseInt(m.getOrDefault("clients", "32")),
+                    Integer.parseInt(m.getOrDefault("warmup", "10")),
+                    Integer.parseInt(m.getOrDefault("duration", "30")),
+                    m.getOrDefault("profile", "uniform"),
+                    Double.parseDouble(m.getOrDefault("noisy-share", "0.5")),
+                    Long.parseLong(m.getOrDefault("think-ms", "0")),
+                    Boolean.parseBoolean(m.getOrDefault("rate-limit", "false")),
+                    m.getOrDefault("out", "load-result.json"));
+            if (!o.profile.equals("uniform") && !o.profile.equals("noisy")) {
+                throw new IllegalArgumentException("profile must be uniform or noisy");
+            }
+            if (o.profile.equals("noisy") && o.tenants < 2) {
+                throw new IllegalArgumentException("noisy profile needs at least 2 tenants");
+            }
+            return o;
+        }
+    }
+
+    /**
+     * Seeded data of one tenant.
+     */
+    record TenantFixture(long tenantId, List<User> users, long[] resourceIds) {
+    }
+
+    private LoadGenerator(Options options) {
+        this.options = options;
+        for (Op op : Op.values()) {
+            endpointLatency.put(op, new Recorder(3));
+            endpointErrors.put(op, new LongAdder());
+        }
+        tenantLatency = new Recorder[options.tenants()];
+        tenantErrors = new LongAdder[options.tenants()];
+        for (int i = 0; i < options.tenants(); i++) {
+            tenantLatency[i] = new Recorder(3);
+            tenantErrors[i] = new LongAdder();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadGenerator(Options.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Starting application and seeding %d tenants x %d users x %d resources...%n",
+                options.tenants(), options.usersPerTenant(), options.rowsPerTenant());
+        try (ConfigurableApplicationContext ctx = BenchmarkContext.start("rate.limit.enabled=" + options.rateLimit())) {
+            int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+            List<TenantFixture> fixtures = seed(ctx);
+
+            List<Thread> clients = new ArrayList<>();
+            for (int i = 0; i < options.clients(); i++) {
+                Client client = assignClient(i, fixtures);
+                Thread thread = new Thread(client, "load-client-" + i);
+                thread.setDaemon(true);
+                clients.add(thread);
+                thread.start();
+            }
+
+            System.out.printf("Warming up for %d s with %d clients (%s profile)...%n",
+                    options.warmupSeconds(), options.clients(), options.profile());
+            Thread.sleep(options.warmupSeconds() * 1000L);
+            // discard warm-up samples
+            endpointLatency.values().forEach(Recorder::getIntervalHistogram);
+            Arrays.stream(tenantLatency).forEach(Recorder::getIntervalHistogram);
+            endpointErrors.values().forEach(LongAdder::reset);
+            Arrays.stream(tenantErrors).forEach(LongAdder::reset);
+
+            System.out.printf("Measuring for %d s...%n", options.durationSeconds());
+            long start = System.nanoTime();
+            Thread.sleep(options.durationSeconds() * 1000L);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Map<Op, Histogram> byEndpoint = new EnumMap<>(Op.class);
+            endpointLatency.forEach((op, r) -> byEndpoint.put(op, r.getIntervalHistogram()));
+            Histogram[] byTenant = Arrays.stream(tenantLatency).map(Recorder::getIntervalHistogram).toArray(Histogram[]::new);
+            running = false;
+            for (Thread t : clients) {
+                t.join(5_000);
+            }
+            report(seconds, byEndpoint, byTenant, fixtures);
+        }
+    }
+
+    private List<TenantFixture> seed(ConfigurableApplicationContext ctx) {
+        long[] tenantIds = BenchmarkContext.seedTenants(ctx, options.tenants(), 0);
+        UserRepository userRepository = ctx.getBean(UserRepository.class);
+        ResourceService resourceService = ctx.getBean(ResourceService.class);
+        String hash = ctx.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<TenantFixture> fixtures = new ArrayList<>();
+        for (int t = 0; t < tenantIds.length; t++) {
+            long tenantId = tenantIds[t];
+            List<User> users = new ArrayList<>();
+            for (int u = 0; u < options.usersPerTenant(); u++) {
+                User user = User.builder()
+                        .username("load-user-" + u)
+                        .password(hash)
+                        .role(UserRole.ADMIN)
+                        .tenantId(tenantId)
+                        .build();
+                users.add(BenchmarkContext.inTenant(t, () -> userRepository.save(user)));
+            }
+            List<Resource> rows = new ArrayList<>();
+            for (int n = 0; n < options.rowsPerTenant(); n++) {
+                rows.add(Resource.builder()
+                        .name("item " + n + " " + SEARCH_WORDS[n % SEARCH_WORDS.length])
+                        .description("seeded " + SEARCH_WORDS[(n / 7) % SEARCH_WORDS.length])
+                        .ownerId(users.get(n % users.size()).getId())
+                        .build());
+            }
+            long[] ids = BenchmarkContext.inTenant(t, () -> resourceService.createResources(tenantId, rows)).stream()
+                    .filter(BatchItemResult::success)
+                    .mapToLong(BatchItemResult::id)
+                    .toArray();
+            fixtures.add(new TenantFixture(tenantId, users, ids));
+        }
+        return fixtures;
+    }
+
+    private Client assignClient(int index, List<TenantFixture> fixtures) {
+        if (options.profile().equals("noisy")) {
+            int noisyClients = Math.max(1, (int) Math.round(options.clients() * options.noisyShare()));
+            if (index < noisyClients) {
+                return new Client(0, fixtures.get(0), index, 0);
+            }
+            int tenant = 1 + (index - noisyClients) % (fixtures.size() - 1);
+            return new Client(tenant, fixtures.get(tenant), index, options.thinkMs());
+        }
+        int tenant = index % fixtures.size();
+        return new Client(tenant, fixtures.get(tenant), index, options.thinkMs());
+    }
+
+    /**
+     * One virtual client: logs in as one of its tenant's users and issues operations
+     * from the weighted mix until the test ends.
+     */
+    private final class Client implements Runnable {
+        private final int tenantIndex;
+        private final TenantFixture fixture;
+        private final User user;
+        private final long thinkMs;
+        private final Deque<Long> created = new ArrayDeque<>();
+        private final int totalWeight = Arrays.stream(Op.values()).mapToInt(op -> op.weight).sum();
+        private String token;
+
+        Client(int tenantIndex, TenantFixture fixture, int clientIndex, long thinkMs) {
+            this.tenantIndex = tenantIndex;
+            this.fixture = fixture;
+            this.user = fixture.users().get(clientIndex % fixture.users().size());
+            this.thinkMs = thinkMs;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            while (running) {
+                Op op = token == null ? Op.LOGIN : pick(rnd);
+                if (op == Op.DELETE && created.isEmpty()) {
+                    op = Op.CREATE;
+                }
+                long start = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = execute(op, rnd);
+                } catch (IOException ex) {
+                    ok = false;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long micros = (System.nanoTime() - start) / 1_000;
+                endpointLatency.get(op).recordValue(micros);
+                tenantLatency[tenantIndex].recordValue(micros);
+                if (!ok) {
+                    endpointErrors.get(op).increment();
+                    tenantErrors[tenantIndex].increment();
+                }
+                if (thinkMs > 0) {
+                    try {
+                        Thread.sleep(thinkMs);
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private Op pick(ThreadLocalRandom rnd) {
+            int r = rnd.nextInt(totalWeight);
+            for (Op op : Op.values()) {
+                r -= op.weight;
+                if (r < 0) {
+                    return op;
+                }
+            }
+            return Op.LIST;
+        }
+
+        private boolean execute(Op op, ThreadLocalRandom rnd) throws IOException, InterruptedException {
+            long[] seeded = fixture.resourceIds();
+            return switch (op) {
+                case LOGIN -> {
+                    HttpResponse<String> r = send("POST", "/auth/login", Map.of(
+                            "username", user.getUsername(), "password", PASSWORD, "tenantId", fixture.tenantId()));
+                    if (r.statusCode() == 200) {
+                        token = json.readTree(r.body()).path("token").asText();
+                    }
+                    yield r.statusCode() == 200;
+                }
+                case LIST -> ok(send("GET", "/resources?page=" + rnd.nextInt(5) + "&size=20", null));
+                case SEARCH -> ok(send("GET", "/resources/search?q=" + SEARCH_WORDS[rnd.nextInt(SEARCH_WORDS.length)]
+                        + "&mode=" + SEARCH_MODES[rnd.nextInt(SEARCH_MODES.length)], null));
+                case GET -> seeded.length == 0 || ok(send("GET", "/resources/" + seeded[rnd.nextInt(seeded.length)], null));
+                case CREATE -> {
+                    HttpResponse<String> r = send("POST", "/resources", Map.of(
+                            "name", "load " + rnd.nextInt(1_000_000) + " " + SEARCH_WORDS[rnd.nextInt(SEARCH_WORDS.length)],
+                            "description", "created under load",
+                            "tenantId", fixture.tenantId(),
+                            "ownerId", user.getId()));
+                    if (r.statusCode() == 200) {
+                        JsonNode body = json.readTree(r.body());
+                        created.addLast(body.path("id").asLong());
+                        if (created.size() > 100) {
+                            created.removeFirst();
+                        }
+                    }
+                    yield ok(r);
+                }
+                case UPDATE -> {
+                    long id = !created.isEmpty() ? created.peekLast()
+                            : seeded.length > 0 ? seeded[rnd.nextInt(seeded.length)] : -1;
+                    yield id < 0 || ok(send("PUT", "/resources/" + id, Map.of(
+                            "name", "updated " + rnd.nextInt(1_000_000), "description", "updated under load")));
+                }
+                case DELETE -> ok(send("DELETE", "/resources/" + created.removeFirst(), null));
+                case AUDIT -> ok(send("GET", "/audit-logs/scroll?size=20", null));
+            };
+        }
+
+        private HttpResponse<String> send(String method, String path, Object body) throws IOException, InterruptedException {
+            HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("X-Tenant-ID", BenchmarkContext.schemaName(tenantIndex));
+            if (token != null) {
+                b.header("Authorization", "Bearer " + token);
+            }
+            b.method(method, body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)));
+            return http.send(b.build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        private boolean ok(HttpResponse<String> r) {
+            return r.statusCode() < 400;
+        }
+    }
+
+    private void report(double seconds, Map<Op, Histogram> byEndpoint, Histogram[] byTenant,
+                        List<TenantFixture> fixtures) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("options", options);
+        result.put("measuredSeconds", seconds);
+
+        System.out.printf("%n%-26s %10s %10s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        for (Op op : Op.values()) {
+            Histogram h = byEndpoint.get(op);
+            all.add(h);
+            endpoints.add(row(op.endpoint, h, endpointErrors.get(op).sum(), seconds));
+        }
+        endpoints.add(row("TOTAL", all, endpointErrors.values().stream().mapToLong(LongAdder::sum).sum(), seconds));
+        result.put("endpoints", endpoints);
+
+        System.out.printf("%n%-26s %10s %10s %8s %9s %9s %9s %9s%n",
+                "tenant", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        List<Map<String, Object>> tenants = new ArrayList<>();
+        Histogram quiet = new Histogram(3);
+        long quietErrors = 0;
+        for (int i = 0; i < byTenant.length; i++) {
+            boolean noisy = options.profile().equals("noisy") && i == 0;
+            String label = "tenant " + fixtures.get(i).tenantId() + (noisy ? " (noisy)" : "");
+            tenants.add(row(label, byTenant[i], tenantErrors[i].sum(), seconds));
+            if (!noisy) {
+                quiet.add(byTenant[i]);
+                quietErrors += tenantErrors[i].sum();
+            }
+        }
+        if (options.profile().equals("noisy")) {
+            tenants.add(row("quiet tenants (all)", quiet, quietErrors, seconds));
+        }
+        result.put("tenants", tenants);
+
+        json.writerWithDefaultPrettyPrinter().writeValue(new File(options.out()), result);
+        System.out.printf("%nResults written to %s%n", options.out());
+    }
+
+    private static Map<String, Object> row(String label, Histogram h, long errors, double seconds) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", label);
+        row.put("requests", h.getTotalCount());
+        row.put("throughput", h.getTotalCount() / seconds);
+        row.put("errors", errors);
+        row.put("p50Ms", h.getValueAtPercentile(50) / 1000.0);
+        row.put("p99Ms", h.getValueAtPercentile(99) / 1000.0);
+        row.put("p999Ms", h.getValueAtPercentile(99.9) / 1000.0);
+        row.put("maxMs", h.getMaxValue() / 1000.0);
+        System.out.printf("%-26s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f%n", label, h.getTotalCount(),
+                h.getTotalCount() / seconds, errors, (double) row.get("p50Ms"), (double) row.get("p99Ms"),
+                (double) row.get("p999Ms"), (double) row.get("maxMs"));
+        return row;
+    }
+}
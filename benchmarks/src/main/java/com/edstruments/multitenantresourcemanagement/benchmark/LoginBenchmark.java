@@ -0,0 +1,91 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import com.edstruments.multitenantresourcemanagement.entity.User;
+import com.edstruments.multitenantresourcemanagement.enums.UserRole;
+import com.edstruments.multitenantresourcemanagement.repository.UserRepository;
+import com.edstruments.multitenantresourcemanagement.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login throughput through {@link AuthService#login}: credential cache, password check on
+ * the hashing pool, token issue. Runs one benchmark thread per core, matching the default
+ * pool size, so every worker stays busy.
+ *
+ * BCrypt cost dominates, so the useful figure is logins per second per core; it is printed
+ * after every iteration as {@code logins/s per core}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    @Param({"8", "10"})
+    public int bcryptStrength;
+
+    @Param({"100"})
+    public int users;
+
+    private ConfigurableApplicationContext ctx;
+    private AuthService authService;
+    private long tenantId;
+
+    private final LongAdder logins = new LongAdder();
+    private long iterationStart;
+
+    @Setup
+    public void setUp() {
+        ctx = BenchmarkContext.start(
+                "auth.bcrypt.strength=" + bcryptStrength,
+                "auth.hash.queue-capacity=10000");
+        tenantId = BenchmarkContext.seedTenants(ctx, 1, 0)[0];
+        String hash = ctx.getBean(PasswordEncoder.class).encode("pw");
+        UserRepository userRepository = ctx.getBean(UserRepository.class);
+        for (int i = 0; i < users; i++) {
+            User user = User.builder()
+                    .username("user" + i)
+                    .password(hash)
+                    .role(UserRole.EMPLOYEE)
+                    .tenantId(tenantId)
+                    .build();
+            BenchmarkContext.inTenant(0, () -> userRepository.save(user));
+        }
+        authService = ctx.getBean(AuthService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        logins.reset();
+        iterationStart = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPerCore() {
+        double seconds = (System.nanoTime() - iterationStart) / 1e9;
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%n  logins/s per core: %.1f (%d cores, bcrypt cost %d)%n",
+                logins.sum() / seconds / cores, cores, bcryptStrength);
+    }
+
+    @Benchmark
+    public String login() {
+        BenchmarkContext.useTenant(0);
+        String token = authService.login("user" + ThreadLocalRandom.current().nextInt(users), "pw", tenantId).join();
+        logins.increment();
+        return token;
+    }
+}
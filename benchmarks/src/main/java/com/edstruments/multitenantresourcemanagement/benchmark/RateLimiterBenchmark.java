@@ -0,0 +1,70 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.service.RateLimiter;
+import com.edstruments.multitenantresourcemanagement.service.TenantService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link RateLimiter#tryAcquire}:
+ * <ul>
+ *     <li>{@code allowed}: random tenant and user, limits high enough that every request passes</li>
+ *     <li>{@code overLimit}: one user of a tenant limited to 1 request/s, so every call is rejected</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"10", "1000"})
+    public int tenantCount;
+
+    @Param({"100"})
+    public int usersPerTenant;
+
+    private ConfigurableApplicationContext ctx;
+    private RateLimiter rateLimiter;
+    private long[] tenantIds;
+
+    @Setup
+    public void setUp() {
+        ctx = BenchmarkContext.start(
+                "rate.limit.enabled=true",
+                "rate.limit.capacity=" + Integer.MAX_VALUE,
+                "rate.limit.refill-per-second=" + Integer.MAX_VALUE,
+                "rate.limit.user-capacity=" + Integer.MAX_VALUE,
+                "rate.limit.user-refill-per-second=" + Integer.MAX_VALUE);
+        tenantIds = BenchmarkContext.seedTenants(ctx, tenantCount, 0);
+        ctx.getBean(TenantService.class).updateTenant(tenantIds[0], Tenant.builder()
+                .userRateLimitCapacity(1)
+                .userRateLimitPerSecond(1)
+                .build());
+        rateLimiter = ctx.getBean(RateLimiter.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public long allowed() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long tenantId = tenantIds[1 + rnd.nextInt(tenantIds.length - 1)];
+        return rateLimiter.tryAcquire(tenantId, rnd.nextInt(usersPerTenant));
+    }
+
+    @Benchmark
+    public long overLimit() {
+        return rateLimiter.tryAcquire(tenantIds[0], 1);
+    }
+}
@@ -0,0 +1,129 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import com.edstruments.multitenantresourcemanagement.dto.CursorPage;
+import com.edstruments.multitenantresourcemanagement.entity.Resource;
+import com.edstruments.multitenantresourcemanagement.enums.SearchMode;
+import com.edstruments.multitenantresourcemanagement.service.ResourceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resource hot paths through {@link ResourceService}, parameterised by tenant count and
+ * rows per tenant:
+ * <ul>
+ *     <li>{@code create}: single create including both quota reservations</li>
+ *     <li>{@code getById}: point read (second-level cache) over the 100 newest resources of the tenant</li>
+ *     <li>{@code listFirstPage} / {@code listDeepPage}: offset pagination with total count</li>
+ *     <li>{@code scrollDeepPage}: keyset pagination at the same depth</li>
+ *     <li>{@code searchLike} / {@code searchIndexed}: name search via LIKE vs the search index</li>
+ * </ul>
+ * Each call targets a random tenant, in that tenant's schema.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10"})
+    public int tenantCount;
+
+    @Param({"1000", "10000"})
+    public int rowsPerTenant;
+
+    private ConfigurableApplicationContext ctx;
+    private ResourceService resourceService;
+    private long[] tenantIds;
+    private String[] midCursors;
+    private long[][] knownIds;
+
+    @Setup
+    public void setUp() {
+        ctx = BenchmarkContext.start();
+        tenantIds = BenchmarkContext.seedTenants(ctx, tenantCount, rowsPerTenant);
+        resourceService = ctx.getBean(ResourceService.class);
+        midCursors = new String[tenantCount];
+        knownIds = new long[tenantCount][];
+        for (int t = 0; t < tenantCount; t++) {
+            int depth = Math.max(1, rowsPerTenant / 2);
+            long tenantId = tenantIds[t];
+            midCursors[t] = BenchmarkContext.inTenant(t,
+                    () -> resourceService.scrollResources(tenantId, null, null, depth).nextCursor());
+            knownIds[t] = BenchmarkContext.inTenant(t,
+                    () -> resourceService.scrollResources(tenantId, null, null, 100).content().stream()
+                            .mapToLong(Resource::getId)
+                            .toArray());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    /**
+     * Picks a random tenant and selects its schema for the calling thread.
+     */
+    private int randomTenant() {
+        int t = ThreadLocalRandom.current().nextInt(tenantIds.length);
+        BenchmarkContext.useTenant(t);
+        return t;
+    }
+
+    @Benchmark
+    public Resource create() {
+        long tenantId = tenantIds[randomTenant()];
+        return resourceService.createResource(Resource.builder()
+                .name("bench created")
+                .ownerId((long) ThreadLocalRandom.current().nextInt(10) + 1)
+                .tenantId(tenantId)
+                .build());
+    }
+
+    @Benchmark
+    public Page<Resource> listFirstPage() {
+        return resourceService.listResources(tenantIds[randomTenant()], null, null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<Resource> listDeepPage() {
+        int page = rowsPerTenant / 2 / PAGE_SIZE;
+        return resourceService.listResources(tenantIds[randomTenant()], null, null, page, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<Resource> scrollDeepPage() {
+        int t = randomTenant();
+        return resourceService.scrollResources(tenantIds[t], null, midCursors[t], PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Resource getById() {
+        int t = randomTenant();
+        long[] ids = knownIds[t];
+        return resourceService.getResource(ids[ThreadLocalRandom.current().nextInt(ids.length)], tenantIds[t]);
+    }
+
+    @Benchmark
+    public Page<Resource> searchLike() {
+        return resourceService.listResources(tenantIds[randomTenant()], searchTerm(), null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Resource> searchIndexed() {
+        return resourceService.searchResources(tenantIds[randomTenant()], searchTerm(), SearchMode.SUBSTRING, PAGE_SIZE);
+    }
+
+    private String searchTerm() {
+        return "item " + ThreadLocalRandom.current().nextInt(rowsPerTenant) + " ";
+    }
+}
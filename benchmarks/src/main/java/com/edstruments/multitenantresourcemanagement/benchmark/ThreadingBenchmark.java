@@ -0,0 +1,164 @@
+package com.edstruments.multitenantresourcemanagement.benchmark;
+
+import com.edstruments.multitenantresourcemanagement.entity.User;
+import com.edstruments.multitenantresourcemanagement.enums.UserRole;
+import com.edstruments.multitenantresourcemanagement.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP throughput of {@code GET /resources} with platform vs. virtual request threads while
+ * every JDBC statement takes {@code dbLatencyMs} longer, as against a remote database.
+ *
+ * The Tomcat pool is kept at {@value #TOMCAT_THREADS} threads and the connection pool is made
+ * large, so with platform threads the request pool is the bottleneck; with virtual threads the
+ * blocked requests only hold a connection. The {@code virtual} case needs Java 21+ and fails
+ * its setup on older runtimes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(128)
+@State(Scope.Benchmark)
+public class ThreadingBenchmark {
+
+    private static final int TOMCAT_THREADS = 32;
+
+    @Param({"platform", "virtual"})
+    public String threading;
+
+    @Param({"20"})
+    public int dbLatencyMs;
+
+    private ConfigurableApplicationContext ctx;
+    private HttpClient http;
+    private HttpRequest listRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        boolean virtual = threading.equals("virtual");
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21+, running " + Runtime.version());
+        }
+        ctx = BenchmarkContext.start(
+                c -> c.getBeanFactory().addBeanPostProcessor(new LatencyInjector(dbLatencyMs)),
+                "spring.threads.virtual.enabled=" + virtual,
+                "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "spring.datasource.hikari.maximum-pool-size=150",
+                "tenancy.pool.max-connections-per-tenant=150");
+        long tenantId = BenchmarkContext.seedTenants(ctx, 1, 100)[0];
+        User user = User.builder()
+                .username("bench")
+                .password(ctx.getBean(PasswordEncoder.class).encode("bench"))
+                .role(UserRole.ADMIN)
+                .tenantId(tenantId)
+                .build();
+        BenchmarkContext.inTenant(0, () -> ctx.getBean(UserRepository.class).save(user));
+
+        String baseUrl = "http://localhost:" + ((WebServerApplicationContext) ctx).getWebServer().getPort();
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> login = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .header("X-Tenant-ID", BenchmarkContext.schemaName(0))
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"bench\",\"password\":\"bench\",\"tenantId\":" + tenantId + "}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        String token = login.body().replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+        listRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/resources?size=20"))
+                .header("Authorization", "Bearer " + token)
+                .header("X-Tenant-ID", BenchmarkContext.schemaName(0))
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public int listResources() throws Exception {
+        HttpResponse<Void> response = http.send(listRequest, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /resources returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    /**
+     * Wraps the application DataSource so that every statement execution sleeps first.
+     */
+    static final class LatencyInjector implements BeanPostProcessor {
+        private final long latencyMs;
+
+        LatencyInjector(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                return proxy(DataSource.class, dataSource);
+            }
+            return bean;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T proxy(Class<T> type, T target) {
+            InvocationHandler handler = (p, method, args) -> {
+                if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+                    Thread.sleep(latencyMs);
+                }
+                Object result = invoke(method, target, args);
+                return wrap(method, result);
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private Object wrap(Method method, Object result) {
+            Class<?> returned = method.getReturnType();
+            if (result instanceof CallableStatement s && returned == CallableStatement.class) {
+                return proxy(CallableStatement.class, s);
+            }
+            if (result instanceof PreparedStatement s && returned == PreparedStatement.class) {
+                return proxy(PreparedStatement.class, s);
+            }
+            if (result instanceof Statement s && returned == Statement.class) {
+                return proxy(Statement.class, s);
+            }
+            if (result instanceof Connection c && returned == Connection.class) {
+                return proxy(Connection.class, c);
+            }
+            return result;
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.edstruments.multitenantresourcemanagement.archive;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import com.edstruments.multitenantresourcemanagement.repository.AuditLogPartitions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Archived audit logs: one columnar segment per tenant schema and month in
+ * {@code <audit.retention.archive-dir>/<schema>/audit_logs_yyyyMM.seg}, written when the
+ * retention job archives a monthly partition.
+ *
+ * Queries take the same filters as the live audit log and prune segments by month from their
+ * file name before opening them. Readers are opened once and kept, since segments never change.
+ */
+@Component
+public class AuditArchive {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    @Value("${audit.retention.archive-dir:${java.io.tmpdir}/audit-archive}")
+    private String archiveDir;
+
+    private final Map<Path, AuditSegmentReader> readers = new ConcurrentHashMap<>();
+
+    /**
+     * Opens a writer for the segment of a schema and month; it replaces an existing segment
+     * for the same month once finished.
+     */
+    public AuditSegmentWriter newSegment(String schema, YearMonth month) throws IOException {
+        Path path = segmentPath(schema, month);
+        readers.remove(path);
+        return new AuditSegmentWriter(path);
+    }
+
+    /**
+     * Archived audit logs of the current tenant schema, oldest first. All filters but the
+     * tenant are optional.
+     */
+    public Stream<AuditLog> query(Long tenantId, LocalDateTime from, LocalDateTime to, AuditAction action,
+                                  Long userId) {
+        Path dir = Paths.get(archiveDir, schemaDir(currentSchema()));
+        if (!Files.isDirectory(dir)) {
+            return Stream.empty();
+        }
+        YearMonth fromMonth = from != null ? YearMonth.from(from) : null;
+        YearMonth toMonth = to != null ? YearMonth.from(to) : null;
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(dir)) {
+            segments = files
+                    .filter(p -> {
+                        YearMonth month = monthOf(p);
+                        return month != null
+                                && (fromMonth == null || !month.isBefore(fromMonth))
+                                && (toMonth == null || !month.isAfter(toMonth));
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to list audit archive " + dir, ex);
+        }
+        return segments.stream()
+                .flatMap(p -> reader(p).query(tenantId, from, to, action, userId));
+    }
+
+    /**
+     * Removes the archive of a deleted tenant schema. Its cached readers are dropped first, so
+     * their mappings are released once they are collected; then the schema's directory is deleted.
+     */
+    public void deleteSchema(String schema) {
+        Path dir = Paths.get(archiveDir, schemaDir(schema));
+        readers.keySet().removeIf(p -> p.startsWith(dir));
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to delete audit archive " + dir, ex);
+        }
+    }
+
+    private AuditSegmentReader reader(Path path) {
+        return readers.computeIfAbsent(path, p -> {
+            try {
+                return AuditSegmentReader.open(p);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to open audit segment " + p, ex);
+            }
+        });
+    }
+
+    private Path segmentPath(String schema, YearMonth month) {
+        return Paths.get(archiveDir, schemaDir(schema), AuditLogPartitions.tableName(month) + SEGMENT_SUFFIX);
+    }
+
+    private static YearMonth monthOf(Path segment) {
+        String name = segment.getFileName().toString();
+        if (!name.endsWith(SEGMENT_SUFFIX)) {
+            return null;
+        }
+        return AuditLogPartitions.monthOfTable(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static String schemaDir(String schema) {
+        return schema.toLowerCase(Locale.ROOT);
+    }
+
+    private static String currentSchema() {
+        String tenant = TenantContext.getCurrentTenant();
+        return (tenant != null) ? tenant : "public";
+    }
+}
@@ -0,0 +1,247 @@
+package com.edstruments.multitenantresourcemanagement.archive;
+
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Memory-mapped reader for segments written by {@link AuditSegmentWriter}.
+ *
+ * Performance Optimization:
+ * A query first checks the action against the segment dictionary and each block's tenant and
+ * timestamp range from the footer, so only blocks that can contain matches are inflated. Within
+ * a block the filters run on the decoded numeric columns, and details strings are only decoded
+ * for matching rows. The file is mapped once; instances are immutable and thread-safe.
+ */
+public final class AuditSegmentReader {
+
+    private final Path path;
+    private final MappedByteBuffer data;
+    private final long rows;
+    private final String[] actions;
+    private final String[] entityTypes;
+    private final AuditSegmentWriter.Block[] blocks;
+
+    private AuditSegmentReader(Path path, MappedByteBuffer data, long rows, String[] actions, String[] entityTypes,
+                               AuditSegmentWriter.Block[] blocks) {
+        this.path = path;
+        this.data = data;
+        this.rows = rows;
+        this.actions = actions;
+        this.entityTypes = entityTypes;
+        this.blocks = blocks;
+    }
+
+    public static AuditSegmentReader open(Path path) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int magicLength = AuditSegmentWriter.MAGIC.length;
+        int size = data.capacity();
+        if (size < 2 * magicLength + Long.BYTES
+                || !hasMagic(data, 0) || !hasMagic(data, size - magicLength)) {
+            throw new IOException("Not an audit segment: " + path);
+        }
+        long footerOffset = data.getLong(size - magicLength - Long.BYTES);
+        byte[] footerBytes = new byte[(int) (size - magicLength - Long.BYTES - footerOffset)];
+        data.get((int) footerOffset, footerBytes);
+
+        DataInputStream footer = new DataInputStream(new ByteArrayInputStream(footerBytes));
+        long rows = footer.readLong();
+        String[] actions = readDictionary(footer);
+        String[] entityTypes = readDictionary(footer);
+        AuditSegmentWriter.Block[] blocks = new AuditSegmentWriter.Block[footer.readInt()];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = new AuditSegmentWriter.Block(footer.readLong(), footer.readInt(), footer.readInt(),
+                    footer.readInt(), footer.readLong(), footer.readLong(), footer.readLong(), footer.readLong());
+        }
+        return new AuditSegmentReader(path, data, rows, actions, entityTypes, blocks);
+    }
+
+    public long rowCount() {
+        return rows;
+    }
+
+    /**
+     * Rows of the tenant matching the optional filters, ordered by timestamp and id.
+     * Blocks are inflated lazily as the stream is consumed.
+     */
+    public Stream<AuditLog> query(long tenantId, LocalDateTime from, LocalDateTime to, AuditAction action,
+                                  Long userId) {
+        int actionCode = -1;
+        if (action != null) {
+            actionCode = Arrays.asList(actions).indexOf(action.name());
+            if (actionCode < 0) {
+                return Stream.empty();
+            }
+        }
+        long fromMicros = from != null ? AuditSegmentWriter.toMicros(from) : Long.MIN_VALUE;
+        long toMicros = to != null ? AuditSegmentWriter.toMicros(to) : Long.MAX_VALUE;
+        int wantedAction = actionCode;
+        return Arrays.stream(blocks)
+                .filter(b -> b.minTenant() <= tenantId && tenantId <= b.maxTenant()
+                        && b.minTimestamp() <= toMicros && fromMicros <= b.maxTimestamp())
+                .flatMap(b -> scan(b, tenantId, fromMicros, toMicros, wantedAction, userId).stream());
+    }
+
+    private List<AuditLog> scan(AuditSegmentWriter.Block block, long tenantId, long fromMicros, long toMicros,
+                                int actionCode, Long userId) {
+        VarIntInput in = new VarIntInput(inflate(block));
+        int n = block.rows();
+        long[] ids = new long[n];
+        long[] timestamps = new long[n];
+        boolean[] match = new boolean[n];
+        int matches = 0;
+
+        long prev = 0;
+        for (int i = 0; i < n; i++) {
+            prev += in.readSigned();
+            match[i] = prev == tenantId;
+        }
+        prev = 0;
+        for (int i = 0; i < n; i++) {
+            prev += in.readSigned();
+            ids[i] = prev;
+        }
+        prev = 0;
+        for (int i = 0; i < n; i++) {
+            prev += in.readSigned();
+            timestamps[i] = prev;
+            match[i] &= prev >= fromMicros && prev <= toMicros;
+        }
+        long[] users = new long[n];
+        for (int i = 0; i < n; i++) {
+            users[i] = in.readSigned();
+            match[i] &= userId == null || users[i] == userId;
+        }
+        int[] actionCodes = new int[n];
+        for (int i = 0; i < n; i++) {
+            actionCodes[i] = (int) in.readUnsigned();
+            match[i] &= actionCode < 0 || actionCodes[i] == actionCode;
+            if (match[i]) {
+                matches++;
+            }
+        }
+        if (matches == 0) {
+            return List.of();
+        }
+        int[] entityTypeCodes = new int[n];
+        for (int i = 0; i < n; i++) {
+            entityTypeCodes[i] = (int) in.readUnsigned();
+        }
+        long[] entityIds = new long[n];
+        for (int i = 0; i < n; i++) {
+            entityIds[i] = in.readUnsigned();
+        }
+
+        List<AuditLog> result = new ArrayList<>(matches);
+        for (int i = 0; i < n; i++) {
+            int length = (int) in.readUnsigned();
+            String details = null;
+            if (length > 0) {
+                if (match[i]) {
+                    details = new String(in.bytes, in.pos, length - 1, StandardCharsets.UTF_8);
+                }
+                in.pos += length - 1;
+            }
+            if (!match[i]) {
+                continue;
+            }
+            result.add(AuditLog.builder()
+                    .id(ids[i])
+                    .tenantId(tenantId)
+                    .userId(users[i])
+                    .action(AuditAction.valueOf(actions[actionCodes[i]]))
+                    .entityType(entityTypeCodes[i] == 0 ? null : entityTypes[entityTypeCodes[i] - 1])
+                    .entityId(entityIds[i] == 0 ? null : VarIntInput.unZigZag(entityIds[i] - 1))
+                    .details(details)
+                    .timestamp(AuditSegmentWriter.fromMicros(timestamps[i]))
+                    .build());
+        }
+        return result;
+    }
+
+    private byte[] inflate(AuditSegmentWriter.Block block) {
+        ByteBuffer compressed = data.slice((int) block.offset(), block.compressedLength());
+        byte[] raw = new byte[block.rawLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+            return raw;
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("Corrupt block at " + block.offset() + " in " + path, ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static boolean hasMagic(ByteBuffer data, int offset) {
+        for (int i = 0; i < AuditSegmentWriter.MAGIC.length; i++) {
+            if (data.get(offset + i) != AuditSegmentWriter.MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] readDictionary(DataInputStream footer) throws IOException {
+        String[] values = new String[footer.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = footer.readUTF();
+        }
+        return values;
+    }
+
+    /**
+     * Cursor over LEB128 varints in a decoded block.
+     */
+    private static final class VarIntInput {
+        final byte[] bytes;
+        int pos;
+
+        VarIntInput(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long readUnsigned() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        long readSigned() {
+            return unZigZag(readUnsigned());
+        }
+
+        static long unZigZag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.edstruments.multitenantresourcemanagement.archive;
+
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes an immutable, compressed, columnar segment file of audit logs.
+ *
+ * Rows must be appended ordered by (tenant_id, timestamp, id). They are grouped into blocks
+ * of {@value #BLOCK_ROWS} rows; each block stores its columns one after the other and is
+ * deflated as a whole:
+ * <ul>
+ *     <li>tenant_id, id and timestamp (epoch microseconds) as zig-zag varint deltas</li>
+ *     <li>user_id as a zig-zag varint</li>
+ *     <li>action and entity_type as codes into per-segment dictionaries</li>
+ *     <li>entity_id and details with a null marker; details as UTF-8</li>
+ * </ul>
+ * The footer holds the dictionaries and, per block, its position and the min/max of tenant
+ * and timestamp, so {@link AuditSegmentReader} can skip blocks without inflating them:
+ * <pre>
+ * "AUDSEG01" | block* | footer | footer offset (long) | "AUDSEG01"
+ * </pre>
+ * The file is written under a temporary name and only renamed by {@link #finish()}, after
+ * its contents are forced to disk; the directory is forced after the rename. Once
+ * {@code finish()} returns the segment survives a crash, so its source rows may be deleted.
+ */
+public final class AuditSegmentWriter implements Closeable {
+
+    static final byte[] MAGIC = "AUDSEG01".getBytes(StandardCharsets.US_ASCII);
+    static final int BLOCK_ROWS = 4096;
+
+    private final Path target;
+    private final Path partial;
+    private final FileChannel channel;
+    private final OutputStream out;
+    private long position;
+
+    private final Map<String, Integer> actions = new LinkedHashMap<>();
+    private final Map<String, Integer> entityTypes = new LinkedHashMap<>();
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<AuditLog> pending = new ArrayList<>(BLOCK_ROWS);
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+
+    private long rows;
+    private AuditLog last;
+    private boolean finished;
+
+    /**
+     * Position and zone map of one block, as stored in the footer.
+     */
+    record Block(long offset, int compressedLength, int rawLength, int rows,
+                 long minTenant, long maxTenant, long minTimestamp, long maxTimestamp) {
+    }
+
+    public AuditSegmentWriter(Path target) throws IOException {
+        this.target = target;
+        this.partial = target.resolveSibling(target.getFileName() + ".partial");
+        Files.createDirectories(target.getParent());
+        this.channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.out = Channels.newOutputStream(channel);
+        write(MAGIC);
+    }
+
+    public void append(AuditLog row) throws IOException {
+        if (last != null && compare(last, row) > 0) {
+            throw new IllegalArgumentException("Audit segment rows must be ordered by tenant, timestamp and id");
+        }
+        pending.add(row);
+        last = row;
+        rows++;
+        if (pending.size() == BLOCK_ROWS) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Writes the last block and the footer and durably moves the file into place.
+     *
+     * @return the number of rows in the segment
+     */
+    public long finish() throws IOException {
+        if (!pending.isEmpty()) {
+            writeBlock();
+        }
+        ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+        DataOutputStream footer = new DataOutputStream(footerBytes);
+        footer.writeLong(rows);
+        writeDictionary(footer, actions);
+        writeDictionary(footer, entityTypes);
+        footer.writeInt(blocks.size());
+        for (Block b : blocks) {
+            footer.writeLong(b.offset());
+            footer.writeInt(b.compressedLength());
+            footer.writeInt(b.rawLength());
+            footer.writeInt(b.rows());
+            footer.writeLong(b.minTenant());
+            footer.writeLong(b.maxTenant());
+            footer.writeLong(b.minTimestamp());
+            footer.writeLong(b.maxTimestamp());
+        }
+        footer.flush();
+        long footerOffset = position;
+        write(footerBytes.toByteArray());
+        DataOutputStream trailer = new DataOutputStream(out);
+        trailer.writeLong(footerOffset);
+        trailer.write(MAGIC);
+        trailer.flush();
+        channel.force(true);
+        out.close();
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(target.getParent());
+        finished = true;
+        return rows;
+    }
+
+    /**
+     * Forces the directory entry of a renamed file to disk. Not every platform can open a
+     * directory (Windows cannot); there the rename is as durable as the file system makes it.
+     */
+    private static void forceDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException | UnsupportedOperationException ex) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Discards the partially written file unless {@link #finish()} completed.
+     */
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        if (!finished) {
+            out.close();
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        VarIntOutput col = new VarIntOutput(pending.size() * 48);
+        long minTenant = Long.MAX_VALUE, maxTenant = Long.MIN_VALUE;
+        long minTs = Long.MAX_VALUE, maxTs = Long.MIN_VALUE;
+
+        long prev = 0;
+        for (AuditLog a : pending) {
+            col.writeSigned(a.getTenantId() - prev);
+            prev = a.getTenantId();
+            minTenant = Math.min(minTenant, prev);
+            maxTenant = Math.max(maxTenant, prev);
+        }
+        prev = 0;
+        for (AuditLog a : pending) {
+            col.writeSigned(a.getId() - prev);
+            prev = a.getId();
+        }
+        prev = 0;
+        for (AuditLog a : pending) {
+            long ts = toMicros(a.getTimestamp());
+            col.writeSigned(ts - prev);
+            prev = ts;
+            minTs = Math.min(minTs, ts);
+            maxTs = Math.max(maxTs, ts);
+        }
+        for (AuditLog a : pending) {
+            col.writeSigned(a.getUserId());
+        }
+        for (AuditLog a : pending) {
+            col.writeUnsigned(code(actions, a.getAction().name()));
+        }
+        for (AuditLog a : pending) {
+            col.writeUnsigned(a.getEntityType() == null ? 0 : code(entityTypes, a.getEntityType()) + 1);
+        }
+        for (AuditLog a : pending) {
+            col.writeUnsigned(a.getEntityId() == null ? 0 : VarIntOutput.zigZag(a.getEntityId()) + 1);
+        }
+        for (AuditLog a : pending) {
+            if (a.getDetails() == null) {
+                col.writeUnsigned(0);
+            } else {
+                byte[] utf8 = a.getDetails().getBytes(StandardCharsets.UTF_8);
+                col.writeUnsigned(utf8.length + 1L);
+                col.write(utf8, 0, utf8.length);
+            }
+        }
+
+        byte[] raw = col.toByteArray();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] buffer = new byte[Math.max(64, raw.length / 2)];
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(buffer.length);
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            compressed.write(buffer, 0, n);
+        }
+        blocks.add(new Block(position, compressed.size(), raw.length, pending.size(),
+                minTenant, maxTenant, minTs, maxTs));
+        write(compressed.toByteArray());
+        pending.clear();
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    private static int code(Map<String, Integer> dictionary, String value) {
+        return dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+
+    private static void writeDictionary(DataOutputStream footer, Map<String, Integer> dictionary) throws IOException {
+        footer.writeInt(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            footer.writeUTF(value);
+        }
+    }
+
+    private static int compare(AuditLog a, AuditLog b) {
+        int c = Long.compare(a.getTenantId(), b.getTenantId());
+        if (c == 0) {
+            c = a.getTimestamp().compareTo(b.getTimestamp());
+        }
+        return c != 0 ? c : Long.compare(a.getId(), b.getId());
+    }
+
+    static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Growable byte buffer with LEB128 varint writes.
+     */
+    static final class VarIntOutput extends ByteArrayOutputStream {
+
+        VarIntOutput(int size) {
+            super(size);
+        }
+
+        void writeUnsigned(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeSigned(long value) {
+            writeUnsigned(zigZag(value));
+        }
+
+        static long zigZag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+}
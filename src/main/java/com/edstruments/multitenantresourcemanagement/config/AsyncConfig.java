@@ -0,0 +1,24 @@
+package com.edstruments.multitenantresourcemanagement.config;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContextTaskDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables {@code @Async} on the auto-configured application task executor.
+ *
+ * The executor (a bounded pool, or one virtual thread per task when
+ * {@code spring.threads.virtual.enabled=true} on Java 21+) applies the decorator below, so
+ * async work runs against the caller's tenant schema and with the caller's authentication.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Bean
+    public TaskDecorator tenantContextTaskDecorator() {
+        return new TenantContextTaskDecorator();
+    }
+}
@@ -0,0 +1,36 @@
+package com.edstruments.multitenantresourcemanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Bounds the number of distinct {@code tenant} tag values per metric, so a large or
+ * growing tenant count cannot blow up the number of time series. Meters for tenants
+ * beyond the limit are not registered and their recordings are discarded.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<String> TENANT_TAGGED = List.of(
+            "http.server.requests", "jdbc.request", "quota.check", "audit.submit", "rate.limit",
+            "tenant.connection");
+
+    @Value("${metrics.tenant.max-tags:1000}")
+    private int maxTenantTags;
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> tenantTagLimits() {
+        return registry -> {
+            for (String prefix : TENANT_TAGGED) {
+                registry.config().meterFilter(
+                        MeterFilter.maximumAllowableTags(prefix, "tenant", maxTenantTags, MeterFilter.deny()));
+            }
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package com.edstruments.multitenantresourcemanagement.config;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+
+/**
+ * Cache key scoped to the current tenant schema and tenant id, so that entries of one
+ * tenant can never be served to another.
+ */
+public record TenantCacheKey(String schema, long tenantId, Object id) {
+
+    public static TenantCacheKey of(long tenantId, Object id) {
+        String tenant = TenantContext.getCurrentTenant();
+        return new TenantCacheKey(tenant != null ? tenant : "public", tenantId, id);
+    }
+}
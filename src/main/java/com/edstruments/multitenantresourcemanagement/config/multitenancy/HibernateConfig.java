@@ -1,7 +1,10 @@
 package com.edstruments.multitenantresourcemanagement.config.multitenancy;
 
+import com.edstruments.multitenantresourcemanagement.metrics.JdbcMetricsListener;
+import com.edstruments.multitenantresourcemanagement.metrics.SqlCaptureInspector;
 import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,6 +26,15 @@ public class HibernateConfig {
     @Autowired
     private CurrentTenantIdentifierResolver tenantIdentifierResolver;
 
+    @Autowired
+    private TenantRegionFactory regionFactory;
+
+    @Autowired
+    private ReadReplicaRouter replicaRouter;
+
+    @Value("${l2cache.enabled:true}")
+    private boolean secondLevelCacheEnabled;
+
     @Bean
     public LocalContainerEntityManagerFactoryBean entityManagerFactory(EntityManagerFactoryBuilder builder) {
         Map<String, Object> props = new HashMap<>();
@@ -32,8 +44,20 @@ public class HibernateConfig {
         props.put("hibernate.multi_tenant_connection_provider", multiTenantConnectionProvider);
         props.put("hibernate.tenant_identifier_resolver", tenantIdentifierResolver);
         props.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
-        props.put("hibernate.show_sql", true);
-        props.put("hibernate.format_sql", true);
+        // SQL logging comes from spring.jpa.show-sql / hibernate.format_sql so it can be switched off;
+        // by default only slow statements are logged (SlowQueryLog)
+        props.put("hibernate.session_factory.statement_inspector", new SqlCaptureInspector());
+        props.put("hibernate.session.events.auto", JdbcMetricsListener.class.getName());
+        props.put("hibernate.hbm2ddl.schema_filter_provider", new PartitionedTableSchemaFilterProvider());
+        // second-level and query cache, partitioned per tenant; only entities annotated with @Cache are cached
+        props.put("hibernate.cache.use_second_level_cache", secondLevelCacheEnabled);
+        props.put("hibernate.cache.use_query_cache", secondLevelCacheEnabled);
+        props.put("hibernate.cache.region.factory_class", regionFactory);
+        props.put("jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        if (replicaRouter.isEnabled()) {
+            // a session (open-in-view) must not keep a replica connection for its next, writing transaction
+            props.put("hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+        }
 
         return builder
                 .dataSource(dataSource)
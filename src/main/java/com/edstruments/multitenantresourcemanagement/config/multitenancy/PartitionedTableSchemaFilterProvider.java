@@ -0,0 +1,63 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilterProvider;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Keeps Hibernate's schema generation away from tables of mapped entities whose rows live
+ * elsewhere: {@code audit_logs} is only the mapping of the monthly partitions managed by
+ * {@link com.edstruments.multitenantresourcemanagement.repository.AuditLogPartitions}, so
+ * creating it (and its indexes) would leave an empty table behind.
+ */
+public class PartitionedTableSchemaFilterProvider implements SchemaFilterProvider {
+
+    private static final Set<String> EXCLUDED_TABLES = Set.of("audit_logs");
+
+    private static final SchemaFilter FILTER = new SchemaFilter() {
+        @Override
+        public boolean includeNamespace(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public boolean includeTable(Table table) {
+            return !EXCLUDED_TABLES.contains(table.getName().toLowerCase(Locale.ROOT));
+        }
+
+        @Override
+        public boolean includeSequence(Sequence sequence) {
+            return true;
+        }
+    };
+
+    @Override
+    public SchemaFilter getCreateFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getDropFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getTruncatorFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getMigrateFilter() {
+        return FILTER;
+    }
+
+    @Override
+    public SchemaFilter getValidateFilter() {
+        return FILTER;
+    }
+}
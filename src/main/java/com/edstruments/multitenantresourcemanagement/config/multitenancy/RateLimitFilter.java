@@ -0,0 +1,53 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import com.edstruments.multitenantresourcemanagement.security.TenantPrincipal;
+import com.edstruments.multitenantresourcemanagement.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects authenticated requests over their tenant's or user's rate limit with
+ * {@code 429 Too Many Requests} and a {@code Retry-After} header (whole seconds).
+ * Runs after the security filter chain, which identifies the caller; unauthenticated
+ * requests are left to the authorization rules.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        TenantPrincipal principal = (TenantPrincipal) request.getAttribute(TenantPrincipal.REQUEST_ATTRIBUTE);
+        if (principal != null) {
+            long waitNanos = rateLimiter.tryAcquire(principal.tenantId(), principal.userId());
+            if (waitNanos > 0) {
+                long retryAfter = (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+                response.setContentType("text/plain");
+                response.getWriter().write("Rate limit exceeded");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
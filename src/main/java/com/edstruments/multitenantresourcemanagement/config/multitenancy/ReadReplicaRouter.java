@@ -0,0 +1,273 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which read-only transactions are served by the read replica
+ * ({@code datasource.replica.url}); {@link SchemaBasedMultiTenantConnectionProvider} asks it
+ * when Hibernate borrows a connection. Everything else uses the primary.
+ *
+ * A read of a tenant schema goes to the replica only when:
+ * <ul>
+ *     <li>it runs in a {@code @Transactional(readOnly = true)} transaction of its own,</li>
+ *     <li>the replica's lag, measured through a heartbeat row written to the primary every
+ *     {@code datasource.replica.heartbeat-ms}, is within {@code datasource.replica.max-lag-ms},</li>
+ *     <li>the tenant has not committed a write in the last {@code datasource.replica.sticky-ms}
+ *     (read-your-writes).</li>
+ * </ul>
+ * The public schema (tenant directory) is always read from the primary, so tenant changes
+ * are visible at once.
+ *
+ * Performance Optimization:
+ * Listing, search and audit reads, the bulk of the traffic, are taken off the primary, which
+ * keeps its pool and I/O for writes. Routing decisions are counted in
+ * {@code datasource.replica.reads}; the measured lag is exported as {@code datasource.replica.lag}.
+ */
+@Slf4j
+@Component
+public class ReadReplicaRouter implements TransactionExecutionListener {
+
+    private static final String HEARTBEAT_DDL = "CREATE TABLE IF NOT EXISTS public.replica_heartbeat (" +
+            "id INT PRIMARY KEY, beat TIMESTAMP NOT NULL)";
+    private static final String HEARTBEAT_WRITE = "MERGE INTO public.replica_heartbeat (id, beat) KEY (id) VALUES (1, ?)";
+    private static final String HEARTBEAT_READ = "SELECT beat FROM public.replica_heartbeat WHERE id = 1";
+
+    /**
+     * Read-only flag of each transaction running on the thread, innermost last; a suspended
+     * transaction keeps its flag while a REQUIRES_NEW one runs.
+     */
+    private static final ThreadLocal<Deque<Boolean>> TRANSACTIONS = new ThreadLocal<>();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${datasource.replica.url:}")
+    private String url;
+
+    @Value("${datasource.replica.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${datasource.replica.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${datasource.replica.pool-size:10}")
+    private int poolSize;
+
+    /**
+     * -1 disables the lag check, e.g. for a local database standing in for a replica.
+     */
+    @Value("${datasource.replica.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Value("${datasource.replica.sticky-ms:5000}")
+    private long stickyMs;
+
+    private HikariDataSource replica;
+
+    /**
+     * Last measured lag; unknown (treated as too stale) until the first heartbeat is read.
+     */
+    private volatile long lagMs = Long.MAX_VALUE;
+
+    /**
+     * Time (nanoTime) of each tenant's last committed write, by lower-case schema.
+     */
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private Counter replicaReads;
+    private Counter primaryReads;
+    private Counter fallbacks;
+
+    @PostConstruct
+    void init() {
+        if (!StringUtils.hasText(url)) {
+            return;
+        }
+        replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(url);
+        replica.setUsername(username);
+        replica.setPassword(password);
+        if (StringUtils.hasText(dataSourceProperties.getDriverClassName())) {
+            replica.setDriverClassName(dataSourceProperties.getDriverClassName());
+        }
+        replica.setMaximumPoolSize(poolSize);
+        replica.setReadOnly(true);
+        // the replica must stay fresh for longer than a tenant's reads are pinned to the primary
+        if (maxLagMs >= 0 && stickyMs < maxLagMs) {
+            stickyMs = maxLagMs;
+        }
+        if (maxLagMs >= 0) {
+            try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+                st.execute(HEARTBEAT_DDL);
+            } catch (SQLException ex) {
+                log.warn("Failed to create the replica heartbeat table: {}", ex.getMessage());
+            }
+        }
+        replicaReads = meterRegistry.counter("datasource.replica.reads", "target", "replica");
+        primaryReads = meterRegistry.counter("datasource.replica.reads", "target", "primary");
+        fallbacks = meterRegistry.counter("datasource.replica.fallbacks");
+        Gauge.builder("datasource.replica.lag", this, r -> r.lagMs == Long.MAX_VALUE ? Double.NaN : r.lagMs)
+                .description("Replication lag of the read replica")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        log.info("Read-only transactions are routed to replica {} (max lag {} ms, sticky {} ms)",
+                url, maxLagMs, stickyMs);
+    }
+
+    @PreDestroy
+    void close() {
+        if (replica != null) {
+            replica.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return replica != null;
+    }
+
+    /**
+     * @param schema tenant schema, any case
+     * @return the replica if a connection borrowed now for this tenant may read from it, else null
+     */
+    public DataSource route(String schema) {
+        Deque<Boolean> transactions = TRANSACTIONS.get();
+        if (replica == null || transactions == null || !transactions.peekLast()
+                || TenantRegistry.DEFAULT_SCHEMA.equalsIgnoreCase(schema)) {
+            return null;
+        }
+        if (isFresh() && !isSticky(schema)) {
+            replicaReads.increment();
+            return replica;
+        }
+        primaryReads.increment();
+        return null;
+    }
+
+    /**
+     * Called when a replica connection could not be used; the read continues on the primary.
+     */
+    public void fallback(String schema, SQLException ex) {
+        fallbacks.increment();
+        log.debug("Replica unavailable for {}, reading from the primary: {}", schema, ex.getMessage());
+    }
+
+    @Override
+    public void beforeBegin(TransactionExecution transaction) {
+        Deque<Boolean> transactions = TRANSACTIONS.get();
+        if (transactions == null) {
+            transactions = new ArrayDeque<>(2);
+            TRANSACTIONS.set(transactions);
+        }
+        transactions.addLast(transaction.isReadOnly());
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null) {
+            end();
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly() && replica != null) {
+            String tenant = TenantContext.getCurrentTenant();
+            lastWrites.put(key(tenant != null ? tenant : TenantRegistry.DEFAULT_SCHEMA), System.nanoTime());
+        }
+        end();
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        end();
+    }
+
+    /**
+     * Writes the heartbeat to the primary and reads it back from the replica.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica.heartbeat-ms:1000}")
+    public void heartbeat() {
+        if (replica == null || maxLagMs < 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(HEARTBEAT_WRITE)) {
+            ps.setTimestamp(1, new Timestamp(now));
+            ps.executeUpdate();
+        } catch (SQLException ex) {
+            log.warn("Failed to write the replica heartbeat: {}", ex.getMessage());
+        }
+        try (Connection conn = replica.getConnection(); Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(HEARTBEAT_READ)) {
+            lagMs = rs.next() ? Math.max(0, System.currentTimeMillis() - rs.getTimestamp(1).getTime()) : Long.MAX_VALUE;
+        } catch (SQLException ex) {
+            lagMs = Long.MAX_VALUE;
+            log.debug("Failed to read the replica heartbeat: {}", ex.getMessage());
+        }
+    }
+
+    private boolean isFresh() {
+        return maxLagMs < 0 || lagMs <= maxLagMs;
+    }
+
+    private boolean isSticky(String schema) {
+        Long lastWrite = lastWrites.get(key(schema));
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < TimeUnit.MILLISECONDS.toNanos(stickyMs)) {
+            return true;
+        }
+        lastWrites.remove(key(schema), lastWrite);
+        return false;
+    }
+
+    private static void end() {
+        Deque<Boolean> transactions = TRANSACTIONS.get();
+        if (transactions != null) {
+            transactions.pollLast();
+            if (transactions.isEmpty()) {
+                TRANSACTIONS.remove();
+            }
+        }
+    }
+
+    private static String key(String schema) {
+        return schema.toLowerCase(Locale.ROOT);
+    }
+}
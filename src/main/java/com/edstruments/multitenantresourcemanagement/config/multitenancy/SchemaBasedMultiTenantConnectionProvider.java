@@ -1,15 +1,50 @@
 package com.edstruments.multitenantresourcemanagement.config.multitenancy;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.hibernate.engine.jdbc.connections.spi.AbstractDataSourceBasedMultiTenantConnectionProviderImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Provides schema-based connections dynamically depending on the tenant.
+ *
+ * Performance Optimization:
+ * 1. Schema tracking: the schema each pooled physical connection is currently set to is
+ *    remembered, so {@code setSchema} is only issued when a connection moves between tenants.
+ * 2. Fair share: on the shared pool a tenant may hold at most
+ *    {@code tenancy.pool.max-connections-per-tenant} connections at once, so one noisy
+ *    tenant cannot starve the others.
+ * 3. Dedicated pools: tenants listed in {@code tenancy.pool.dedicated-tenants} get their
+ *    own Hikari pool instead of sharing the default one.
+ * 4. Read replica: connections for read-only transactions come from the replica when the
+ *    {@link ReadReplicaRouter} allows it, falling back to the primary if the replica fails.
+ *
+ * Per-tenant checkout wait time ({@code tenant.connection.wait}) and active connection
+ * count ({@code tenant.connection.active}) are exported as metrics.
  */
 @Component
 public class SchemaBasedMultiTenantConnectionProvider extends AbstractDataSourceBasedMultiTenantConnectionProviderImpl {
@@ -17,6 +52,87 @@ public class SchemaBasedMultiTenantConnectionProvider extends AbstractDataSource
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReadReplicaRouter replicaRouter;
+
+    @Value("${tenancy.pool.max-connections-per-tenant:0}")
+    private int maxConnectionsPerTenant;
+
+    @Value("${tenancy.pool.acquire-timeout-ms:5000}")
+    private long acquireTimeoutMs;
+
+    @Value("${tenancy.pool.dedicated-tenants:}")
+    private String dedicatedTenants;
+
+    @Value("${tenancy.pool.dedicated-min-idle:1}")
+    private int dedicatedMinIdle;
+
+    @Value("${tenancy.pool.dedicated-max-size:10}")
+    private int dedicatedMaxSize;
+
+    private final Map<String, HikariDataSource> dedicatedPools = new HashMap<>();
+    private final Map<String, TenantSlot> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Schema currently set on each physical connection. Weak keys compare by identity
+     * and let entries disappear once the pool retires a connection.
+     */
+    private final Cache<Connection, String> connectionSchemas = Caffeine.newBuilder().weakKeys().build();
+
+    /**
+     * Borrowed replica connections; they hold no fair-share permit.
+     */
+    private final Set<Connection> replicaConnections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether the database upper-cases unquoted identifiers (H2) or lower-cases them (PostgreSQL).
+     */
+    private volatile Boolean upperCaseIdentifiers;
+
+    /**
+     * Per-tenant accounting for connections borrowed through this provider.
+     */
+    private static final class TenantSlot {
+        final Semaphore permits;
+        final AtomicInteger active = new AtomicInteger();
+        final Timer waitTimer;
+
+        TenantSlot(int permits, Timer waitTimer) {
+            this.permits = permits > 0 ? new Semaphore(permits, true) : null;
+            this.waitTimer = waitTimer;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        if (maxConnectionsPerTenant <= 0) {
+            // default fair share: half of the shared pool
+            int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+            maxConnectionsPerTenant = Math.max(1, poolSize / 2);
+        }
+        for (String tenant : StringUtils.commaDelimitedListToStringArray(dedicatedTenants)) {
+            String schema = tenant.trim();
+            HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            pool.setPoolName("tenant-" + schema);
+            pool.setMinimumIdle(dedicatedMinIdle);
+            pool.setMaximumPoolSize(dedicatedMaxSize);
+            dedicatedPools.put(normalise(schema), pool);
+        }
+    }
+
+    @PreDestroy
+    void closeDedicatedPools() {
+        dedicatedPools.values().forEach(HikariDataSource::close);
+    }
+
     @Override
     protected DataSource selectAnyDataSource() {
         return dataSource;
@@ -25,23 +141,93 @@ public class SchemaBasedMultiTenantConnectionProvider extends AbstractDataSource
     // ⚠️ Hibernate 6 uses Object, not String
     @Override
     protected DataSource selectDataSource(Object tenantIdentifier) {
-        return dataSource;
+        if (tenantIdentifier == null) {
+            return dataSource;
+        }
+        DataSource dedicated = dedicatedPools.get(normalise(tenantIdentifier.toString()));
+        return dedicated != null ? dedicated : dataSource;
     }
 
     @Override
     public Connection getConnection(Object tenantIdentifier) throws SQLException {
-        Connection connection = dataSource.getConnection();
-        if (tenantIdentifier != null) {
+        if (tenantIdentifier == null) {
+            return getAnyConnection();
+        }
+        String schema = normalise(tenantIdentifier.toString());
+        DataSource replica = replicaRouter.route(schema);
+        if (replica != null) {
+            Connection connection = null;
             try {
-                connection.setSchema(tenantIdentifier.toString());
+                connection = replica.getConnection();
+                switchSchema(connection, schema);
+                replicaConnections.add(connection);
+                return connection;
             } catch (SQLException ex) {
-                // fallback to public if schema not found
-                connection.setSchema("public");
+                if (connection != null) {
+                    connection.close();
+                }
+                replicaRouter.fallback(schema, ex);
             }
         }
+        DataSource ds = selectDataSource(schema);
+        TenantSlot slot = slotFor(schema, ds != dataSource);
+
+        long start = System.nanoTime();
+        if (slot.permits != null) {
+            boolean acquired;
+            try {
+                acquired = slot.permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a connection for " + schema, ex);
+            }
+            if (!acquired) {
+                slot.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw new SQLTransientConnectionException("Tenant " + schema
+                        + " exceeded its share of " + maxConnectionsPerTenant + " connections");
+            }
+        }
+
+        Connection connection;
+        try {
+            connection = ds.getConnection();
+        } catch (SQLException ex) {
+            releasePermit(slot);
+            throw ex;
+        } finally {
+            slot.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            switchSchema(connection, schema);
+        } catch (SQLException ex) {
+            connection.close();
+            releasePermit(slot);
+            throw ex;
+        }
+        slot.active.incrementAndGet();
         return connection;
     }
 
+    @Override
+    public void releaseConnection(Object tenantIdentifier, Connection connection) throws SQLException {
+        if (replicaConnections.remove(connection)) {
+            connection.close();
+            return;
+        }
+        try {
+            connection.close();
+        } finally {
+            if (tenantIdentifier != null) {
+                TenantSlot slot = slots.get(normalise(tenantIdentifier.toString()));
+                if (slot != null) {
+                    slot.active.decrementAndGet();
+                    releasePermit(slot);
+                }
+            }
+        }
+    }
+
     @Override
     public Connection getAnyConnection() throws SQLException {
         return dataSource.getConnection();
@@ -51,4 +237,64 @@ public class SchemaBasedMultiTenantConnectionProvider extends AbstractDataSource
     public void releaseAnyConnection(Connection connection) throws SQLException {
         connection.close();
     }
+
+    /**
+     * Sets the schema unless the physical connection is already on it. A missing schema is
+     * reported to the caller instead of silently falling back to another tenant's data.
+     */
+    private void switchSchema(Connection connection, String schema) throws SQLException {
+        Connection physical = connection.unwrap(Connection.class);
+        if (schema.equals(connectionSchemas.getIfPresent(physical))) {
+            return;
+        }
+        connectionSchemas.invalidate(physical);
+        connection.setSchema(schema);
+        connectionSchemas.put(physical, schema);
+    }
+
+    private TenantSlot slotFor(String schema, boolean dedicated) {
+        TenantSlot slot = slots.get(schema);
+        if (slot != null) {
+            return slot;
+        }
+        return slots.computeIfAbsent(schema, s -> {
+            String pool = dedicated ? "dedicated" : "shared";
+            Timer waitTimer = Timer.builder("tenant.connection.wait")
+                    .description("Time waiting for a tenant connection checkout")
+                    .tags("tenant", s, "pool", pool)
+                    .register(meterRegistry);
+            // dedicated pools are already isolated, fair share only applies to the shared pool
+            TenantSlot created = new TenantSlot(dedicated ? 0 : maxConnectionsPerTenant, waitTimer);
+            Gauge.builder("tenant.connection.active", created.active, AtomicInteger::get)
+                    .description("Connections currently borrowed by a tenant")
+                    .tags("tenant", s, "pool", pool)
+                    .register(meterRegistry);
+            return created;
+        });
+    }
+
+    private static void releasePermit(TenantSlot slot) {
+        if (slot.permits != null) {
+            slot.permits.release();
+        }
+    }
+
+    /**
+     * Converts a tenant identifier to the form the database stores unquoted identifiers in
+     * (H2 upper-cases them, so "public" must become "PUBLIC" for setSchema). Schemas are
+     * created with unquoted names in {@code TenantService}, so this matches their stored form.
+     */
+    private String normalise(String schema) {
+        Boolean upper = upperCaseIdentifiers;
+        if (upper == null) {
+            try (Connection c = dataSource.getConnection()) {
+                DatabaseMetaData meta = c.getMetaData();
+                upper = meta.storesUpperCaseIdentifiers();
+            } catch (SQLException ex) {
+                return schema;
+            }
+            upperCaseIdentifiers = upper;
+        }
+        return upper ? schema.toUpperCase(Locale.ROOT) : schema.toLowerCase(Locale.ROOT);
+    }
 }
@@ -1,5 +1,12 @@
 package com.edstruments.multitenantresourcemanagement.config.multitenancy;
 
+/**
+ * Tenant (schema) of the current request, set by {@link TenantFilter}.
+ *
+ * The value is thread-bound, which holds for both platform and virtual request threads.
+ * Work handed to the application task executor ({@code @Async}) carries it over through
+ * {@link TenantContextTaskDecorator}; code starting its own threads must pass it explicitly.
+ */
 public class TenantContext {
     private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
 
@@ -0,0 +1,42 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Carries the submitting thread's tenant and authentication over to the thread that runs
+ * an asynchronous task, and restores the executing thread's own state afterwards so pooled
+ * threads do not leak one request's tenant into the next task.
+ */
+public class TenantContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        String tenant = TenantContext.getCurrentTenant();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return () -> {
+            String previousTenant = TenantContext.getCurrentTenant();
+            SecurityContext previousSecurity = SecurityContextHolder.getContext();
+            SecurityContext security = SecurityContextHolder.createEmptyContext();
+            security.setAuthentication(authentication);
+            TenantContext.setCurrentTenant(tenant);
+            SecurityContextHolder.setContext(security);
+            try {
+                task.run();
+            } finally {
+                if (previousTenant != null) {
+                    TenantContext.setCurrentTenant(previousTenant);
+                } else {
+                    TenantContext.clear();
+                }
+                if (previousSecurity.getAuthentication() != null) {
+                    SecurityContextHolder.setContext(previousSecurity);
+                } else {
+                    SecurityContextHolder.clearContext();
+                }
+            }
+        };
+    }
+}
@@ -1,34 +1,86 @@
 package com.edstruments.multitenantresourcemanagement.config.multitenancy;
 
+import com.edstruments.multitenantresourcemanagement.security.TenantPrincipal;
+import com.edstruments.multitenantresourcemanagement.service.TenantDeletionService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Resolves the tenant schema of the request through the {@link TenantRegistry}: from the
+ * {@code X-Tenant-ID} header, else from the {@code tenantId} claim of the caller's token,
+ * else {@code public}. Runs after the security filter chain, which identifies the caller.
+ *
+ * Unknown tenants are rejected with {@code 400}, inactive ones with {@code 403} and tenants
+ * that are being deleted with {@code 410 Gone}, before any connection is borrowed. An
+ * authenticated caller can only name its own tenant in the header; any other tenant, including
+ * {@code public}, is rejected with {@code 403}.
+ */
 @Component
 public class TenantFilter extends OncePerRequestFilter {
 
     private static final String TENANT_HEADER = "X-Tenant-ID";
 
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private TenantDeletionService tenantDeletionService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String tenantId = request.getHeader(TENANT_HEADER);
-        if (tenantId != null && !tenantId.isEmpty()) {
-            TenantContext.setCurrentTenant(tenantId);
-        } else {
-            TenantContext.setCurrentTenant("public");
+        String schema = TenantRegistry.DEFAULT_SCHEMA;
+        TenantRegistry.Entry tenant = null;
+        String header = request.getHeader(TENANT_HEADER);
+        TenantPrincipal principal = (TenantPrincipal) request.getAttribute(TenantPrincipal.REQUEST_ATTRIBUTE);
+        if (header != null && !header.isEmpty()) {
+            schema = header;
+            tenant = tenantRegistry.findBySchema(header);
+            if (tenant == null && !TenantRegistry.DEFAULT_SCHEMA.equalsIgnoreCase(header)) {
+                reject(response, HttpStatus.BAD_REQUEST, "Unknown tenant");
+                return;
+            }
+            if (principal != null && (tenant == null || tenant.id() != principal.tenantId())) {
+                reject(response, HttpStatus.FORBIDDEN, "Tenant mismatch");
+                return;
+            }
+        } else if (principal != null) {
+            tenant = tenantRegistry.findById(principal.tenantId());
+            if (tenant == null) {
+                reject(response, HttpStatus.BAD_REQUEST, "Unknown tenant");
+                return;
+            }
+            schema = tenant.schemaName();
+        }
+        if (tenant != null && !tenant.active()) {
+            if (tenantDeletionService.isDeleting(tenant.schemaName())) {
+                reject(response, HttpStatus.GONE, "Tenant is being deleted");
+            } else {
+                reject(response, HttpStatus.FORBIDDEN, "Tenant is inactive");
+            }
+            return;
         }
 
+        TenantContext.setCurrentTenant(schema);
         try {
             filterChain.doFilter(request, response);
         } finally {
             TenantContext.clear();
         }
     }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("text/plain");
+        response.getWriter().write(message);
+    }
 }
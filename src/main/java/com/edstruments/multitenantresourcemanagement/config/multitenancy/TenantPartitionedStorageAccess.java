@@ -0,0 +1,221 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.cache.internal.BasicCacheKeyImplementation;
+import org.hibernate.cache.internal.CacheKeyImplementation;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Storage of one second-level cache region, split into one Caffeine cache per tenant
+ * identifier (schema). Each partition is bounded by an estimated size in bytes, and the
+ * number of partitions per region is bounded too, least recently used tenant first.
+ *
+ * Entity keys already carry the tenant; query result keys do not, so the tenant of the
+ * session is used. Regions of entities that live in the shared {@code public} schema
+ * ({@link TenantRegionFactory#SHARED_REGION_PREFIX}) ignore the tenant instead, so a row
+ * changed from one tenant's session is not served stale to another.
+ */
+final class TenantPartitionedStorageAccess implements DomainDataStorageAccess {
+
+    private static final String SHARED_PARTITION = "*";
+    private static final long QUERY_ENTRY_BYTES = 256;
+
+    private final boolean shared;
+    private final long maxBytesPerTenant;
+    private final Duration ttl;
+    private final Cache<String, Cache<Object, Object>> partitions;
+
+    TenantPartitionedStorageAccess(boolean shared, long maxBytesPerTenant, long maxTenants, Duration ttl) {
+        this.shared = shared;
+        this.maxBytesPerTenant = maxBytesPerTenant;
+        this.ttl = ttl;
+        this.partitions = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Cache<Object, Object> partition = partition(tenantOf(key, session));
+        return partition != null ? partition.getIfPresent(normalize(key)) : null;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        String tenant = tenantOf(key, session);
+        if (tenant != null) {
+            partitions.get(tenant, t -> newPartition()).put(normalize(key), value);
+        }
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        Cache<Object, Object> partition = partition(tenantOf(key, session));
+        if (partition != null) {
+            partition.invalidate(normalize(key));
+        }
+    }
+
+    /**
+     * Clears only the session's tenant, e.g. after a bulk HQL statement in that schema.
+     */
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        String tenant = tenantOf(null, session);
+        if (tenant != null) {
+            partitions.invalidate(tenant);
+        } else {
+            evictData();
+        }
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        String tenant = tenantOf(key, null);
+        if (tenant != null) {
+            Cache<Object, Object> partition = partition(tenant);
+            return partition != null && partition.asMap().containsKey(normalize(key));
+        }
+        return partitions.asMap().values().stream().anyMatch(p -> p.asMap().containsKey(key));
+    }
+
+    @Override
+    public void evictData() {
+        partitions.invalidateAll();
+    }
+
+    /**
+     * Evicts one entry. Keys built without a session (e.g. {@code Cache.evict(type, id)})
+     * have no tenant and evict the id from every partition.
+     */
+    @Override
+    public void evictData(Object key) {
+        String tenant = tenantOf(key, null);
+        if (tenant != null) {
+            Cache<Object, Object> partition = partition(tenant);
+            if (partition != null) {
+                partition.invalidate(normalize(key));
+            }
+        } else if (key instanceof BasicCacheKeyImplementation basic) {
+            for (Cache<Object, Object> partition : partitions.asMap().values()) {
+                partition.asMap().keySet().removeIf(k -> k instanceof CacheKeyImplementation k2
+                        && k2.getEntityOrRoleName().equals(basic.getEntityOrRoleName())
+                        && Objects.equals(k2.getId(), basic.getId()));
+            }
+        } else {
+            partitions.asMap().values().forEach(p -> p.invalidate(key));
+        }
+    }
+
+    /**
+     * Drops everything cached for one tenant identifier.
+     */
+    void evictTenant(String tenantIdentifier) {
+        if (!shared) {
+            partitions.invalidate(tenantIdentifier);
+        }
+    }
+
+    @Override
+    public void release() {
+        partitions.invalidateAll();
+    }
+
+    private Cache<Object, Object> partition(String tenant) {
+        return tenant != null ? partitions.getIfPresent(tenant) : null;
+    }
+
+    private Cache<Object, Object> newPartition() {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxBytesPerTenant)
+                .weigher((Object k, Object v) -> (int) Math.min(Integer.MAX_VALUE, estimateBytes(k) + estimateBytes(v)))
+                .expireAfterWrite(ttl)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    private String tenantOf(Object key, SharedSessionContractImplementor session) {
+        if (shared) {
+            return SHARED_PARTITION;
+        }
+        if (key instanceof CacheKeyImplementation k && k.getTenantId() != null) {
+            return k.getTenantId();
+        }
+        return session != null ? session.getTenantIdentifier() : null;
+    }
+
+    private Object normalize(Object key) {
+        if (!shared) {
+            return key;
+        }
+        if (key instanceof CacheKeyImplementation k) {
+            return new SharedKey(k.getEntityOrRoleName(), k.getId());
+        }
+        if (key instanceof BasicCacheKeyImplementation k) {
+            return new SharedKey(k.getEntityOrRoleName(), k.getId());
+        }
+        return key;
+    }
+
+    private record SharedKey(String entityOrRoleName, Object id) {
+    }
+
+    /**
+     * Rough heap footprint of a key or cached value, enough to keep partitions within their
+     * byte budget. Query result entries are opaque and get a flat estimate.
+     */
+    static long estimateBytes(Object value) {
+        return estimate(value, 0);
+    }
+
+    private static long estimate(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (depth > 3) {
+            return 16;
+        }
+        if (value instanceof String s) {
+            return 40 + 2L * s.length();
+        }
+        if (value instanceof Object[] array) {
+            long bytes = 16 + 8L * array.length;
+            for (Object o : array) {
+                bytes += estimate(o, depth + 1);
+            }
+            return bytes;
+        }
+        if (value instanceof Collection<?> collection) {
+            long bytes = 32 + 8L * collection.size();
+            for (Object o : collection) {
+                bytes += estimate(o, depth + 1);
+            }
+            return bytes;
+        }
+        if (value instanceof StandardCacheEntryImpl entry) {
+            return 32 + estimate(entry.getDisassembledState(), depth + 1);
+        }
+        if (value instanceof AbstractReadWriteAccess.Item item) {
+            return 32 + estimate(item.getValue(), depth + 1);
+        }
+        if (value instanceof CacheKeyImplementation key) {
+            return 32 + estimate(key.getId(), depth + 1);
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Enum<?>) {
+            return 16;
+        }
+        if (value.getClass().getName().startsWith("org.hibernate.cache.")) {
+            return QUERY_ENTRY_BYTES;
+        }
+        return 24;
+    }
+}
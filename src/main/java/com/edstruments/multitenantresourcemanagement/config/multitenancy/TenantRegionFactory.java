@@ -0,0 +1,128 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process Hibernate second-level cache: entity and query result regions are stored in
+ * Caffeine, partitioned by the tenant identifier from {@link CurrentTenantIdentifierResolverImpl}.
+ *
+ * Performance Optimization:
+ * Tenant, user and resource lookups by id, and the cacheable login and tenant queries, are
+ * served from memory. Every tenant gets at most {@code l2cache.tenant-max-bytes} per region,
+ * so a tenant with a large working set evicts its own entries rather than everybody else's,
+ * and at most {@code l2cache.max-tenants} tenants are kept per region.
+ *
+ * Hibernate 6 query cache keys do not include the tenant, so partitioning is also what keeps
+ * cached query results of one schema from being returned in another.
+ */
+@Component
+public class TenantRegionFactory extends RegionFactoryTemplate {
+
+    /**
+     * Region name prefix for entities stored in the shared {@code public} schema; their
+     * entries are cached once for all tenants.
+     */
+    public static final String SHARED_REGION_PREFIX = "shared.";
+
+    @Value("${l2cache.tenant-max-bytes:4194304}")
+    private long tenantMaxBytes;
+
+    @Value("${l2cache.max-tenants:1000}")
+    private long maxTenants;
+
+    @Value("${l2cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private final Map<String, TenantPartitionedStorageAccess> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Drops all entries cached for a tenant, e.g. once its schema has been dropped.
+     */
+    public void evictTenant(String tenantIdentifier) {
+        regions.values().forEach(r -> r.evictTenant(tenantIdentifier));
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        String name = regionConfig.getRegionName();
+        return storage(name, name.startsWith(SHARED_REGION_PREFIX));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return storage(regionName, false);
+    }
+
+    /**
+     * Update timestamps are keyed by table name, one entry per table, and must not be evicted
+     * while query results depending on them are cached, so they are kept unbounded.
+     */
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return new TimestampsStorageAccess();
+    }
+
+    private TenantPartitionedStorageAccess storage(String regionName, boolean shared) {
+        return regions.computeIfAbsent(regionName, n -> new TenantPartitionedStorageAccess(
+                shared, tenantMaxBytes, maxTenants, Duration.ofSeconds(ttlSeconds)));
+    }
+
+    private static final class TimestampsStorageAccess implements StorageAccess {
+        private final Map<Object, Object> timestamps = new ConcurrentHashMap<>();
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return timestamps.get(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            timestamps.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return timestamps.containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            timestamps.clear();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            timestamps.remove(key);
+        }
+
+        @Override
+        public void release() {
+            timestamps.clear();
+        }
+    }
+}
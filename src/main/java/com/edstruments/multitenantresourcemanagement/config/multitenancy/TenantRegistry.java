@@ -0,0 +1,128 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.repository.TenantRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory directory of the known tenants, used by {@link TenantFilter} to resolve and
+ * validate the tenant of each request.
+ *
+ * Performance Optimization:
+ * Lookups read an immutable snapshot without locking or database access; changes load a new
+ * snapshot from the tenants table and swap it in atomically. Requests for unknown or inactive
+ * tenants are rejected before a connection is borrowed, instead of failing in
+ * {@code setSchema}. The snapshot is reloaded when a tenant is created, updated or deleted,
+ * and every {@code tenant.registry.refresh-ms} to pick up changes made elsewhere.
+ */
+@Slf4j
+@Component
+public class TenantRegistry {
+
+    /**
+     * Default schema: always known, without a tenants row.
+     */
+    public static final String DEFAULT_SCHEMA = "public";
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public record Entry(long id, String schemaName, boolean active) {
+    }
+
+    /**
+     * @param version order in which the loads started; a snapshot only replaces an older one
+     */
+    private record Snapshot(long version, Map<String, Entry> bySchema, Map<Long, Entry> byId) {
+    }
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0, Map.of(), Map.of()));
+
+    @PostConstruct
+    void init() {
+        refresh();
+        Gauge.builder("tenant.registry.size", this, r -> r.snapshot.get().byId().size())
+                .description("Tenants known to the tenant registry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param schema schema name, any case
+     * @return the tenant, or null if no tenant uses the schema
+     */
+    public Entry findBySchema(String schema) {
+        return snapshot.get().bySchema().get(schema.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the tenant, or null if it does not exist
+     */
+    public Entry findById(long tenantId) {
+        return snapshot.get().byId().get(tenantId);
+    }
+
+    /**
+     * @return all known tenants, active or not
+     */
+    public Collection<Entry> all() {
+        return snapshot.get().byId().values();
+    }
+
+    /**
+     * Reloads the snapshot. Loads run concurrently without a lock; each is published only if
+     * no load that started later has been published already, so a slower, older load cannot
+     * replace a newer one.
+     */
+    @Scheduled(fixedDelayString = "${tenant.registry.refresh-ms:30000}")
+    public void refresh() {
+        long version = loads.incrementAndGet();
+        List<Tenant> tenants = tenantRepository.findAll();
+        Map<String, Entry> bySchema = new HashMap<>(tenants.size() * 2);
+        Map<Long, Entry> byId = new HashMap<>(tenants.size() * 2);
+        for (Tenant t : tenants) {
+            Entry entry = new Entry(t.getId(), t.getSchemaName(), !Boolean.FALSE.equals(t.getIsActive()));
+            bySchema.put(t.getSchemaName().toLowerCase(Locale.ROOT), entry);
+            byId.put(t.getId(), entry);
+        }
+        Snapshot loaded = new Snapshot(version, Map.copyOf(bySchema), Map.copyOf(byId));
+        snapshot.accumulateAndGet(loaded, (current, next) -> next.version() > current.version() ? next : current);
+        log.debug("Tenant registry loaded {} tenants", byId.size());
+    }
+
+    /**
+     * Reloads once the current transaction commits (immediately if there is none), so the
+     * snapshot includes the change being made.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned DDL of a tenant schema, loaded from {@code classpath:tenant-template/V<n>__<name>.sql}.
+ *
+ * Each schema records the versions applied to it in {@code tenant_schema_version}, so
+ * {@link #apply} brings a new schema to the latest version and upgrades an existing one by
+ * running only the versions it is missing. Scripts are parsed once at startup.
+ */
+@Slf4j
+@Component
+public class TenantSchemaTemplate {
+
+    private static final String LOCATION = "classpath:tenant-template/V*__*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private static final String VERSION_TABLE_DDL = "CREATE TABLE IF NOT EXISTS tenant_schema_version (" +
+            "version INT PRIMARY KEY, name VARCHAR(255) NOT NULL, applied_at TIMESTAMP NOT NULL)";
+    private static final String CURRENT_VERSION_SQL = "SELECT COALESCE(MAX(version), 0) FROM tenant_schema_version";
+    private static final String RECORD_VERSION_SQL = "MERGE INTO tenant_schema_version (version, name, applied_at) " +
+            "KEY (version) VALUES (?, ?, CURRENT_TIMESTAMP)";
+
+    private List<Version> versions;
+
+    record Version(int number, String name, List<String> statements) {
+    }
+
+    @PostConstruct
+    void load() throws IOException {
+        List<Version> loaded = new ArrayList<>();
+        for (Resource script : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            Matcher m = FILE_NAME.matcher(script.getFilename());
+            if (!m.matches()) {
+                continue;
+            }
+            String sql = script.getContentAsString(StandardCharsets.UTF_8);
+            loaded.add(new Version(Integer.parseInt(m.group(1)), m.group(2), statements(sql)));
+        }
+        loaded.sort(Comparator.comparingInt(Version::number));
+        if (loaded.isEmpty()) {
+            throw new IllegalStateException("No tenant schema template found at " + LOCATION);
+        }
+        versions = List.copyOf(loaded);
+        log.info("Tenant schema template at version {}", latestVersion());
+    }
+
+    public int latestVersion() {
+        return versions.get(versions.size() - 1).number();
+    }
+
+    /**
+     * Applies the versions the schema is missing. The connection must already be switched to
+     * the tenant schema; DDL commits implicitly, so it should be in auto-commit mode.
+     *
+     * @return the version the schema was at before
+     */
+    public int apply(Connection connection) throws SQLException {
+        int current;
+        try (Statement st = connection.createStatement()) {
+            st.execute(VERSION_TABLE_DDL);
+            try (ResultSet rs = st.executeQuery(CURRENT_VERSION_SQL)) {
+                rs.next();
+                current = rs.getInt(1);
+            }
+        }
+        for (Version version : versions) {
+            if (version.number() <= current) {
+                continue;
+            }
+            try (Statement st = connection.createStatement()) {
+                for (String sql : version.statements()) {
+                    st.addBatch(sql);
+                }
+                st.executeBatch();
+            }
+            try (PreparedStatement ps = connection.prepareStatement(RECORD_VERSION_SQL)) {
+                ps.setInt(1, version.number());
+                ps.setString(2, version.name());
+                ps.executeUpdate();
+            }
+        }
+        return current;
+    }
+
+    private static List<String> statements(String script) {
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            if (!line.stripLeading().startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+        return Arrays.stream(withoutComments.toString().split(";"))
+                .map(String::strip)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+}
@@ -1,34 +1,93 @@
 package com.edstruments.multitenantresourcemanagement.controller;
 
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import com.edstruments.multitenantresourcemanagement.enums.ExportFormat;
+import com.edstruments.multitenantresourcemanagement.security.TenantPrincipal;
+import com.edstruments.multitenantresourcemanagement.service.AuditLogExporter;
 import com.edstruments.multitenantresourcemanagement.service.AuditLogService;
-import com.edstruments.multitenantresourcemanagement.security.JwtTokenProvider;
-import io.jsonwebtoken.Claims;
-import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/audit-logs")
 public class AuditLogController {
 
+    private static final int MAX_SCROLL_SIZE = 1000;
+
     @Autowired
     private AuditLogService auditLogService;
 
     @Autowired
-    private JwtTokenProvider jwtTokenProvider;
+    private AuditLogExporter auditLogExporter;
 
     // Admin only
     @PreAuthorize("hasAuthority('ADMIN')")
     @GetMapping
     public ResponseEntity<?> getLogs(@RequestParam(value = "page", defaultValue = "0") int page,
                                      @RequestParam(value = "size", defaultValue = "20") int size,
-                                     HttpServletRequest request) {
-        Claims claims = com.edstruments.multitenantresourcemanagement.security.SecurityUtils.getClaimsFromRequest(request, jwtTokenProvider);
-        Long tokenTenant = claims.get("tenantId", Number.class).longValue();
-        Page<?> logs = auditLogService.getForTenant(tokenTenant, page, size);
+                                     TenantPrincipal principal) {
+        Page<?> logs = auditLogService.getForTenant(principal.tenantId(), page, size);
         return ResponseEntity.ok(logs);
     }
+
+    // Admin only: keyset pagination, pass nextCursor from the previous page
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollLogs(@RequestParam(value = "cursor", required = false) String cursor,
+                                        @RequestParam(value = "size", defaultValue = "20") int size,
+                                        TenantPrincipal principal) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        return ResponseEntity.ok(auditLogService.scrollForTenant(principal.tenantId(), cursor, pageSize));
+    }
+
+    // Admin only: full export streamed as it is read, format = ndjson | csv, optionally gzipped;
+    // from/to are ISO date-times, e.g. 2024-01-31T00:00:00; archived=true includes archived months
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/export")
+    public void exportLogs(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                           @RequestParam(value = "from", required = false)
+                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                           @RequestParam(value = "to", required = false)
+                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                           @RequestParam(value = "action", required = false) AuditAction action,
+                           @RequestParam(value = "userId", required = false) Long userId,
+                           @RequestParam(value = "archived", defaultValue = "false") boolean archived,
+                           @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+                           TenantPrincipal principal,
+                           HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format);
+        }
+        String extension = exportFormat.name().toLowerCase(Locale.ROOT);
+        String fileName = "audit-logs-" + principal.tenantId() + "." + extension + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip"
+                : exportFormat == ExportFormat.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream zip = new GZIPOutputStream(out, 64 * 1024)) {
+                auditLogExporter.export(principal.tenantId(), from, to, action, userId, archived, exportFormat, zip);
+            }
+        } else {
+            auditLogExporter.export(principal.tenantId(), from, to, action, userId, archived, exportFormat, out);
+        }
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/auth")
@@ -15,12 +16,13 @@ public class AuthController {
     private AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, Object> payload) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, Object> payload) {
         String username = (String) payload.get("username");
         String password = (String) payload.get("password");
         Long tenantId = Long.valueOf(payload.get("tenantId").toString());
 
-        String token = authService.login(username, password, tenantId);
-        return ResponseEntity.ok(Map.of("token", token));
+        // completes on the password hashing pool; the request thread is released meanwhile
+        return authService.login(username, password, tenantId)
+                .thenApply(token -> ResponseEntity.ok(Map.of("token", token)));
     }
 }
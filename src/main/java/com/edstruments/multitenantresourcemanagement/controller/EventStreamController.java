@@ -0,0 +1,41 @@
+package com.edstruments.multitenantresourcemanagement.controller;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantRegistry;
+import com.edstruments.multitenantresourcemanagement.security.TenantPrincipal;
+import com.edstruments.multitenantresourcemanagement.service.ChangeEventStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/events")
+public class EventStreamController {
+
+    @Autowired
+    private ChangeEventStream changeEventStream;
+
+    // Admin only: Server-Sent Events of the tenant's resource and user changes; resumes after the
+    // Last-Event-ID header (sent by reconnecting browsers) or the offset in "after"
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                             @RequestParam(value = "after", required = false) Long after,
+                             TenantPrincipal principal) {
+        long offset = after != null ? after : 0;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                offset = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Last-Event-ID");
+            }
+        }
+        String tenant = TenantContext.getCurrentTenant();
+        return changeEventStream.open(tenant != null ? tenant : TenantRegistry.DEFAULT_SCHEMA,
+                principal.tenantId(), Math.max(0, offset));
+    }
+}
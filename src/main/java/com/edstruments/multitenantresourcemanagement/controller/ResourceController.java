@@ -1,70 +1,105 @@
 package com.edstruments.multitenantresourcemanagement.controller;
 
+import com.edstruments.multitenantresourcemanagement.dto.BatchResult;
 import com.edstruments.multitenantresourcemanagement.entity.Resource;
 import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
-import com.edstruments.multitenantresourcemanagement.security.JwtTokenProvider;
-import com.edstruments.multitenantresourcemanagement.security.SecurityUtils;
+import com.edstruments.multitenantresourcemanagement.enums.SearchMode;
+import com.edstruments.multitenantresourcemanagement.security.TenantPrincipal;
 import com.edstruments.multitenantresourcemanagement.service.AuditLogService;
 import com.edstruments.multitenantresourcemanagement.service.ResourceService;
-import io.jsonwebtoken.Claims;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Locale;
+
 @RestController
 @RequestMapping("/resources")
 public class ResourceController {
 
-    @Autowired
-    private ResourceService resourceService;
+    private static final int MAX_SCROLL_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 100;
 
     @Autowired
-    private JwtTokenProvider jwtTokenProvider;
+    private ResourceService resourceService;
 
     @Autowired
     private AuditLogService auditLogService;
 
+    @Value("${resource.batch.max-items:50000}")
+    private int maxBatchItems;
+
     // Admin/Manager create
     @PreAuthorize("hasAnyAuthority('ADMIN','MANAGER')")
     @PostMapping
-    public ResponseEntity<?> createResource(@RequestBody Resource resource, HttpServletRequest request) {
-        Claims claims = SecurityUtils.getClaimsFromRequest(request, jwtTokenProvider);
-        Long tokenTenant = claims.get("tenantId", Number.class).longValue();
-        String username = claims.getSubject();
+    public ResponseEntity<?> createResource(@RequestBody Resource resource, TenantPrincipal principal) {
         // tenant check
-        if (!tokenTenant.equals(resource.getTenantId())) {
+        if (resource.getTenantId() == null || resource.getTenantId() != principal.tenantId()) {
             return ResponseEntity.status(403).body("Tenant mismatch");
         }
         Resource created = resourceService.createResource(resource);
-        auditLogService.log(null, tokenTenant, AuditAction.CREATED_RESOURCE, "Resource", created.getId(), "Created by " + username);
+        auditLogService.log(principal.userId(), principal.tenantId(), AuditAction.CREATED_RESOURCE, "Resource", created.getId(), "Created by " + principal.username());
         return ResponseEntity.ok(created);
     }
 
     // Admin/Manager update
     @PreAuthorize("hasAnyAuthority('ADMIN','MANAGER')")
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateResource(@PathVariable Long id, @RequestBody Resource payload, HttpServletRequest request) {
-        Claims claims = SecurityUtils.getClaimsFromRequest(request, jwtTokenProvider);
-        Long tokenTenant = claims.get("tenantId", Number.class).longValue();
-        Resource updated = resourceService.updateResource(id, tokenTenant, payload);
-        auditLogService.log(null, tokenTenant, AuditAction.UPDATED_RESOURCE, "Resource", id, "Updated resource");
+    public ResponseEntity<?> updateResource(@PathVariable Long id, @RequestBody Resource payload, TenantPrincipal principal) {
+        Resource updated = resourceService.updateResource(id, principal.tenantId(), payload);
+        auditLogService.log(principal.userId(), principal.tenantId(), AuditAction.UPDATED_RESOURCE, "Resource", id, "Updated resource");
         return ResponseEntity.ok(updated);
     }
 
     // Admin/Manager delete (soft)
     @PreAuthorize("hasAnyAuthority('ADMIN','MANAGER')")
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteResource(@PathVariable Long id, HttpServletRequest request) {
-        Claims claims = SecurityUtils.getClaimsFromRequest(request, jwtTokenProvider);
-        Long tokenTenant = claims.get("tenantId", Number.class).longValue();
-        resourceService.deleteResource(id, tokenTenant);
-        auditLogService.log(null, tokenTenant, AuditAction.DELETED_RESOURCE, "Resource", id, "Deleted resource");
+    public ResponseEntity<?> deleteResource(@PathVariable Long id, TenantPrincipal principal) {
+        resourceService.deleteResource(id, principal.tenantId());
+        auditLogService.log(principal.userId(), principal.tenantId(), AuditAction.DELETED_RESOURCE, "Resource", id, "Deleted resource");
         return ResponseEntity.noContent().build();
     }
 
+    // Admin/Manager bulk create, one result per item
+    @PreAuthorize("hasAnyAuthority('ADMIN','MANAGER')")
+    @PostMapping("/batch")
+    public ResponseEntity<?> createResources(@RequestBody List<Resource> resources, TenantPrincipal principal) {
+        if (resources.size() > maxBatchItems) {
+            return ResponseEntity.status(413).body("Batch exceeds " + maxBatchItems + " items");
+        }
+        BatchResult result = BatchResult.of(resourceService.createResources(principal.tenantId(), resources));
+        auditLogService.logAll(principal.userId(), principal.tenantId(), AuditAction.CREATED_RESOURCE, "Resource", result.succeededIds(), "Created by " + principal.username() + " (batch)");
+        return ResponseEntity.ok(result);
+    }
+
+    // Admin/Manager bulk update, items must carry their id
+    @PreAuthorize("hasAnyAuthority('ADMIN','MANAGER')")
+    @PutMapping("/batch")
+    public ResponseEntity<?> updateResources(@RequestBody List<Resource> resources, TenantPrincipal principal) {
+        if (resources.size() > maxBatchItems) {
+            return ResponseEntity.status(413).body("Batch exceeds " + maxBatchItems + " items");
+        }
+        BatchResult result = BatchResult.of(resourceService.updateResources(principal.tenantId(), resources));
+        auditLogService.logAll(principal.userId(), principal.tenantId(), AuditAction.UPDATED_RESOURCE, "Resource", result.succeededIds(), "Updated resource (batch)");
+        return ResponseEntity.ok(result);
+    }
+
+    // Admin/Manager bulk delete (soft), body is a list of ids
+    @PreAuthorize("hasAnyAuthority('ADMIN','MANAGER')")
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteResources(@RequestBody List<Long> ids, TenantPrincipal principal) {
+        if (ids.size() > maxBatchItems) {
+            return ResponseEntity.status(413).body("Batch exceeds " + maxBatchItems + " items");
+        }
+        BatchResult result = BatchResult.of(resourceService.deleteResources(principal.tenantId(), ids));
+        auditLogService.logAll(principal.userId(), principal.tenantId(), AuditAction.DELETED_RESOURCE, "Resource", result.succeededIds(), "Deleted resource (batch)");
+        return ResponseEntity.ok(result);
+    }
+
     // Employee and above: list resources
     @PreAuthorize("hasAnyAuthority('ADMIN','MANAGER','EMPLOYEE')")
     @GetMapping
@@ -72,22 +107,45 @@ public class ResourceController {
                                            @RequestParam(value = "ownerId", required = false) Long ownerId,
                                            @RequestParam(value = "page", defaultValue = "0") int page,
                                            @RequestParam(value = "size", defaultValue = "20") int size,
-                                           HttpServletRequest request) {
-        Claims claims = SecurityUtils.getClaimsFromRequest(request, jwtTokenProvider);
-        Long tokenTenant = claims.get("tenantId", Number.class).longValue();
-        Page<Resource> results = resourceService.listResources(tokenTenant, name, ownerId, page, size);
+                                           TenantPrincipal principal) {
+        Page<Resource> results = resourceService.listResources(principal.tenantId(), name, ownerId, page, size);
         return ResponseEntity.ok(results);
     }
 
+    // Employee and above: keyset pagination, pass nextCursor from the previous page
+    @PreAuthorize("hasAnyAuthority('ADMIN','MANAGER','EMPLOYEE')")
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollResources(@RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "ownerId", required = false) Long ownerId,
+                                             @RequestParam(value = "size", defaultValue = "20") int size,
+                                             TenantPrincipal principal) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        return ResponseEntity.ok(resourceService.scrollResources(principal.tenantId(), ownerId, cursor, pageSize));
+    }
+
+    // Employee and above: indexed search over name and description, mode = prefix | substring | ranked
+    @PreAuthorize("hasAnyAuthority('ADMIN','MANAGER','EMPLOYEE')")
+    @GetMapping("/search")
+    public ResponseEntity<?> searchResources(@RequestParam("q") String query,
+                                             @RequestParam(value = "mode", defaultValue = "substring") String mode,
+                                             @RequestParam(value = "limit", defaultValue = "20") int limit,
+                                             TenantPrincipal principal) {
+        SearchMode searchMode;
+        try {
+            searchMode = SearchMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body("Unknown search mode: " + mode);
+        }
+        int max = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return ResponseEntity.ok(resourceService.searchResources(principal.tenantId(), query, searchMode, max));
+    }
+
     // Employee and above: get one resource
+    // Conditional GET: a matching If-None-Match is answered with 304 and no body
     @PreAuthorize("hasAnyAuthority('ADMIN','MANAGER','EMPLOYEE')")
     @GetMapping("/{id}")
-    public ResponseEntity<?> getResource(@PathVariable Long id, HttpServletRequest request) {
-        Claims claims = SecurityUtils.getClaimsFromRequest(request, jwtTokenProvider);
-        Long tokenTenant = claims.get("tenantId", Number.class).longValue();
-        Resource r = resourceService.listResources(tokenTenant, null, null, 0, 1) // quick existence check
-                .getContent().stream().filter(res -> res.getId().equals(id)).findFirst()
-                .orElseThrow(() -> new RuntimeException("Resource not found"));
-        return ResponseEntity.ok(r);
+    public ResponseEntity<?> getResource(@PathVariable Long id, TenantPrincipal principal) {
+        Resource r = resourceService.getResource(id, principal.tenantId());
+        return ResponseEntity.ok().eTag(ResourceService.etag(r)).body(r);
     }
 }
@@ -1,12 +1,17 @@
 package com.edstruments.multitenantresourcemanagement.controller;
 
+import com.edstruments.multitenantresourcemanagement.dto.TenantProvisioningReport;
 import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.entity.TenantDeletionJob;
 import com.edstruments.multitenantresourcemanagement.service.TenantService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/tenants")
 public class TenantController {
@@ -14,6 +19,9 @@ public class TenantController {
     @Autowired
     private TenantService tenantService;
 
+    @Value("${tenant.provisioning.batch-max-items:100}")
+    private int maxBatchItems;
+
     // Super-admin only: create tenant
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('SUPER_ADMIN')")
     @PostMapping
@@ -22,11 +30,37 @@ public class TenantController {
         return ResponseEntity.ok(created);
     }
 
-    // Super-admin only: delete tenant
-    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('SUPER_ADMIN')")
+    // Super-admin only: onboard many tenants in parallel; reports per-tenant time and tenants/s
+    @PreAuthorize("hasAuthority('SUPER_ADMIN')")
+    @PostMapping("/batch")
+    public ResponseEntity<?> createTenants(@RequestBody List<Tenant> tenants) {
+        if (tenants.size() > maxBatchItems) {
+            return ResponseEntity.status(413).body("Batch exceeds " + maxBatchItems + " tenants");
+        }
+        TenantProvisioningReport report = tenantService.createTenants(tenants);
+        return ResponseEntity.ok(report);
+    }
+
+    // Super-admin only: update tenant quotas / active flag
+    @PreAuthorize("hasAuthority('SUPER_ADMIN')")
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateTenant(@PathVariable Long id, @RequestBody Tenant payload) {
+        Tenant updated = tenantService.updateTenant(id, payload);
+        return ResponseEntity.ok(updated);
+    }
+
+    // Super-admin only: delete tenant; the tenant is deactivated now and removed by a background job
+    @PreAuthorize("hasAuthority('SUPER_ADMIN')")
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteTenant(@PathVariable Long id) {
-        tenantService.deleteTenant(id);
-        return ResponseEntity.noContent().build();
+        TenantDeletionJob job = tenantService.deleteTenant(id);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    // Super-admin only: progress of a tenant deletion
+    @PreAuthorize("hasAuthority('SUPER_ADMIN')")
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<?> getDeletionJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(tenantService.getDeletionJob(jobId));
     }
 }
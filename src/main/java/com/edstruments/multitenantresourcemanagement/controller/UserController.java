@@ -1,13 +1,11 @@
 package com.edstruments.multitenantresourcemanagement.controller;
 
 import com.edstruments.multitenantresourcemanagement.entity.User;
-import com.edstruments.multitenantresourcemanagement.security.JwtTokenProvider;
-import com.edstruments.multitenantresourcemanagement.security.SecurityUtils;
+import com.edstruments.multitenantresourcemanagement.security.TenantPrincipal;
 import com.edstruments.multitenantresourcemanagement.service.AuditLogService;
 import com.edstruments.multitenantresourcemanagement.service.UserService;
 import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
-import io.jsonwebtoken.Claims;
-import jakarta.servlet.http.HttpServletRequest;
+import com.edstruments.multitenantresourcemanagement.enums.UserRole;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,9 +15,6 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/users")
 public class UserController {
 
-    @Autowired
-    private JwtTokenProvider jwtTokenProvider;
-
     @Autowired
     private UserService userService;
 
@@ -29,32 +24,27 @@ public class UserController {
     // Admin only: create user within tenant
     @PreAuthorize("hasAuthority('ADMIN')")
     @PostMapping
-    public ResponseEntity<?> createUser(@RequestBody User user, HttpServletRequest request) {
+    public ResponseEntity<?> createUser(@RequestBody User user, TenantPrincipal principal) {
         // Tenant validation: user's tenantId must match token tenant
-        Claims claims = jakartaClaims(request);
-        Long tokenTenant = claims.get("tenantId", Number.class).longValue();
-        if (!tokenTenant.equals(user.getTenantId())) {
+        if (user.getTenantId() == null || user.getTenantId() != principal.tenantId()) {
             return ResponseEntity.status(403).body("Tenant mismatch");
         }
+        // tenant admins cannot grant platform-wide rights
+        if (user.getRole() == UserRole.SUPER_ADMIN) {
+            return ResponseEntity.status(403).body("Cannot grant SUPER_ADMIN");
+        }
         User created = userService.createUser(user);
         // log
-        Long userId = claims.getSubject() != null ? null : null;
-        auditLogService.log(null, tokenTenant, AuditAction.CREATED_USER, "User", created.getId(), "Created user " + created.getUsername());
+        auditLogService.log(principal.userId(), principal.tenantId(), AuditAction.CREATED_USER, "User", created.getId(), "Created user " + created.getUsername());
         return ResponseEntity.ok(created);
     }
 
     // Admin only: delete user within tenant
     @PreAuthorize("hasAuthority('ADMIN')")
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteUser(@PathVariable Long id, HttpServletRequest request) {
-        Claims claims = jakartaClaims(request);
-        Long tokenTenant = claims.get("tenantId", Number.class).longValue();
-        userService.deleteUser(id, tokenTenant);
-        auditLogService.log(null, tokenTenant, AuditAction.DELETED_USER, "User", id, "Deleted user " + id);
+    public ResponseEntity<?> deleteUser(@PathVariable Long id, TenantPrincipal principal) {
+        userService.deleteUser(id, principal.tenantId());
+        auditLogService.log(principal.userId(), principal.tenantId(), AuditAction.DELETED_USER, "User", id, "Deleted user " + id);
         return ResponseEntity.noContent().build();
     }
-
-    private Claims jakartaClaims(HttpServletRequest request) {
-        return SecurityUtils.getClaimsFromRequest(request, jwtTokenProvider);
-    }
 }
@@ -0,0 +1,20 @@
+package com.edstruments.multitenantresourcemanagement.dto;
+
+/**
+ * Outcome of one item of a bulk request.
+ *
+ * @param index   position of the item in the request
+ * @param id      id of the affected resource, if known
+ * @param success whether the item was applied
+ * @param error   reason the item was rejected, null on success
+ */
+public record BatchItemResult(int index, Long id, boolean success, String error) {
+
+    public static BatchItemResult ok(int index, Long id) {
+        return new BatchItemResult(index, id, true, null);
+    }
+
+    public static BatchItemResult failed(int index, Long id, String error) {
+        return new BatchItemResult(index, id, false, error);
+    }
+}
@@ -0,0 +1,21 @@
+package com.edstruments.multitenantresourcemanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Response of a bulk request: totals plus one result per submitted item, in request order.
+ */
+public record BatchResult(int succeeded, int failed, List<BatchItemResult> items) {
+
+    public static BatchResult of(List<BatchItemResult> items) {
+        int ok = (int) items.stream().filter(BatchItemResult::success).count();
+        return new BatchResult(ok, items.size() - ok, items);
+    }
+
+    @JsonIgnore
+    public List<Long> succeededIds() {
+        return items.stream().filter(BatchItemResult::success).map(BatchItemResult::id).distinct().toList();
+    }
+}
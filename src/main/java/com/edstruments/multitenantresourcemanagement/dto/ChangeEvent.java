@@ -0,0 +1,17 @@
+package com.edstruments.multitenantresourcemanagement.dto;
+
+import com.edstruments.multitenantresourcemanagement.enums.ChangeEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change event as delivered to subscribers and stream clients.
+ *
+ * @param offset      position in the tenant's event stream; consecutive, and what clients resume from
+ * @param id          outbox row id, stable across redeliveries
+ * @param aggregateId id of the resource or user that changed
+ * @param payload     JSON body: the resource fields, or id, username and role of a user
+ */
+public record ChangeEvent(long offset, long id, long tenantId, ChangeEventType type, long aggregateId,
+                          String payload, LocalDateTime createdAt) {
+}
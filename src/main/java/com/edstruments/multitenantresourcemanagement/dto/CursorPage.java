@@ -0,0 +1,26 @@
+package com.edstruments.multitenantresourcemanagement.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Unlike Spring's Page there is no total count,
+ * so fetching a page never needs a COUNT query.
+ *
+ * @param content    rows of this page
+ * @param nextCursor cursor for the following page, null on the last page
+ * @param hasNext    whether another page exists
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, boolean hasNext) {
+
+    /**
+     * Builds a page from a query that fetched {@code size + 1} rows; the extra row only
+     * signals that a next page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, next, hasNext);
+    }
+}
@@ -0,0 +1,7 @@
+package com.edstruments.multitenantresourcemanagement.dto;
+
+/**
+ * Searchable text of a resource, loaded without materialising the entity.
+ */
+public record ResourceText(Long id, String name, String description) {
+}
@@ -0,0 +1,31 @@
+package com.edstruments.multitenantresourcemanagement.dto;
+
+import java.util.List;
+
+/**
+ * Response of a bulk tenant onboarding: totals, wall-clock time and throughput, plus one
+ * result per submitted tenant, in request order.
+ */
+public record TenantProvisioningReport(int succeeded, int failed, long totalMillis, double tenantsPerSecond,
+                                       List<Item> items) {
+
+    /**
+     * Outcome of provisioning one tenant.
+     *
+     * @param index      position of the tenant in the request
+     * @param tenantId   id of the created tenant, null if it was not created
+     * @param schemaName schema of the tenant
+     * @param success    whether the tenant was provisioned and activated
+     * @param millis     time spent provisioning this tenant
+     * @param error      reason provisioning failed, null on success
+     */
+    public record Item(int index, Long tenantId, String schemaName, boolean success, long millis, String error) {
+    }
+
+    public static TenantProvisioningReport of(List<Item> items, long totalNanos) {
+        int ok = (int) items.stream().filter(Item::success).count();
+        long totalMillis = totalNanos / 1_000_000;
+        double perSecond = totalNanos > 0 ? items.size() * 1e9 / totalNanos : 0;
+        return new TenantProvisioningReport(ok, items.size() - ok, totalMillis, perSecond, items);
+    }
+}
@@ -8,14 +8,14 @@ import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
+/**
+ * Rows are stored in monthly partitions {@code audit_logs_yyyyMM} with these columns and their
+ * indexes, see {@link com.edstruments.multitenantresourcemanagement.repository.AuditLogPartitions}.
+ * The mapped table is never created (see PartitionedTableSchemaFilterProvider); the mapping is
+ * only used to read partition rows with native queries.
+ */
 @Entity
-@Table(name = "audit_logs",
-       indexes = {
-           @Index(name = "idx_audit_user", columnList = "user_id"),
-           @Index(name = "idx_audit_tenant", columnList = "tenant_id"),
-           @Index(name = "idx_audit_timestamp", columnList = "timestamp"),
-           @Index(name = "idx_audit_action", columnList = "action")
-       })
+@Table(name = "audit_logs")
 @Getter
 @Setter
 @NoArgsConstructor
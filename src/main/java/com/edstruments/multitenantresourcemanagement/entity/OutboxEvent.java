@@ -0,0 +1,71 @@
+package com.edstruments.multitenantresourcemanagement.entity;
+
+import com.edstruments.multitenantresourcemanagement.enums.ChangeEventType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change event written in the same transaction as the change, in the tenant's schema, and
+ * relayed to subscribers after commit by
+ * {@link com.edstruments.multitenantresourcemanagement.service.OutboxRelay}.
+ *
+ * Transactions do not commit in the order they allocate ids, so the events of a transaction are
+ * stamped with its place in the commit order ({@code commitSeq}) as it commits. The relay
+ * publishes in that order and numbers the tenant's events as it goes ({@code streamOffset}).
+ */
+@Entity
+@Table(name = "outbox_events",
+       indexes = {
+               @Index(name = "idx_outbox_offset", columnList = "stream_offset, id"),
+               @Index(name = "idx_outbox_pending", columnList = "stream_offset, commit_seq, id")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    /**
+     * Pooled sequence like {@link Resource}, so events of bulk writes are inserted in batches.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private ChangeEventType eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    /**
+     * JSON body of the event.
+     */
+    @Column(length = 4000)
+    private String payload;
+
+    /**
+     * Commit order of the transaction that wrote the event, null until it commits.
+     */
+    @Column(name = "commit_seq")
+    private Long commitSeq;
+
+    /**
+     * Position in the tenant's event stream, null until the event is published.
+     */
+    @Column(name = "stream_offset")
+    private Long streamOffset;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
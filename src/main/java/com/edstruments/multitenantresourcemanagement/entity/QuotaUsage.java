@@ -0,0 +1,46 @@
+package com.edstruments.multitenantresourcemanagement.entity;
+
+import com.edstruments.multitenantresourcemanagement.enums.QuotaScope;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted usage counter of the in-memory quota engine, for reporting. Written with the
+ * real count when the engine loads the counter, then updated with the committed changes
+ * every few seconds; tenant-level rows use owner_id = 0.
+ */
+@Entity
+@Table(name = "quota_usage",
+       uniqueConstraints = @UniqueConstraint(name = "uk_quota_usage", columnNames = {"tenant_id", "scope", "owner_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuotaUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private QuotaScope scope;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(nullable = false)
+    private Long used;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+}
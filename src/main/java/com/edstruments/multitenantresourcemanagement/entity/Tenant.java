@@ -3,6 +3,8 @@ package com.edstruments.multitenantresourcemanagement.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,6 +16,9 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "tenants", schema = "public")
+// public schema: one cache entry for all tenants (TenantRegionFactory.SHARED_REGION_PREFIX)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "shared.tenants")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -50,6 +55,22 @@ public class Tenant {
     @Column(name = "max_resources_per_user")
     private Integer maxResourcesPerUser;
 
+    /**
+     * Request rate limits: bucket size (burst) and sustained requests per second, for the
+     * whole tenant and for each of its users. Unset columns use the {@code rate.limit.*} defaults.
+     */
+    @Column(name = "rate_limit_capacity")
+    private Integer rateLimitCapacity;
+
+    @Column(name = "rate_limit_per_second")
+    private Integer rateLimitPerSecond;
+
+    @Column(name = "user_rate_limit_capacity")
+    private Integer userRateLimitCapacity;
+
+    @Column(name = "user_rate_limit_per_second")
+    private Integer userRateLimitPerSecond;
+
     @Column(name = "is_active")
     private Boolean isActive = true;
 
@@ -0,0 +1,63 @@
+package com.edstruments.multitenantresourcemanagement.entity;
+
+import com.edstruments.multitenantresourcemanagement.enums.TenantDeletionStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background deletion of a tenant and its schema, see {@code TenantDeletionService}.
+ * Kept in the public schema, after the tenant itself is gone, so progress survives restarts
+ * and can be polled.
+ */
+@Entity
+@Table(name = "tenant_deletion_jobs", schema = "public",
+        indexes = @Index(name = "idx_tenant_deletion_tenant", columnList = "tenant_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TenantDeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "schema_name", nullable = false)
+    private String schemaName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TenantDeletionStatus status;
+
+    /**
+     * Table being purged, null before and after the purge.
+     */
+    @Column(name = "current_table")
+    private String currentTable;
+
+    @Builder.Default
+    @Column(name = "rows_deleted", nullable = false)
+    private Long rowsDeleted = 0L;
+
+    @Column(length = 1000)
+    private String error;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,22 @@
+package com.edstruments.multitenantresourcemanagement.enums;
+
+/**
+ * Behaviour of the asynchronous audit writer when its in-memory queue is full.
+ */
+public enum AuditOverflowPolicy {
+    /**
+     * BLOCK: The calling request thread waits until the writer frees up space.
+     * No audit entries are lost, at the cost of request latency under load.
+     */
+    BLOCK,
+
+    /**
+     * DROP: The entry is discarded and counted in the audit.queue.dropped metric.
+     */
+    DROP,
+
+    /**
+     * SPILL: The entry is appended to a local spill file and replayed on the next start.
+     */
+    SPILL
+}
@@ -0,0 +1,17 @@
+package com.edstruments.multitenantresourcemanagement.enums;
+
+/**
+ * What the audit retention job does with monthly partitions older than the retention period.
+ */
+public enum AuditRetentionAction {
+    /**
+     * DROP: The partition is dropped with all its rows.
+     */
+    DROP,
+
+    /**
+     * ARCHIVE: The partition is written to a compressed columnar segment in the archive
+     * directory first, then dropped. Archived rows can still be exported.
+     */
+    ARCHIVE
+}
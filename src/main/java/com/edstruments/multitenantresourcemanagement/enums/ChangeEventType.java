@@ -0,0 +1,12 @@
+package com.edstruments.multitenantresourcemanagement.enums;
+
+/**
+ * Change events published through the outbox; the name is used as the SSE event name.
+ */
+public enum ChangeEventType {
+    RESOURCE_CREATED,
+    RESOURCE_UPDATED,
+    RESOURCE_DELETED,
+    USER_CREATED,
+    USER_DELETED
+}
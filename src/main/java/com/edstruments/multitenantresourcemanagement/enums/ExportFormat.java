@@ -0,0 +1,16 @@
+package com.edstruments.multitenantresourcemanagement.enums;
+
+/**
+ * Output format of the audit log export endpoint.
+ */
+public enum ExportFormat {
+    /**
+     * NDJSON: One JSON object per line, same fields as the audit log listing.
+     */
+    NDJSON,
+
+    /**
+     * CSV: RFC 4180 with a header row.
+     */
+    CSV
+}
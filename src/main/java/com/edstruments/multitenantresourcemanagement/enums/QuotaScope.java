@@ -0,0 +1,21 @@
+package com.edstruments.multitenantresourcemanagement.enums;
+
+/**
+ * Kinds of usage tracked by the quota engine.
+ */
+public enum QuotaScope {
+    /**
+     * TENANT_USERS: Active users in a tenant.
+     */
+    TENANT_USERS,
+
+    /**
+     * TENANT_RESOURCES: Active resources in a tenant.
+     */
+    TENANT_RESOURCES,
+
+    /**
+     * OWNER_RESOURCES: Active resources owned by a single user.
+     */
+    OWNER_RESOURCES
+}
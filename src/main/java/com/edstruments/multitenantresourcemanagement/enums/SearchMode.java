@@ -0,0 +1,23 @@
+package com.edstruments.multitenantresourcemanagement.enums;
+
+/**
+ * Matching strategy of the resource search endpoint.
+ */
+public enum SearchMode {
+    /**
+     * PREFIX: Every query word must be the start of a word in the name or description
+     * (search-as-you-type).
+     */
+    PREFIX,
+
+    /**
+     * SUBSTRING: The whole query must occur somewhere in the name or description.
+     */
+    SUBSTRING,
+
+    /**
+     * RANKED: Any query word may match; results are ordered by relevance, with name
+     * matches weighted above description matches and whole words above partial ones.
+     */
+    RANKED
+}
@@ -0,0 +1,35 @@
+package com.edstruments.multitenantresourcemanagement.enums;
+
+/**
+ * Progress of a background tenant deletion job.
+ */
+public enum TenantDeletionStatus {
+    /**
+     * PENDING: The tenant is deactivated and the job is waiting for a worker.
+     */
+    PENDING,
+
+    /**
+     * PURGING: The tenant's tables are being emptied chunk by chunk.
+     */
+    PURGING,
+
+    /**
+     * DROPPING: The tables are empty; the schema and the tenant row are being removed.
+     */
+    DROPPING,
+
+    /**
+     * COMPLETED: The tenant and its schema are gone.
+     */
+    COMPLETED,
+
+    /**
+     * FAILED: The job stopped on an error; deleting the tenant again resumes it.
+     */
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
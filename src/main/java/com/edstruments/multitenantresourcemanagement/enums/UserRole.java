@@ -5,6 +5,12 @@ package com.edstruments.multitenantresourcemanagement.enums;
  * Defines the authorization hierarchy for the system.
  */
 public enum UserRole {
+    /**
+     * SUPER_ADMIN: Platform operator. Can onboard tenants in bulk.
+     * Cannot be granted through the users API.
+     */
+    SUPER_ADMIN,
+
     /**
      * ADMIN: Can manage users and resources within their tenant.
      * Has full control over tenant operations.
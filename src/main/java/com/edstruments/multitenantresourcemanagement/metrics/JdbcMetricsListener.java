@@ -0,0 +1,30 @@
+package com.edstruments.multitenantresourcemanagement.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times every JDBC execution of a Hibernate session into the thread's {@link JdbcStats}.
+ * Hibernate creates one instance per session from {@code hibernate.session.events.auto}.
+ */
+public class JdbcMetricsListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        JdbcStats.current().executionStarted();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        JdbcStats.current().executionEnded();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        JdbcStats.current().executionStarted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        JdbcStats.current().executionEnded();
+    }
+}
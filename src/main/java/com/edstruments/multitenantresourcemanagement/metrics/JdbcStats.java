@@ -0,0 +1,55 @@
+package com.edstruments.multitenantresourcemanagement.metrics;
+
+/**
+ * JDBC activity of the current thread, filled in by {@link JdbcMetricsListener} and
+ * {@link SqlCaptureInspector} and read by {@link RequestMetricsFilter}.
+ *
+ * Performance Optimization:
+ * There is one mutable instance per thread, so recording a statement is a ThreadLocal
+ * lookup and a few field updates; nothing is allocated per statement.
+ */
+public final class JdbcStats {
+
+    private static final ThreadLocal<JdbcStats> CURRENT = ThreadLocal.withInitial(JdbcStats::new);
+
+    private int statements;
+    private long nanos;
+    private long startedAt;
+    private String sql;
+
+    private JdbcStats() {
+    }
+
+    public static JdbcStats current() {
+        return CURRENT.get();
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    void reset() {
+        statements = 0;
+        nanos = 0;
+        sql = null;
+    }
+
+    void prepared(String sql) {
+        this.sql = sql;
+    }
+
+    void executionStarted() {
+        startedAt = System.nanoTime();
+    }
+
+    void executionEnded() {
+        long elapsed = System.nanoTime() - startedAt;
+        statements++;
+        nanos += elapsed;
+        SlowQueryLog.record(sql, elapsed);
+    }
+}
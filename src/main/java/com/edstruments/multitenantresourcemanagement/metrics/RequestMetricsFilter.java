@@ -0,0 +1,83 @@
+package com.edstruments.multitenantresourcemanagement.metrics;
+
+import com.edstruments.multitenantresourcemanagement.security.TenantPrincipal;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the JDBC statements executed while handling a request and the time spent in
+ * them, per controller method and tenant ({@code jdbc.request.statements},
+ * {@code jdbc.request.time}). Request latency itself is Spring Boot's
+ * {@code http.server.requests}, tagged with the tenant by
+ * {@link TenantServerRequestObservationConvention}.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Method, TenantMeters<JdbcMeters>> byHandler = new ConcurrentHashMap<>();
+    private TenantMeters<JdbcMeters> unmapped;
+
+    record JdbcMeters(DistributionSummary statements, Timer time) {
+    }
+
+    @Override
+    protected void initFilterBean() {
+        unmapped = meters("none");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        JdbcStats stats = JdbcStats.current();
+        stats.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantPrincipal principal = (TenantPrincipal) request.getAttribute(TenantPrincipal.REQUEST_ATTRIBUTE);
+            JdbcMeters m = metersFor(request).get(principal != null ? principal.tenantId() : TenantMeters.NO_TENANT);
+            m.statements().record(stats.statements());
+            m.time().record(stats.nanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private TenantMeters<JdbcMeters> metersFor(HttpServletRequest request) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return unmapped;
+        }
+        Method method = handler.getMethod();
+        TenantMeters<JdbcMeters> meters = byHandler.get(method);
+        return meters != null ? meters : byHandler.computeIfAbsent(method,
+                m -> meters(m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+    }
+
+    private TenantMeters<JdbcMeters> meters(String handler) {
+        return new TenantMeters<>(tenantId -> new JdbcMeters(
+                DistributionSummary.builder("jdbc.request.statements")
+                        .description("JDBC statements executed per request")
+                        .tags("handler", handler, "tenant", TenantMeters.tag(tenantId))
+                        .register(meterRegistry),
+                Timer.builder("jdbc.request.time")
+                        .description("Time spent executing JDBC statements per request")
+                        .tags("handler", handler, "tenant", TenantMeters.tag(tenantId))
+                        .register(meterRegistry)));
+    }
+}
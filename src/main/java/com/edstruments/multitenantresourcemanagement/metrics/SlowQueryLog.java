@@ -0,0 +1,64 @@
+package com.edstruments.multitenantresourcemanagement.metrics;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs statements slower than {@code jdbc.slow-query.threshold-ms}, replacing
+ * {@code spring.jpa.show-sql}, which printed every statement. Only a
+ * {@code jdbc.slow-query.sample-rate} fraction of the slow statements is logged;
+ * all of them are counted in {@code jdbc.slow.queries}.
+ *
+ * The settings are static because the Hibernate listeners that report executions are
+ * created by Hibernate, not by Spring.
+ */
+@Slf4j
+@Component
+public class SlowQueryLog {
+
+    private static volatile boolean enabled;
+    private static volatile long thresholdNanos = Long.MAX_VALUE;
+    private static volatile double sampleRate;
+    private static volatile Counter slowQueries;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jdbc.slow-query.enabled:true}")
+    private boolean configuredEnabled;
+
+    @Value("${jdbc.slow-query.threshold-ms:200}")
+    private long thresholdMs;
+
+    @Value("${jdbc.slow-query.sample-rate:1.0}")
+    private double configuredSampleRate;
+
+    @PostConstruct
+    void init() {
+        slowQueries = Counter.builder("jdbc.slow.queries")
+                .description("Statements slower than jdbc.slow-query.threshold-ms")
+                .register(meterRegistry);
+        thresholdNanos = thresholdMs * 1_000_000;
+        sampleRate = configuredSampleRate;
+        enabled = configuredEnabled;
+    }
+
+    static void record(String sql, long nanos) {
+        if (!enabled || nanos < thresholdNanos) {
+            return;
+        }
+        slowQueries.increment();
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        log.warn("Slow query ({} ms, tenant {}): {}", nanos / 1_000_000, TenantContext.getCurrentTenant(), sql);
+    }
+}
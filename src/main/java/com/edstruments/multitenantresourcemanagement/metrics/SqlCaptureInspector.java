@@ -0,0 +1,16 @@
+package com.edstruments.multitenantresourcemanagement.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Remembers the SQL of the statement Hibernate is about to execute so that a slow
+ * execution can be logged with its statement text. The SQL is not modified.
+ */
+public class SqlCaptureInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        JdbcStats.current().prepared(sql);
+        return sql;
+    }
+}
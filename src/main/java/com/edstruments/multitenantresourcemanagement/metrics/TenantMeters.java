@@ -0,0 +1,32 @@
+package com.edstruments.multitenantresourcemanagement.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Meters of one kind, registered lazily per tenant and then reused, so recording on
+ * the hot path is a map lookup instead of a tag build and registry lookup per call.
+ * The number of distinct tenant tags is capped in {@code MetricsConfig}.
+ */
+public final class TenantMeters<T> {
+
+    /** Tenant id used for unauthenticated requests and entries without a tenant. */
+    public static final long NO_TENANT = -1;
+
+    private final Map<Long, T> meters = new ConcurrentHashMap<>();
+    private final LongFunction<T> factory;
+
+    public TenantMeters(LongFunction<T> factory) {
+        this.factory = factory;
+    }
+
+    public T get(long tenantId) {
+        T meter = meters.get(tenantId);
+        return meter != null ? meter : meters.computeIfAbsent(tenantId, factory::apply);
+    }
+
+    public static String tag(long tenantId) {
+        return tenantId == NO_TENANT ? "none" : Long.toString(tenantId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.edstruments.multitenantresourcemanagement.metrics;
+
+import com.edstruments.multitenantresourcemanagement.security.TenantPrincipal;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the caller's tenant id as a {@code tenant} tag to {@code http.server.requests},
+ * next to the default method, uri, status and outcome tags.
+ */
+@Component
+public class TenantServerRequestObservationConvention extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        TenantPrincipal principal = (TenantPrincipal) context.getCarrier().getAttribute(TenantPrincipal.REQUEST_ATTRIBUTE);
+        long tenantId = principal != null ? principal.tenantId() : TenantMeters.NO_TENANT;
+        return super.getLowCardinalityKeyValues(context).and("tenant", TenantMeters.tag(tenantId));
+    }
+}
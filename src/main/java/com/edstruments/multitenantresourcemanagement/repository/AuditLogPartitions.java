@@ -0,0 +1,261 @@
+package com.edstruments.multitenantresourcemanagement.repository;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.SchemaBasedMultiTenantConnectionProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongSupplier;
+
+/**
+ * Monthly partitions of the audit log, one table {@code audit_logs_yyyyMM} per tenant schema
+ * and month. All partitions of a schema share the {@code audit_logs_seq} sequence, so ids stay
+ * unique and increasing across months.
+ *
+ * Performance Optimization:
+ * Inserts only touch the current month's table and its three composite indexes, queries with
+ * a time range only scan the months it overlaps, and retention drops whole tables instead of
+ * deleting rows. Known partitions are cached per schema; the catalog is read once per schema.
+ * Entries are written at the current time, so counts of earlier (closed) months rarely change:
+ * they are cached until a late write or a drop touches the month, and paging across months
+ * only counts the current one.
+ */
+@Slf4j
+@Component
+public class AuditLogPartitions {
+
+    static final String TABLE_PREFIX = "audit_logs_";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String LIST_SQL = "SELECT TABLE_SCHEMA, TABLE_NAME FROM INFORMATION_SCHEMA.TABLES " +
+            "WHERE UPPER(TABLE_NAME) LIKE 'AUDIT\\_LOGS\\_%'";
+
+    @Autowired
+    private SchemaBasedMultiTenantConnectionProvider connectionProvider;
+
+    @Value("${spring.jpa.hibernate.ddl-auto:none}")
+    private String ddlAuto;
+
+    @Value("${audit.count-cache.max-size:10000}")
+    private long countCacheMaxSize;
+
+    /**
+     * Bounds the staleness of a cached count if a change is not reported through
+     * {@link #invalidateCounts}.
+     */
+    @Value("${audit.count-cache.ttl-seconds:600}")
+    private long countCacheTtlSeconds;
+
+    private final Map<String, NavigableSet<YearMonth>> partitions = new ConcurrentHashMap<>();
+
+    private Cache<CountKey, Long> closedMonthCounts;
+
+    /**
+     * A count query on one partition; {@code query} identifies its conditions.
+     */
+    private record CountKey(String schema, YearMonth month, Object query) {
+    }
+
+    /**
+     * Partitions are not mapped by Hibernate, so they are dropped here whenever Hibernate
+     * recreates the schema; otherwise rows of a previous run would show up for reused tenant ids.
+     */
+    @PostConstruct
+    void init() {
+        closedMonthCounts = Caffeine.newBuilder()
+                .maximumSize(countCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(countCacheTtlSeconds))
+                .build();
+        if (!ddlAuto.startsWith("create")) {
+            return;
+        }
+        discover().forEach((schema, months) -> months.forEach(month -> drop(schema, month)));
+    }
+
+    public static String tableName(YearMonth month) {
+        return TABLE_PREFIX + SUFFIX.format(month);
+    }
+
+    public static YearMonth monthOf(LocalDateTime timestamp) {
+        return YearMonth.from(timestamp);
+    }
+
+    /**
+     * Existing partitions of the schema overlapping [from, to], oldest first.
+     * Either bound may be null.
+     */
+    public List<YearMonth> prune(String schema, LocalDateTime from, LocalDateTime to) {
+        NavigableSet<YearMonth> known = forSchema(schema);
+        if (known.isEmpty()) {
+            return List.of();
+        }
+        YearMonth lo = from != null ? monthOf(from) : known.first();
+        YearMonth hi = to != null ? monthOf(to) : known.last();
+        if (lo.isAfter(hi)) {
+            return List.of();
+        }
+        return new ArrayList<>(known.subSet(lo, true, hi, true));
+    }
+
+    /**
+     * Creates the partition for the month if it does not exist yet, using the caller's
+     * connection, which must already be switched to the schema.
+     */
+    public void ensure(Connection connection, String schema, YearMonth month) throws SQLException {
+        NavigableSet<YearMonth> known = forSchema(schema);
+        if (known.contains(month)) {
+            return;
+        }
+        String table = tableName(month);
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE SEQUENCE IF NOT EXISTS audit_logs_seq");
+            st.execute("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                    "id BIGINT DEFAULT NEXT VALUE FOR audit_logs_seq PRIMARY KEY, " +
+                    "user_id BIGINT NOT NULL, " +
+                    "tenant_id BIGINT NOT NULL, " +
+                    "action VARCHAR(50) NOT NULL, " +
+                    "entity_type VARCHAR(50), " +
+                    "entity_id BIGINT, " +
+                    "details VARCHAR(2000), " +
+                    "timestamp TIMESTAMP(6) NOT NULL)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_tenant_ts ON " + table +
+                    " (tenant_id, timestamp, id)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_tenant_user_ts ON " + table +
+                    " (tenant_id, user_id, timestamp)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_tenant_action_ts ON " + table +
+                    " (tenant_id, action, timestamp)");
+        }
+        known.add(month);
+        log.info("Created audit partition {}.{}", schema, table);
+    }
+
+    /**
+     * Number of rows of the month matching {@code query}, as returned by {@code counter}.
+     * Counts of months before the current one are cached per query, which must therefore
+     * have value equality.
+     */
+    public long count(String schema, YearMonth month, Object query, LongSupplier counter) {
+        if (!month.isBefore(YearMonth.now())) {
+            return counter.getAsLong();
+        }
+        return closedMonthCounts.get(new CountKey(key(schema), month, query), k -> counter.getAsLong());
+    }
+
+    /**
+     * Discards the cached counts of the month, after rows were written to or removed from it.
+     */
+    public void invalidateCounts(String schema, YearMonth month) {
+        String s = key(schema);
+        closedMonthCounts.asMap().keySet().removeIf(k -> k.schema().equals(s) && k.month().equals(month));
+    }
+
+    /**
+     * All partitions in the database by schema, read from the catalog.
+     */
+    public Map<String, NavigableSet<YearMonth>> discover() {
+        Map<String, NavigableSet<YearMonth>> found = new TreeMap<>();
+        try {
+            Connection conn = connectionProvider.getAnyConnection();
+            try (PreparedStatement ps = conn.prepareStatement(LIST_SQL);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    YearMonth month = monthOfTable(rs.getString(2));
+                    if (month != null) {
+                        found.computeIfAbsent(key(rs.getString(1)), s -> new ConcurrentSkipListSet<>()).add(month);
+                    }
+                }
+            } finally {
+                connectionProvider.releaseAnyConnection(conn);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("Failed to list audit partitions: " + ex.getMessage(), ex);
+        }
+        return found;
+    }
+
+    /**
+     * Drops one partition with all its rows.
+     */
+    public void drop(String schema, YearMonth month) {
+        try {
+            Connection conn = connectionProvider.getConnection(schema);
+            try (Statement st = conn.createStatement()) {
+                st.execute("DROP TABLE IF EXISTS " + tableName(month));
+            } finally {
+                connectionProvider.releaseConnection(schema, conn);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("Failed to drop audit partition " + tableName(month)
+                    + " in schema " + schema + ": " + ex.getMessage(), ex);
+        }
+        forSchema(schema).remove(month);
+        invalidateCounts(schema, month);
+        log.info("Dropped audit partition {}.{}", schema, tableName(month));
+    }
+
+    /**
+     * Forgets the partitions of a schema that was dropped as a whole.
+     */
+    public void forget(String schema) {
+        String s = key(schema);
+        partitions.remove(s);
+        closedMonthCounts.asMap().keySet().removeIf(k -> k.schema().equals(s));
+    }
+
+    private NavigableSet<YearMonth> forSchema(String schema) {
+        return partitions.computeIfAbsent(key(schema), s -> {
+            NavigableSet<YearMonth> months = discover().get(s);
+            return months != null ? months : new ConcurrentSkipListSet<>();
+        });
+    }
+
+    /**
+     * The month of a partition table name, or null if the name is not one.
+     */
+    public static YearMonth monthOfTable(String tableName) {
+        if (!tableName.regionMatches(true, 0, TABLE_PREFIX, 0, TABLE_PREFIX.length())) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(tableName.substring(TABLE_PREFIX.length()), SUFFIX);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static String key(String schema) {
+        return schema.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Newest first, for queries ordered by timestamp descending.
+     */
+    static List<YearMonth> newestFirst(List<YearMonth> months) {
+        List<YearMonth> reversed = new ArrayList<>(months);
+        Collections.reverse(reversed);
+        return reversed;
+    }
+}
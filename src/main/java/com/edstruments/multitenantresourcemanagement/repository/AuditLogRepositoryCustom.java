@@ -0,0 +1,108 @@
+package com.edstruments.multitenantresourcemanagement.repository;
+
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Audit log queries routed to the monthly partitions of the current tenant schema,
+ * see {@link AuditLogPartitions}. Implemented by {@link AuditLogRepositoryImpl}.
+ */
+public interface AuditLogRepositoryCustom {
+
+    /**
+     * Retrieves audit logs for a tenant with pagination.
+     * Ordered by timestamp descending (newest first).
+     * 
+     * @param tenantId Tenant ID
+     * @param pageable Pagination parameters
+     * @return Page of audit logs
+     */
+    Page<AuditLog> findByTenantIdOrderByTimestampDesc(Long tenantId, Pageable pageable);
+
+    /**
+     * Retrieves audit logs for a specific user.
+     * 
+     * @param userId User ID
+     * @param tenantId Tenant ID
+     * @param pageable Pagination parameters
+     * @return Page of audit logs
+     */
+    Page<AuditLog> findByUserIdAndTenantIdOrderByTimestampDesc(Long userId, Long tenantId, 
+                                                                Pageable pageable);
+
+    /**
+     * Retrieves audit logs filtered by action type.
+     * 
+     * @param tenantId Tenant ID
+     * @param action Audit action type
+     * @param pageable Pagination parameters
+     * @return Page of audit logs
+     */
+    Page<AuditLog> findByTenantIdAndActionOrderByTimestampDesc(Long tenantId, AuditAction action, 
+                                                                Pageable pageable);
+
+    /**
+     * Advanced filtering: Retrieves audit logs within a time range.
+     * 
+     * @param tenantId Tenant ID
+     * @param startDate Start of time range
+     * @param endDate End of time range
+     * @param pageable Pagination parameters
+     * @return Page of audit logs
+     */
+    Page<AuditLog> findByTenantIdAndTimestampBetween(Long tenantId,
+                                                      LocalDateTime startDate,
+                                                      LocalDateTime endDate,
+                                                      Pageable pageable);
+
+    /**
+     * Keyset pagination: first page of a tenant's audit logs, newest first.
+     * Served by the (tenant_id, timestamp, id) index without a COUNT query.
+     *
+     * @param tenantId Tenant ID
+     * @param limit Page size plus one, to detect a following page
+     * @return Audit logs ordered by timestamp and id descending
+     */
+    List<AuditLog> scrollFirst(Long tenantId, Limit limit);
+
+    /**
+     * Keyset pagination: audit logs strictly after the cursor position (timestamp, id).
+     * Constant cost per page regardless of how deep the client has paged.
+     *
+     * @param tenantId Tenant ID
+     * @param timestamp Cursor timestamp
+     * @param id Cursor audit log ID
+     * @param limit Page size plus one, to detect a following page
+     * @return Audit logs ordered by timestamp and id descending
+     */
+    List<AuditLog> scrollAfter(Long tenantId,
+                               LocalDateTime timestamp,
+                               Long id,
+                               Limit limit);
+
+    /**
+     * Export: a tenant's audit logs, oldest first, optionally restricted to a time range,
+     * an action and a user. Rows are read through a forward-only cursor in chunks of
+     * {@code fetch_size}; the stream must be consumed inside a transaction and closed.
+     *
+     * @param tenantId Tenant ID
+     * @param from Inclusive lower timestamp bound (optional)
+     * @param to Inclusive upper timestamp bound (optional)
+     * @param action Audit action type (optional)
+     * @param userId User ID (optional)
+     * @return Audit logs ordered by timestamp and id ascending
+     */
+    Stream<AuditLog> streamForExport(Long tenantId,
+                                     LocalDateTime from,
+                                     LocalDateTime to,
+                                     AuditAction action,
+                                     Long userId);
+
+}
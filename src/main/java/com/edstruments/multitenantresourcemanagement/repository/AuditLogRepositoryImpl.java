@@ -0,0 +1,213 @@
+package com.edstruments.multitenantresourcemanagement.repository;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs the audit log queries against each monthly partition the time range overlaps.
+ *
+ * Newest-first queries walk the partitions from the latest month backwards and stop once
+ * the page is full; the export stream opens one cursor per partition, oldest first, and
+ * only when the previous one is exhausted.
+ */
+public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
+
+    private static final String COLUMNS = "id, user_id, tenant_id, action, entity_type, entity_id, details, timestamp";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AuditLogPartitions partitions;
+
+    /**
+     * Conditions shared by all audit log queries; null fields are not filtered on.
+     * {@code beforeTimestamp}/{@code beforeId} is a keyset cursor (exclusive).
+     */
+    private record Filter(Long tenantId, LocalDateTime from, LocalDateTime to, AuditAction action, Long userId,
+                          LocalDateTime beforeTimestamp, Long beforeId) {
+
+        static Filter tenant(Long tenantId) {
+            return new Filter(tenantId, null, null, null, null, null, null);
+        }
+    }
+
+    @Override
+    public Page<AuditLog> findByTenantIdOrderByTimestampDesc(Long tenantId, Pageable pageable) {
+        return page(Filter.tenant(tenantId), pageable);
+    }
+
+    @Override
+    public Page<AuditLog> findByUserIdAndTenantIdOrderByTimestampDesc(Long userId, Long tenantId, Pageable pageable) {
+        return page(new Filter(tenantId, null, null, null, userId, null, null), pageable);
+    }
+
+    @Override
+    public Page<AuditLog> findByTenantIdAndActionOrderByTimestampDesc(Long tenantId, AuditAction action,
+                                                                       Pageable pageable) {
+        return page(new Filter(tenantId, null, null, action, null, null, null), pageable);
+    }
+
+    @Override
+    public Page<AuditLog> findByTenantIdAndTimestampBetween(Long tenantId, LocalDateTime startDate,
+                                                             LocalDateTime endDate, Pageable pageable) {
+        return page(new Filter(tenantId, startDate, endDate, null, null, null, null), pageable);
+    }
+
+    @Override
+    public List<AuditLog> scrollFirst(Long tenantId, Limit limit) {
+        return newestFirst(Filter.tenant(tenantId), limit.max());
+    }
+
+    @Override
+    public List<AuditLog> scrollAfter(Long tenantId, LocalDateTime timestamp, Long id, Limit limit) {
+        return newestFirst(new Filter(tenantId, null, timestamp, null, null, timestamp, id), limit.max());
+    }
+
+    @Override
+    public Stream<AuditLog> streamForExport(Long tenantId, LocalDateTime from, LocalDateTime to,
+                                            AuditAction action, Long userId) {
+        Filter filter = new Filter(tenantId, from, to, action, userId, null, null);
+        return partitions.prune(currentSchema(), from, to).stream()
+                .flatMap(month -> {
+                    Query query = select(month, filter, false);
+                    query.setHint(HibernateHints.HINT_FETCH_SIZE, 500);
+                    query.setHint(HibernateHints.HINT_READ_ONLY, true);
+                    @SuppressWarnings("unchecked")
+                    Stream<AuditLog> rows = query.getResultStream();
+                    return rows;
+                });
+    }
+
+    private List<AuditLog> newestFirst(Filter filter, int limit) {
+        List<AuditLog> rows = new ArrayList<>(limit);
+        for (YearMonth month : months(filter)) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            rows.addAll(fetch(month, filter, 0, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    /**
+     * Offset paging across partitions: every partition is counted for the total (closed months
+     * from the count cache of {@link AuditLogPartitions}), but rows are only read from the
+     * partitions the requested page falls into. {@link #scrollAfter} needs no count at all.
+     */
+    private Page<AuditLog> page(Filter filter, Pageable pageable) {
+        List<AuditLog> content = new ArrayList<>();
+        long total = 0;
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int wanted = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        for (YearMonth month : months(filter)) {
+            long count = count(month, filter);
+            total += count;
+            if (content.size() >= wanted || count == 0) {
+                continue;
+            }
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            content.addAll(fetch(month, filter, (int) skip, wanted - content.size()));
+            skip = 0;
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private List<YearMonth> months(Filter filter) {
+        return AuditLogPartitions.newestFirst(partitions.prune(currentSchema(), filter.from(), filter.to()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AuditLog> fetch(YearMonth month, Filter filter, int offset, int limit) {
+        Query query = select(month, filter, true);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    private long count(YearMonth month, Filter filter) {
+        return partitions.count(currentSchema(), month, filter, () -> {
+            Query query = nativeQuery("SELECT COUNT(*)", month, filter, null, null);
+            return ((Number) query.getSingleResult()).longValue();
+        });
+    }
+
+    private Query select(YearMonth month, Filter filter, boolean newestFirst) {
+        String order = newestFirst ? " ORDER BY timestamp DESC, id DESC" : " ORDER BY timestamp ASC, id ASC";
+        return nativeQuery("SELECT " + COLUMNS, month, filter, order, AuditLog.class);
+    }
+
+    private Query nativeQuery(String select, YearMonth month, Filter filter, String order, Class<?> resultClass) {
+        StringBuilder sql = new StringBuilder(select)
+                .append(" FROM ").append(AuditLogPartitions.tableName(month))
+                .append(" WHERE tenant_id = :tenantId");
+        if (filter.from() != null) {
+            sql.append(" AND timestamp >= :from");
+        }
+        if (filter.to() != null) {
+            sql.append(" AND timestamp <= :to");
+        }
+        if (filter.action() != null) {
+            sql.append(" AND action = :action");
+        }
+        if (filter.userId() != null) {
+            sql.append(" AND user_id = :userId");
+        }
+        if (filter.beforeTimestamp() != null) {
+            sql.append(" AND (timestamp < :beforeTimestamp OR (timestamp = :beforeTimestamp AND id < :beforeId))");
+        }
+        if (order != null) {
+            sql.append(order);
+        }
+
+        Query query = resultClass != null
+                ? entityManager.createNativeQuery(sql.toString(), resultClass)
+                : entityManager.createNativeQuery(sql.toString());
+        // partitions are not mapped, so tell Hibernate which entity they hold instead of
+        // letting it flush the whole session before every query
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(AuditLog.class);
+        query.setParameter("tenantId", filter.tenantId());
+        if (filter.from() != null) {
+            query.setParameter("from", filter.from());
+        }
+        if (filter.to() != null) {
+            query.setParameter("to", filter.to());
+        }
+        if (filter.action() != null) {
+            query.setParameter("action", filter.action().name());
+        }
+        if (filter.userId() != null) {
+            query.setParameter("userId", filter.userId());
+        }
+        if (filter.beforeTimestamp() != null) {
+            query.setParameter("beforeTimestamp", filter.beforeTimestamp());
+            query.setParameter("beforeId", filter.beforeId());
+        }
+        return query;
+    }
+
+    private static String currentSchema() {
+        String tenant = TenantContext.getCurrentTenant();
+        return (tenant != null) ? tenant : "public";
+    }
+}
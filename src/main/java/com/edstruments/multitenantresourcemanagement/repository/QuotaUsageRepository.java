@@ -0,0 +1,47 @@
+package com.edstruments.multitenantresourcemanagement.repository;
+
+import com.edstruments.multitenantresourcemanagement.entity.QuotaUsage;
+import com.edstruments.multitenantresourcemanagement.enums.QuotaScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for persisted quota usage counters.
+ */
+@Repository
+public interface QuotaUsageRepository extends JpaRepository<QuotaUsage, Long> {
+
+    Optional<QuotaUsage> findByTenantIdAndScopeAndOwnerId(Long tenantId, QuotaScope scope, Long ownerId);
+
+    /**
+     * Applies a delta to a stored counter.
+     *
+     * @return number of rows updated (0 if the counter row does not exist yet)
+     */
+    @Modifying
+    @Query("UPDATE QuotaUsage q SET q.used = q.used + :delta, q.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE q.tenantId = :tenantId AND q.scope = :scope AND q.ownerId = :ownerId")
+    int addUsage(@Param("tenantId") Long tenantId,
+                 @Param("scope") QuotaScope scope,
+                 @Param("ownerId") Long ownerId,
+                 @Param("delta") long delta);
+
+    /**
+     * Overwrites a stored counter with a reconciled value.
+     *
+     * @return number of rows updated (0 if the counter row does not exist yet)
+     */
+    @Modifying
+    @Query("UPDATE QuotaUsage q SET q.used = :used, q.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE q.tenantId = :tenantId AND q.scope = :scope AND q.ownerId = :ownerId")
+    int setUsage(@Param("tenantId") Long tenantId,
+                 @Param("scope") QuotaScope scope,
+                 @Param("ownerId") Long ownerId,
+                 @Param("used") long used);
+
+}
@@ -1,13 +1,22 @@
 package com.edstruments.multitenantresourcemanagement.repository;
 
+import com.edstruments.multitenantresourcemanagement.dto.ResourceText;
 import com.edstruments.multitenantresourcemanagement.entity.Resource;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -94,9 +103,95 @@ public interface ResourceRepository extends JpaRepository<Resource, Long> {
                                    @Param("ownerId") Long ownerId,
                                    Pageable pageable);
 
+    /**
+     * Keyset pagination: first page of a tenant's resources, newest first.
+     *
+     * Performance Optimization:
+     * Served by the (tenant_id, created_at, id) index; no OFFSET and no COUNT query.
+     *
+     * @param tenantId Tenant ID
+     * @param ownerId Owner user ID (optional)
+     * @param limit Page size plus one, to detect a following page
+     * @return Resources ordered by createdAt and id descending
+     */
+    @Query("SELECT r FROM Resource r WHERE r.tenantId = :tenantId " +
+           "AND r.deleted = false " +
+           "AND (:ownerId IS NULL OR r.ownerId = :ownerId) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Resource> scrollFirst(@Param("tenantId") Long tenantId,
+                               @Param("ownerId") Long ownerId,
+                               Limit limit);
+
+    /**
+     * Keyset pagination: resources strictly after the cursor position (createdAt, id).
+     * The leading {@code createdAt <= :createdAt} bound turns the seek into an index range scan,
+     * so the cost per page does not grow with page depth.
+     *
+     * @param tenantId Tenant ID
+     * @param ownerId Owner user ID (optional)
+     * @param createdAt Cursor timestamp
+     * @param id Cursor resource ID
+     * @param limit Page size plus one, to detect a following page
+     * @return Resources ordered by createdAt and id descending
+     */
+    @Query("SELECT r FROM Resource r WHERE r.tenantId = :tenantId " +
+           "AND r.deleted = false " +
+           "AND (:ownerId IS NULL OR r.ownerId = :ownerId) " +
+           "AND r.createdAt <= :createdAt " +
+           "AND (r.createdAt < :createdAt OR r.id < :id) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Resource> scrollAfter(@Param("tenantId") Long tenantId,
+                               @Param("ownerId") Long ownerId,
+                               @Param("createdAt") LocalDateTime createdAt,
+                               @Param("id") Long id,
+                               Limit limit);
+
+    /**
+     * Loads the live resources of a tenant among the given ids, used by bulk operations
+     * to resolve a whole chunk of ids in one query.
+     *
+     * @param tenantId Tenant ID
+     * @param ids Resource IDs
+     * @return Resources that exist in the tenant
+     */
+    List<Resource> findByTenantIdAndIdIn(Long tenantId, Collection<Long> ids);
+
+    /**
+     * Soft-deletes the given resources of a tenant with a single UPDATE statement
+     * instead of one statement per row.
+     *
+     * An HQL bulk update would make Hibernate clear the whole Resource second-level cache
+     * region, for every tenant. This native statement is synchronized on a query space no
+     * entity maps to, so the cache is left alone and callers must evict the deleted ids.
+     *
+     * @param tenantId Tenant ID
+     * @param ids Resource IDs
+     * @param deletedAt Deletion time
+     * @return Number of resources deleted
+     */
+    @Modifying
+    @Query(value = "UPDATE resources SET deleted = true, deleted_at = :deletedAt " +
+                   "WHERE tenant_id = :tenantId AND id IN (:ids) AND deleted = false",
+           nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resources_soft_delete"))
+    int softDeleteByTenantIdAndIdIn(@Param("tenantId") Long tenantId,
+                                    @Param("ids") Collection<Long> ids,
+                                    @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Loads the searchable text of all live resources of a tenant, used to build the
+     * in-memory search index. Selects three columns instead of whole entities.
+     *
+     * @param tenantId Tenant ID
+     * @return id, name and description of each resource
+     */
+    @Query("SELECT new com.edstruments.multitenantresourcemanagement.dto.ResourceText(r.id, r.name, r.description) " +
+           "FROM Resource r WHERE r.tenantId = :tenantId AND r.deleted = false")
+    List<ResourceText> findSearchTextByTenantId(@Param("tenantId") Long tenantId);
+
     /**
      * Counts resources for a specific user.
-     * Used for quota enforcement (max 10 resources per user).
+     * Used by QuotaService to initialise and reconcile the per-user counter.
      * 
      * Performance Optimization:
      * COUNT query avoids loading all resources into memory.
@@ -113,7 +208,7 @@ public interface ResourceRepository extends JpaRepository<Resource, Long> {
 
     /**
      * Counts total resources for a tenant.
-     * Used for quota enforcement (max 500 resources per tenant).
+     * Used by QuotaService to initialise and reconcile the per-tenant counter.
      * 
      * @param tenantId Tenant ID
      * @return Count of resources in the tenant
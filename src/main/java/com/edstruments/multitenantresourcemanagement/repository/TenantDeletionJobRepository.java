@@ -0,0 +1,32 @@
+package com.edstruments.multitenantresourcemanagement.repository;
+
+import com.edstruments.multitenantresourcemanagement.entity.TenantDeletionJob;
+import com.edstruments.multitenantresourcemanagement.enums.TenantDeletionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for tenant deletion jobs (public schema).
+ */
+@Repository
+public interface TenantDeletionJobRepository extends JpaRepository<TenantDeletionJob, Long> {
+
+    List<TenantDeletionJob> findByStatusIn(Collection<TenantDeletionStatus> statuses);
+
+    Optional<TenantDeletionJob> findFirstByTenantIdOrderByIdDesc(Long tenantId);
+
+    /**
+     * Records a purged chunk.
+     */
+    @Modifying
+    @Query("UPDATE TenantDeletionJob j SET j.rowsDeleted = j.rowsDeleted + :rows, j.currentTable = :table, " +
+           "j.updatedAt = CURRENT_TIMESTAMP WHERE j.id = :id")
+    int addProgress(@Param("id") Long id, @Param("table") String table, @Param("rows") long rows);
+}
@@ -1,7 +1,10 @@
 package com.edstruments.multitenantresourcemanagement.repository;
 
 import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,6 +16,7 @@ import java.util.Optional;
 @Repository
 public interface TenantRepository extends JpaRepository<Tenant, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Tenant> findBySchemaName(String schemaName);
 
     Optional<Tenant> findByName(String name);
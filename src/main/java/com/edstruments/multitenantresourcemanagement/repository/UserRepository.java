@@ -1,8 +1,11 @@
 package com.edstruments.multitenantresourcemanagement.repository;
 
 import com.edstruments.multitenantresourcemanagement.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -23,6 +26,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    /**
+     * Login lookup.
+     *
+     * Performance Optimization:
+     * Served from the query cache (per tenant schema) and the User entity cache; any write to
+     * the users table invalidates the cached result.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsernameAndTenantId(String username, Long tenantId);
 
     boolean existsByUsernameAndTenantId(String username, Long tenantId);
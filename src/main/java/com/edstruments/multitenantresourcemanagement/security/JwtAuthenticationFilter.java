@@ -0,0 +1,50 @@
+package com.edstruments.multitenantresourcemanagement.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import io.jsonwebtoken.JwtException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Validates the bearer token once per request and stores a {@link TenantPrincipal}
+ * in the security context. Requests without a valid token continue unauthenticated
+ * and are rejected by the authorization rules in {@link SecurityConfig}.
+ *
+ * Not a @Component: it is added to the security filter chain only, so that Spring Boot
+ * does not also register it as a plain servlet filter.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
+        this.jwtTokenProvider = jwtTokenProvider;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String token = SecurityUtils.resolveToken(request);
+        if (token != null) {
+            try {
+                TenantPrincipal principal = TenantPrincipal.fromClaims(jwtTokenProvider.validateAndGetClaims(token));
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(
+                        UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.authorities()));
+                SecurityContextHolder.setContext(context);
+                request.setAttribute(TenantPrincipal.REQUEST_ATTRIBUTE, principal);
+            } catch (JwtException | IllegalArgumentException ex) {
+                SecurityContextHolder.clearContext();
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,14 +1,37 @@
 package com.edstruments.multitenantresourcemanagement.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * The signing key, the verification keys and the parser are built once at startup.
+ * Tokens carry a key id ({@code kid}) header so that retired keys listed in
+ * {@code jwt.retired-keys} (format {@code kid:secret,kid:secret}) keep verifying
+ * while new tokens are signed with the current key.
+ *
+ * Successfully verified tokens are cached by the SHA-256 hash of the token, bounded
+ * in size and never beyond the token's own {@code exp}.
+ */
 @Component
 public class JwtTokenProvider {
 
@@ -18,19 +41,100 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
-    public String generateToken(String username, Long tenantId, String role) {
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.key-id:k1}")
+    private String keyId;
+
+    @Value("${jwt.retired-keys:}")
+    private String retiredKeys;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    private Key signingKey;
+    private Map<String, Key> verificationKeys;
+    private JwtParser parser;
+    private Cache<ByteBuffer, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Key> keys = new HashMap<>();
+        keys.put(keyId, signingKey);
+        for (String entry : StringUtils.commaDelimitedListToStringArray(retiredKeys)) {
+            int sep = entry.indexOf(':');
+            if (sep <= 0) {
+                throw new IllegalStateException("jwt.retired-keys entries must be kid:secret");
+            }
+            keys.putIfAbsent(entry.substring(0, sep).trim(),
+                    Keys.hmacShaKeyFor(entry.substring(sep + 1).trim().getBytes(StandardCharsets.UTF_8)));
+        }
+        verificationKeys = Collections.unmodifiableMap(keys);
+
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // tokens issued before key ids were introduced carry no kid
+                        String kid = header.getKeyId();
+                        Key key = verificationKeys.get(kid != null ? kid : keyId);
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key id: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+
+        long ttlNanos = Duration.ofSeconds(cacheTtlSeconds).toNanos();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(Expiry.<ByteBuffer, Claims>creating((hash, claims) -> {
+                    Date exp = claims.getExpiration();
+                    if (exp == null) {
+                        return Duration.ofNanos(ttlNanos);
+                    }
+                    long untilExp = Duration.ofMillis(exp.getTime() - System.currentTimeMillis()).toNanos();
+                    return Duration.ofNanos(Math.max(0, Math.min(ttlNanos, untilExp)));
+                }))
+                .build();
+    }
+
+    public String generateToken(Long userId, String username, Long tenantId, String role) {
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyId)
                 .setSubject(username)
-                .addClaims(Map.of("tenantId", tenantId, "role", role))
+                .addClaims(Map.of("userId", userId, "tenantId", tenantId, "role", role))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token and returns its claims. The returned claims may be shared
+     * with other callers presenting the same token and must not be modified.
+     */
     public Claims validateAndGetClaims(String token) {
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        ByteBuffer hash = sha256(token);
+        Claims cached = verifiedTokens.getIfPresent(hash);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        verifiedTokens.put(hash, claims);
+        return claims;
+    }
+
+    private static ByteBuffer sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
 }
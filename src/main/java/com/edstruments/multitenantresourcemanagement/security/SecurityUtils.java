@@ -1,14 +1,13 @@
 package com.edstruments.multitenantresourcemanagement.security;
 
-import io.jsonwebtoken.Claims;
 import org.springframework.http.HttpHeaders;
 import org.springframework.util.StringUtils;
 
 import jakarta.servlet.http.HttpServletRequest;
 
 /**
- * Small helper that extracts JWT from Authorization header and returns claims.
- * Uses JwtTokenProvider already provided.
+ * Small helper that extracts the JWT from the Authorization header.
+ * Token validation happens once per request in {@link JwtAuthenticationFilter}.
  */
 public class SecurityUtils {
 
@@ -19,10 +18,4 @@ public class SecurityUtils {
         }
         return null;
     }
-
-    public static Claims getClaimsFromRequest(HttpServletRequest request, JwtTokenProvider jwtTokenProvider) {
-        String token = resolveToken(request);
-        if (token == null) return null;
-        return jwtTokenProvider.validateAndGetClaims(token);
-    }
 }
@@ -0,0 +1,51 @@
+package com.edstruments.multitenantresourcemanagement.security;
+
+import com.edstruments.multitenantresourcemanagement.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.MalformedJwtException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authenticated caller, built once per request from the verified JWT by
+ * {@link JwtAuthenticationFilter} and injected into controller methods by
+ * {@link TenantPrincipalArgumentResolver}.
+ */
+public record TenantPrincipal(long userId, long tenantId, String username, UserRole role) {
+
+    /**
+     * Request attribute holding the principal, for code running outside the security
+     * context's lifetime such as request metrics.
+     */
+    public static final String REQUEST_ATTRIBUTE = TenantPrincipal.class.getName();
+
+    /**
+     * Authorities are the same for every user of a role, so they are built once.
+     * Authority names match the role names used in @PreAuthorize expressions.
+     */
+    private static final Map<UserRole, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(UserRole.class);
+
+    static {
+        for (UserRole r : UserRole.values()) {
+            AUTHORITIES.put(r, List.of(new SimpleGrantedAuthority(r.name())));
+        }
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return AUTHORITIES.get(role);
+    }
+
+    public static TenantPrincipal fromClaims(Claims claims) {
+        Number userId = claims.get("userId", Number.class);
+        Number tenantId = claims.get("tenantId", Number.class);
+        String role = claims.get("role", String.class);
+        if (userId == null || tenantId == null || role == null) {
+            throw new MalformedJwtException("Token is missing userId, tenantId or role claims");
+        }
+        return new TenantPrincipal(userId.longValue(), tenantId.longValue(), claims.getSubject(), UserRole.valueOf(role));
+    }
+}
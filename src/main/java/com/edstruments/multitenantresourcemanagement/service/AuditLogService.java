@@ -1,13 +1,18 @@
 package com.edstruments.multitenantresourcemanagement.service;
 
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import com.edstruments.multitenantresourcemanagement.dto.CursorPage;
+import com.edstruments.multitenantresourcemanagement.dto.KeysetCursor;
 import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
 import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
 import com.edstruments.multitenantresourcemanagement.repository.AuditLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 public class AuditLogService {
@@ -15,6 +20,9 @@ public class AuditLogService {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
     public void log(Long userId, Long tenantId, AuditAction action, String entityType, Long entityId, String details) {
         AuditLog a = AuditLog.builder()
                 .userId(userId)
@@ -25,11 +33,53 @@ public class AuditLogService {
                 .details(details)
                 .timestamp(LocalDateTime.now())
                 .build();
-        auditLogRepository.save(a);
+        // written in batches off the request thread, see AuditLogWriter
+        auditLogWriter.submit(currentSchema(), a);
+    }
+
+    /**
+     * Records the same action for many entities at once, e.g. for bulk operations.
+     */
+    public void logAll(Long userId, Long tenantId, AuditAction action, String entityType, List<Long> entityIds, String details) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditLog> logs = entityIds.stream()
+                .map(id -> AuditLog.builder()
+                        .userId(userId)
+                        .tenantId(tenantId)
+                        .action(action)
+                        .entityType(entityType)
+                        .entityId(id)
+                        .details(details)
+                        .timestamp(now)
+                        .build())
+                .toList();
+        auditLogWriter.submitAll(currentSchema(), logs);
     }
 
+    @Transactional(readOnly = true)
     public Page<AuditLog> getForTenant(Long tenantId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
         return auditLogRepository.findByTenantIdOrderByTimestampDesc(tenantId, pageable);
     }
+
+    /**
+     * Keyset pagination over a tenant's audit logs, newest first, without a COUNT query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLog> scrollForTenant(Long tenantId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<AuditLog> rows = after == null
+                ? auditLogRepository.scrollFirst(tenantId, limit)
+                : auditLogRepository.scrollAfter(tenantId, after.timestamp(), after.id(), limit);
+        return CursorPage.of(rows, size, a -> new KeysetCursor(a.getTimestamp(), a.getId()));
+    }
+
+    private static String currentSchema() {
+        String tenant = TenantContext.getCurrentTenant();
+        return (tenant != null) ? tenant : "public";
+    }
 }
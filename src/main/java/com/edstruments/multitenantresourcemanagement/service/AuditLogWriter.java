@@ -0,0 +1,432 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.SchemaBasedMultiTenantConnectionProvider;
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.enums.AuditOverflowPolicy;
+import com.edstruments.multitenantresourcemanagement.metrics.TenantMeters;
+import com.edstruments.multitenantresourcemanagement.repository.AuditLogPartitions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous, batched writer for audit log entries.
+ *
+ * Request threads only enqueue entries into a bounded queue; a single background
+ * thread drains the queue and writes the rows in JDBC batches, one transaction per
+ * tenant schema and batch (group commit). A batch is flushed once it reaches
+ * {@code audit.async.batch-size} entries or {@code audit.async.flush-interval-ms}
+ * after its first entry, whichever comes first.
+ *
+ * Rows go to the monthly partition of their timestamp ({@link AuditLogPartitions}), which
+ * is created on first use.
+ *
+ * When the queue is full the configured {@link AuditOverflowPolicy} applies.
+ * On shutdown the queue is drained before the connection provider goes away.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO %s " +
+            "(user_id, tenant_id, action, entity_type, entity_id, details, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private SchemaBasedMultiTenantConnectionProvider connectionProvider;
+
+    @Autowired
+    private AuditLogPartitions partitions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${audit.async.enabled:true}")
+    private boolean asyncEnabled;
+
+    @Value("${audit.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.async.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.async.flush-interval-ms:250}")
+    private long flushIntervalMs;
+
+    @Value("${audit.async.overflow:BLOCK}")
+    private AuditOverflowPolicy overflowPolicy;
+
+    @Value("${audit.async.spill-file:${java.io.tmpdir}/audit-spill.ndjson}")
+    private String spillFile;
+
+    @Value("${audit.async.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<PendingAuditLog> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final ReentrantLock spillLock = new ReentrantLock();
+
+    private Counter droppedCounter;
+    private Counter spilledCounter;
+    private Counter failedCounter;
+    private DistributionSummary batchSizeSummary;
+    private Timer flushTimer;
+    private TenantMeters<Timer> submitTimers;
+
+    /**
+     * An audit entry together with the tenant schema it must be written to.
+     * The schema is captured on the request thread, where the tenant context is known.
+     */
+    record PendingAuditLog(String schema, AuditLog log) {
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit entries waiting to be written")
+                .register(meterRegistry);
+        droppedCounter = meterRegistry.counter("audit.queue.dropped");
+        spilledCounter = meterRegistry.counter("audit.queue.spilled");
+        failedCounter = meterRegistry.counter("audit.write.failed");
+        batchSizeSummary = DistributionSummary.builder("audit.batch.size")
+                .description("Audit entries written per JDBC batch")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("audit.flush.latency")
+                .description("Time spent writing one audit batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        submitTimers = new TenantMeters<>(tenantId -> Timer.builder("audit.submit")
+                .description("Time the calling thread spends handing audit entries to the writer")
+                .tags("tenant", TenantMeters.tag(tenantId))
+                .register(meterRegistry));
+
+        if (!asyncEnabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Audit writer did not drain within {} ms, {} entries left in queue",
+                    shutdownTimeoutMs, queue.size());
+        }
+    }
+
+    /**
+     * Queues an audit entry for the given tenant schema. Falls back to a synchronous
+     * write when asynchronous mode is disabled or the writer has already shut down.
+     */
+    public void submit(String schema, AuditLog auditLog) {
+        long start = System.nanoTime();
+        try {
+            enqueue(schema, auditLog);
+        } finally {
+            submitTimers.get(tenantOf(auditLog)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void enqueue(String schema, AuditLog auditLog) {
+        PendingAuditLog pending = new PendingAuditLog(schema, auditLog);
+        if (!running) {
+            flush(List.of(pending));
+            return;
+        }
+        if (queue.offer(pending)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(pending);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    droppedCounter.increment();
+                }
+            }
+            case DROP -> droppedCounter.increment();
+            case SPILL -> spill(List.of(pending));
+        }
+    }
+
+    /**
+     * Queues several entries for the same tenant schema. Batches that would not fit into
+     * the queue (bulk operations) are written on the calling thread as a single JDBC batch
+     * instead of blocking on, or overflowing, the queue entry by entry.
+     */
+    public void submitAll(String schema, List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            if (!running || auditLogs.size() > queue.remainingCapacity()) {
+                flush(auditLogs.stream().map(a -> new PendingAuditLog(schema, a)).toList());
+                return;
+            }
+            for (AuditLog a : auditLogs) {
+                enqueue(schema, a);
+            }
+        } finally {
+            submitTimers.get(tenantOf(auditLogs.get(0))).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static long tenantOf(AuditLog auditLog) {
+        return auditLog.getTenantId() != null ? auditLog.getTenantId() : TenantMeters.NO_TENANT;
+    }
+
+    private void runWriter() {
+        replaySpillFile();
+        List<PendingAuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAuditLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingAuditLog next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException ex) {
+                // keep draining; shutdown is signalled through the running flag
+            } catch (RuntimeException ex) {
+                log.error("Unexpected error in audit writer", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the entries as one JDBC batch and one transaction per tenant schema.
+     */
+    private void flush(List<PendingAuditLog> entries) {
+        Map<String, List<AuditLog>> bySchema = new LinkedHashMap<>();
+        for (PendingAuditLog pending : entries) {
+            bySchema.computeIfAbsent(pending.schema(), s -> new ArrayList<>()).add(pending.log());
+        }
+        for (Map.Entry<String, List<AuditLog>> e : bySchema.entrySet()) {
+            long start = System.nanoTime();
+            try {
+                writeBatch(e.getKey(), e.getValue());
+                batchSizeSummary.record(e.getValue().size());
+            } catch (SQLException ex) {
+                log.error("Failed to write {} audit entries for schema {}: {}",
+                        e.getValue().size(), e.getKey(), ex.getMessage());
+                if (overflowPolicy == AuditOverflowPolicy.SPILL) {
+                    spill(e.getValue().stream().map(a -> new PendingAuditLog(e.getKey(), a)).toList());
+                } else {
+                    failedCounter.increment(e.getValue().size());
+                }
+            } finally {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void writeBatch(String schema, List<AuditLog> logs) throws SQLException {
+        Map<YearMonth, List<AuditLog>> byMonth = new TreeMap<>();
+        for (AuditLog a : logs) {
+            if (a.getTimestamp() == null) {
+                a.setTimestamp(LocalDateTime.now());
+            }
+            byMonth.computeIfAbsent(AuditLogPartitions.monthOf(a.getTimestamp()), m -> new ArrayList<>()).add(a);
+        }
+        Connection conn = connectionProvider.getConnection(schema);
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            // DDL commits implicitly, so partitions are created before the batch transaction starts
+            for (YearMonth month : byMonth.keySet()) {
+                partitions.ensure(conn, schema, month);
+            }
+            conn.setAutoCommit(false);
+            for (Map.Entry<YearMonth, List<AuditLog>> e : byMonth.entrySet()) {
+                insert(conn, AuditLogPartitions.tableName(e.getKey()), e.getValue());
+            }
+            conn.commit();
+            // late entries (e.g. replayed from the spill file) change a closed month's counts
+            YearMonth current = YearMonth.now();
+            for (YearMonth month : byMonth.keySet()) {
+                if (month.isBefore(current)) {
+                    partitions.invalidateCounts(schema, month);
+                }
+            }
+        } catch (SQLException ex) {
+            conn.rollback();
+            throw ex;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+            connectionProvider.releaseConnection(schema, conn);
+        }
+    }
+
+    private static void insert(Connection conn, String table, List<AuditLog> logs) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL.formatted(table))) {
+            for (AuditLog a : logs) {
+                setNullableLong(ps, 1, a.getUserId());
+                setNullableLong(ps, 2, a.getTenantId());
+                ps.setString(3, a.getAction().name());
+                ps.setString(4, a.getEntityType());
+                setNullableLong(ps, 5, a.getEntityId());
+                ps.setString(6, a.getDetails());
+                ps.setTimestamp(7, Timestamp.valueOf(a.getTimestamp()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+
+    private void spill(List<PendingAuditLog> entries) {
+        spillLock.lock();
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(Paths.get(spillFile), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (PendingAuditLog pending : entries) {
+                    out.write(objectMapper.writeValueAsString(pending));
+                    out.newLine();
+                }
+                spilledCounter.increment(entries.size());
+            } catch (IOException ex) {
+                log.error("Failed to spill {} audit entries to {}", entries.size(), spillFile, ex);
+                droppedCounter.increment(entries.size());
+            }
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Replays entries spilled by a previous run. The file is moved aside first so that
+     * entries spilled while replaying go to a fresh file. A file left aside by a replay that
+     * was interrupted is replayed first and never overwritten; its entries that were already
+     * written before the interruption are written again.
+     */
+    private void replaySpillFile() {
+        Path source = Paths.get(spillFile);
+        Path replaying = source.resolveSibling(source.getFileName() + ".replaying");
+        if (Files.exists(replaying) && !replay(replaying)) {
+            // the new spill file stays in place for the next start
+            return;
+        }
+        spillLock.lock();
+        try {
+            if (!Files.exists(source)) {
+                return;
+            }
+            Files.move(source, replaying);
+        } catch (IOException ex) {
+            log.error("Failed to move audit spill file {} aside for replay", source, ex);
+            return;
+        } finally {
+            spillLock.unlock();
+        }
+        replay(replaying);
+    }
+
+    /**
+     * Writes the entries of a spill file and deletes it.
+     *
+     * @return whether the file was replayed completely
+     */
+    private boolean replay(Path file) {
+        try {
+            List<PendingAuditLog> batch = new ArrayList<>(batchSize);
+            int replayed = 0;
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    batch.add(objectMapper.readValue(line, PendingAuditLog.class));
+                    if (batch.size() == batchSize) {
+                        flush(batch);
+                        replayed += batch.size();
+                        batch.clear();
+                    }
+                }
+            }
+            flush(batch);
+            replayed += batch.size();
+            Files.delete(file);
+            log.info("Replayed {} spilled audit entries from {}", replayed, file);
+            return true;
+        } catch (IOException ex) {
+            log.error("Failed to replay audit spill file {}", file, ex);
+            return false;
+        }
+    }
+}
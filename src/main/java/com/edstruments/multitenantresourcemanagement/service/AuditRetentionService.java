@@ -0,0 +1,122 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.archive.AuditArchive;
+import com.edstruments.multitenantresourcemanagement.archive.AuditSegmentWriter;
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.SchemaBasedMultiTenantConnectionProvider;
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import com.edstruments.multitenantresourcemanagement.enums.AuditRetentionAction;
+import com.edstruments.multitenantresourcemanagement.repository.AuditLogPartitions;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.NavigableSet;
+
+/**
+ * Applies the audit retention policy once a day: monthly partitions older than
+ * {@code audit.retention.months} full months are dropped, or moved to the {@link AuditArchive}.
+ *
+ * Performance Optimization:
+ * Expired entries go away with one DROP TABLE per partition instead of a large DELETE,
+ * so retention does not bloat the transaction log or compete with inserts for index locks.
+ */
+@Slf4j
+@Service
+public class AuditRetentionService {
+
+    @Autowired
+    private AuditLogPartitions partitions;
+
+    @Autowired
+    private SchemaBasedMultiTenantConnectionProvider connectionProvider;
+
+    @Autowired
+    private AuditArchive auditArchive;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 0 keeps everything.
+     */
+    @Value("${audit.retention.months:0}")
+    private int retentionMonths;
+
+    @Value("${audit.retention.action:DROP}")
+    private AuditRetentionAction retentionAction;
+
+    @Scheduled(cron = "${audit.retention.cron:0 30 3 * * *}")
+    public void applyRetention() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        for (Map.Entry<String, NavigableSet<YearMonth>> e : partitions.discover().entrySet()) {
+            String schema = e.getKey();
+            for (YearMonth month : e.getValue().headSet(oldestKept, false)) {
+                try {
+                    expire(schema, month);
+                } catch (IOException | RuntimeException ex) {
+                    log.error("Failed to apply audit retention to {}.{}: {}",
+                            schema, AuditLogPartitions.tableName(month), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void expire(String schema, YearMonth month) throws IOException {
+        if (retentionAction == AuditRetentionAction.ARCHIVE) {
+            // returns once the segment is on disk, so the rows exist in one place or the other
+            archive(schema, month);
+        }
+        partitions.drop(schema, month);
+        meterRegistry.counter("audit.retention.partitions", "action", retentionAction.name()).increment();
+    }
+
+    /**
+     * Moves the partition into a columnar segment of the archive, see {@link AuditArchive}.
+     * Rows are read in (tenant_id, timestamp, id) order, along the partition's index.
+     */
+    private void archive(String schema, YearMonth month) throws IOException {
+        String table = AuditLogPartitions.tableName(month);
+        long rows;
+        try (AuditSegmentWriter segment = auditArchive.newSegment(schema, month)) {
+            Connection conn = connectionProvider.getConnection(schema);
+            try (PreparedStatement ps = conn.prepareStatement("SELECT id, user_id, tenant_id, action, entity_type, " +
+                    "entity_id, details, timestamp FROM " + table + " ORDER BY tenant_id, timestamp, id")) {
+                ps.setFetchSize(500);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        segment.append(AuditLog.builder()
+                                .id(rs.getLong(1))
+                                .userId(rs.getLong(2))
+                                .tenantId(rs.getLong(3))
+                                .action(AuditAction.valueOf(rs.getString(4)))
+                                .entityType(rs.getString(5))
+                                .entityId(rs.getObject(6, Long.class))
+                                .details(rs.getString(7))
+                                .timestamp(rs.getTimestamp(8).toLocalDateTime())
+                                .build());
+                    }
+                }
+            } finally {
+                connectionProvider.releaseConnection(schema, conn);
+            }
+            rows = segment.finish();
+        } catch (SQLException ex) {
+            throw new RuntimeException("Failed to read audit partition " + table + ": " + ex.getMessage(), ex);
+        }
+        log.info("Archived {} audit entries of {}.{}", rows, schema, table);
+    }
+}
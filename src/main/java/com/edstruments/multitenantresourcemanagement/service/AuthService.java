@@ -1,31 +1,62 @@
 package com.edstruments.multitenantresourcemanagement.service;
 
-import com.edstruments.multitenantresourcemanagement.entity.User;
-import com.edstruments.multitenantresourcemanagement.repository.UserRepository;
 import com.edstruments.multitenantresourcemanagement.security.JwtTokenProvider;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Login pipeline.
+ *
+ * Performance Optimization:
+ * The credential is looked up through {@link CredentialCache} on the request thread, the
+ * password check runs on the bounded {@link PasswordHashingService} pool, and the token is
+ * issued when the check completes. Hashes created with a lower cost than the configured
+ * {@code auth.bcrypt.strength} are re-encoded in the background after a successful login.
+ */
+@Slf4j
 @Service
 public class AuthService {
 
     @Autowired
-    private UserRepository userRepository;
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserService userService;
 
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordEncoder passwordEncoder;
 
-    public String login(String username, String password, Long tenantId) {
-        User user = userRepository.findByUsernameAndTenantId(username, tenantId)
+    public CompletableFuture<String> login(String username, String password, Long tenantId) {
+        UserCredential credential = credentialCache.get(username, tenantId)
                 .orElseThrow(() -> new RuntimeException("Invalid username or tenant"));
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
-        }
+        return passwordHashingService.submit(() -> {
+            if (!passwordEncoder.matches(password, credential.passwordHash())) {
+                throw new RuntimeException("Invalid credentials");
+            }
+            if (passwordEncoder.upgradeEncoding(credential.passwordHash())) {
+                passwordHashingService.tryExecute(() -> rehash(credential, password, tenantId));
+            }
+            return jwtTokenProvider.generateToken(credential.userId(), username, tenantId, credential.role());
+        });
+    }
 
-        return jwtTokenProvider.generateToken(username, tenantId, user.getRole().name());
+    private void rehash(UserCredential credential, String password, Long tenantId) {
+        try {
+            userService.updatePasswordHash(credential.userId(), tenantId, credential.passwordHash(),
+                    passwordEncoder.encode(password));
+        } catch (RuntimeException ex) {
+            log.warn("Could not re-encode password of user {}: {}", credential.userId(), ex.getMessage());
+        }
     }
 }
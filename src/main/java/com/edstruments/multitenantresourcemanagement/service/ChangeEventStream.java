@@ -0,0 +1,305 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.SchemaBasedMultiTenantConnectionProvider;
+import com.edstruments.multitenantresourcemanagement.dto.ChangeEvent;
+import com.edstruments.multitenantresourcemanagement.enums.ChangeEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent-Events clients of the tenants' change event streams (GET /events/stream).
+ *
+ * A client may resume from an offset (Last-Event-ID): the events after it that are still in
+ * the outbox are replayed from the table first, then the client receives the batches published
+ * by the {@link OutboxRelay}. Each SSE event carries its offset as id, so a reconnecting
+ * browser resumes where it stopped.
+ *
+ * Performance Optimization:
+ * The relay only appends published events to each client's queue of
+ * {@code events.sse.client-queue-capacity} events; a pool of {@code events.sse.sender-threads}
+ * writes them to the connections. A client that is slow, or still replaying, therefore holds
+ * up neither the relay nor the other tenants. A client whose queue overflows is closed once
+ * the queued events are sent and catches up from the outbox when it reconnects.
+ */
+@Slf4j
+@Service
+public class ChangeEventStream {
+
+    private static final String SELECT_AFTER = "SELECT stream_offset, id, tenant_id, event_type, aggregate_id, " +
+            "payload, created_at FROM outbox_events WHERE stream_offset > ? AND tenant_id = ? " +
+            "ORDER BY stream_offset FETCH FIRST ? ROWS ONLY";
+    private static final int REPLAY_BATCH = 500;
+
+    @Autowired
+    private SchemaBasedMultiTenantConnectionProvider connectionProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 0 keeps connections open until the client or the server closes them.
+     */
+    @Value("${events.sse.timeout-ms:0}")
+    private long timeoutMs;
+
+    @Value("${events.sse.max-clients-per-tenant:100}")
+    private int maxClientsPerTenant;
+
+    @Value("${events.sse.sender-threads:2}")
+    private int senderThreads;
+
+    @Value("${events.sse.client-queue-capacity:1000}")
+    private int clientQueueCapacity;
+
+    /**
+     * Connected clients by lower-case schema.
+     */
+    private final Map<String, Set<Client>> clients = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor senders;
+    private Counter overflowCounter;
+
+    /**
+     * The emitter and {@code lastOffset} are only used while holding {@code lock}.
+     */
+    private static final class Client {
+        /**
+         * Held while replaying or sending; a lock rather than a monitor so virtual threads do
+         * not pin their carrier during the database reads and socket writes.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+        private final SseEmitter emitter;
+        private final long tenantId;
+        private final BlockingQueue<ChangeEvent> pending;
+        /**
+         * Whether a sender is queued or running for the client.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long lastOffset;
+        private volatile boolean closed;
+        private volatile boolean overflowed;
+
+        private Client(SseEmitter emitter, long tenantId, long lastOffset, int queueCapacity) {
+            this.emitter = emitter;
+            this.tenantId = tenantId;
+            this.lastOffset = lastOffset;
+            this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // a client is queued at most once, so the queue is bounded by the number of clients
+        senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "events-sse-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        Gauge.builder("events.sse.clients", clients, c -> c.values().stream().mapToInt(Set::size).sum())
+                .description("Connected change event stream clients")
+                .register(meterRegistry);
+        overflowCounter = meterRegistry.counter("events.sse.overflows");
+    }
+
+    @PreDestroy
+    void stop() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Ends the open streams when the application shuts down, before the web server waits for
+     * its requests to finish; clients reconnect and resume from their last offset.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        for (Set<Client> tenantClients : clients.values()) {
+            for (Client client : tenantClients) {
+                client.lock.lock();
+                try {
+                    if (!client.closed) {
+                        client.closed = true;
+                        client.emitter.complete();
+                    }
+                } finally {
+                    client.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a stream of the tenant's events after the given offset.
+     *
+     * @throws ResponseStatusException 503 if the tenant already has the maximum number of clients
+     */
+    public SseEmitter open(String schema, long tenantId, long afterOffset) {
+        String key = schema.toLowerCase(Locale.ROOT);
+        Set<Client> tenantClients = clients.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+        if (tenantClients.size() >= maxClientsPerTenant) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event stream clients");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Client client = new Client(emitter, tenantId, afterOffset, clientQueueCapacity);
+        emitter.onCompletion(() -> tenantClients.remove(client));
+        emitter.onTimeout(() -> tenantClients.remove(client));
+        emitter.onError(ex -> tenantClients.remove(client));
+        // registered before replaying, so events published meanwhile are sent by one or the other
+        tenantClients.add(client);
+        client.lock.lock();
+        try {
+            // commits the response headers even when there is nothing to replay
+            emitter.send(SseEmitter.event().comment("offset " + afterOffset));
+            List<ChangeEvent> events;
+            do {
+                events = load(schema, tenantId, client.lastOffset);
+                send(client, events);
+            } while (events.size() == REPLAY_BATCH && !client.closed);
+        } catch (SQLException | IOException ex) {
+            tenantClients.remove(client);
+            throw new RuntimeException("Failed to replay change events", ex);
+        } finally {
+            client.lock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * Queues newly published events for the schema's clients; never waits for a client.
+     */
+    public void publish(String schema, List<ChangeEvent> events) {
+        Set<Client> tenantClients = clients.get(schema.toLowerCase(Locale.ROOT));
+        if (tenantClients == null || tenantClients.isEmpty()) {
+            return;
+        }
+        for (Client client : tenantClients) {
+            if (client.closed || client.overflowed) {
+                continue;
+            }
+            for (ChangeEvent e : events) {
+                if (e.tenantId() == client.tenantId && !client.pending.offer(e)) {
+                    client.overflowed = true;
+                    break;
+                }
+            }
+            schedule(client);
+        }
+    }
+
+    private void schedule(Client client) {
+        if (client.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(client));
+            } catch (RejectedExecutionException ex) {
+                client.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Client client) {
+        try {
+            // waits here, not in the relay, while the client is replaying
+            client.lock.lock();
+            try {
+                List<ChangeEvent> events = new ArrayList<>(client.pending.size());
+                client.pending.drainTo(events);
+                send(client, events);
+                if (client.overflowed && !client.closed) {
+                    // the client reconnects with Last-Event-ID and catches up from the outbox
+                    client.closed = true;
+                    client.pending.clear();
+                    client.emitter.complete();
+                    overflowCounter.increment();
+                    log.debug("Closed change event stream of tenant {}: client queue full", client.tenantId);
+                }
+            } finally {
+                client.lock.unlock();
+            }
+        } finally {
+            client.scheduled.set(false);
+        }
+        // events queued after drainTo whose publisher saw the client still scheduled
+        if (!client.closed && (!client.pending.isEmpty() || client.overflowed)) {
+            schedule(client);
+        }
+    }
+
+    private void send(Client client, List<ChangeEvent> events) {
+        for (ChangeEvent e : events) {
+            if (client.closed) {
+                return;
+            }
+            // replayed and live events may overlap while a client connects
+            if (e.offset() <= client.lastOffset || e.tenantId() != client.tenantId) {
+                continue;
+            }
+            try {
+                client.emitter.send(SseEmitter.event()
+                        .id(Long.toString(e.offset()))
+                        .name(e.type().name())
+                        .data(e, MediaType.APPLICATION_JSON));
+                client.lastOffset = e.offset();
+            } catch (IOException | IllegalStateException ex) {
+                client.closed = true;
+                client.emitter.completeWithError(ex);
+                log.debug("Closed change event stream of tenant {}: {}", client.tenantId, ex.getMessage());
+            }
+        }
+    }
+
+    private List<ChangeEvent> load(String schema, long tenantId, long afterOffset) throws SQLException {
+        List<ChangeEvent> events = new ArrayList<>();
+        Connection conn = connectionProvider.getConnection(schema);
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_AFTER)) {
+            ps.setLong(1, afterOffset);
+            ps.setLong(2, tenantId);
+            ps.setInt(3, REPLAY_BATCH);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    events.add(new ChangeEvent(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                            ChangeEventType.valueOf(rs.getString(4)), rs.getLong(5), rs.getString(6),
+                            rs.getTimestamp(7).toLocalDateTime()));
+                }
+            }
+        } finally {
+            connectionProvider.releaseConnection(schema, conn);
+        }
+        return events;
+    }
+}
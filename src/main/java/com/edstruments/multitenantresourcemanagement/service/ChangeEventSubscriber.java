@@ -0,0 +1,23 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.dto.ChangeEvent;
+
+import java.util.List;
+
+/**
+ * In-process consumer of change events; every bean implementing it is called by the
+ * {@link OutboxRelay}.
+ *
+ * Delivery is at least once: a batch is redelivered to all subscribers if any of them throws
+ * or the relay stops before marking it published, so subscribers must tolerate duplicates
+ * (the event id identifies them). Events of one tenant arrive in the order their
+ * transactions committed.
+ */
+public interface ChangeEventSubscriber {
+
+    /**
+     * @param schema schema of the tenant the events belong to
+     * @param events a batch of the tenant's events, in commit order
+     */
+    void onEvents(String schema, List<ChangeEvent> events);
+}
@@ -0,0 +1,82 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.config.TenantCacheKey;
+import com.edstruments.multitenantresourcemanagement.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache of login credentials per tenant schema, tenant and username.
+ *
+ * Performance Optimization:
+ * Repeated logins skip the user lookup entirely. Entries are evicted when a user is deleted
+ * or their password hash changes, and expire after {@code auth.credential-cache.ttl-seconds}.
+ * Unknown usernames are not cached.
+ */
+@Service
+public class CredentialCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.credential-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${auth.credential-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<TenantCacheKey, UserCredential> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "credentials");
+    }
+
+    public Optional<UserCredential> get(String username, Long tenantId) {
+        TenantCacheKey key = TenantCacheKey.of(tenantId, username);
+        UserCredential cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<UserCredential> loaded = userRepository.findByUsernameAndTenantId(username, tenantId)
+                .map(UserCredential::of);
+        loaded.ifPresent(c -> cache.put(key, c));
+        return loaded;
+    }
+
+    /**
+     * Evicts the user once the current transaction commits (immediately if there is none).
+     */
+    public void evict(String username, Long tenantId) {
+        TenantCacheKey key = TenantCacheKey.of(tenantId, username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(key);
+                }
+            });
+        } else {
+            cache.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.SchemaBasedMultiTenantConnectionProvider;
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantRegistry;
+import com.edstruments.multitenantresourcemanagement.dto.ChangeEvent;
+import com.edstruments.multitenantresourcemanagement.enums.ChangeEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the change events recorded by {@link OutboxService}: unpublished rows of a tenant's
+ * outbox are read in the order their transactions committed ({@code commit_seq}, then id),
+ * numbered with the next offsets of the tenant's stream, handed to every
+ * {@link ChangeEventSubscriber} and marked published in one transaction, then queued for the
+ * tenant's {@link ChangeEventStream} clients.
+ *
+ * Delivery is at least once: if a subscriber throws, the transaction is rolled back and the
+ * batch is delivered again by the next sweep. A tenant's events are published by a single
+ * thread, so subscribers see them in commit order and offsets have no gaps. Stream clients are
+ * written to by the stream's own senders, so a slow client never holds up the relay. The offsets are assigned
+ * here, so only one application instance may relay a given database.
+ *
+ * Performance Optimization:
+ * Consumers are pushed the changes instead of polling the list and audit endpoints. A commit
+ * wakes the relay for its tenant right away; wake-ups of a tenant that is already queued are
+ * merged, so a burst of writes is relayed in few batches of {@code outbox.relay.batch-size}.
+ * Every {@code outbox.relay.sweep-ms} all tenants are swept for events whose wake-up was lost
+ * (failed delivery, restart). Published events are kept {@code outbox.retention-hours} for
+ * clients resuming a stream, then deleted.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private static final String SELECT_UNPUBLISHED = "SELECT id, tenant_id, event_type, aggregate_id, payload, " +
+            "created_at FROM outbox_events WHERE stream_offset IS NULL ORDER BY commit_seq, id FETCH FIRST ? ROWS ONLY";
+    private static final String SELECT_LAST_OFFSET = "SELECT COALESCE(MAX(stream_offset), 0) FROM outbox_events";
+    private static final String MARK_PUBLISHED = "UPDATE outbox_events SET stream_offset = ? WHERE id = ?";
+    // the newest published event is kept so offsets continue from it after a restart
+    private static final String PURGE = "DELETE FROM outbox_events WHERE stream_offset IS NOT NULL " +
+            "AND created_at < ? AND stream_offset < (SELECT MAX(stream_offset) FROM outbox_events)";
+
+    @Autowired
+    private SchemaBasedMultiTenantConnectionProvider connectionProvider;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private ChangeEventStream stream;
+
+    @Autowired(required = false)
+    private List<ChangeEventSubscriber> subscribers = List.of();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.retention-hours:72}")
+    private int retentionHours;
+
+    /**
+     * Schemas (lower case) with a drain queued and not yet started.
+     */
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Last offset published per schema (lower case), loaded from the table on first use.
+     */
+    private final Map<String, Long> lastOffsets = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+    private Counter publishedCounter;
+    private Counter failureCounter;
+
+    @PostConstruct
+    void start() {
+        // one thread: per-tenant order and offset assignment rely on it
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "outbox-relay");
+                    t.setDaemon(true);
+                    return t;
+                });
+        Gauge.builder("outbox.relay.queue.depth", executor, e -> e.getQueue().size())
+                .description("Tenants waiting for the outbox relay")
+                .register(meterRegistry);
+        publishedCounter = meterRegistry.counter("outbox.events.published");
+        failureCounter = meterRegistry.counter("outbox.relay.failures");
+    }
+
+    @PreDestroy
+    void stop() {
+        // unpublished events stay in the outbox and are relayed after the next start
+        executor.shutdownNow();
+    }
+
+    /**
+     * Schedules publishing of the schema's pending events, unless it is already scheduled.
+     */
+    public void wake(String schema) {
+        String key = schema.toLowerCase(Locale.ROOT);
+        if (queued.add(key)) {
+            executor.execute(() -> {
+                // removed before draining, so events committed meanwhile queue another drain
+                queued.remove(key);
+                drain(key);
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.sweep-ms:5000}", initialDelayString = "${outbox.relay.sweep-ms:5000}")
+    public void sweep() {
+        wake(TenantRegistry.DEFAULT_SCHEMA);
+        for (TenantRegistry.Entry tenant : tenantRegistry.all()) {
+            if (tenant.active()) {
+                wake(tenant.schemaName());
+            }
+        }
+    }
+
+    /**
+     * Deletes published events older than {@code outbox.retention-hours}.
+     */
+    @Scheduled(cron = "${outbox.retention.cron:0 15 * * * *}")
+    public void purge() {
+        if (retentionHours <= 0) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours));
+        List<String> schemas = new ArrayList<>();
+        schemas.add(TenantRegistry.DEFAULT_SCHEMA);
+        tenantRegistry.all().stream().filter(TenantRegistry.Entry::active)
+                .forEach(t -> schemas.add(t.schemaName()));
+        for (String schema : schemas) {
+            Connection conn = null;
+            try {
+                conn = connectionProvider.getConnection(schema);
+                try (PreparedStatement ps = conn.prepareStatement(PURGE)) {
+                    ps.setTimestamp(1, cutoff);
+                    int deleted = ps.executeUpdate();
+                    if (deleted > 0) {
+                        log.debug("Purged {} published outbox events of {}", deleted, schema);
+                    }
+                }
+            } catch (SQLException ex) {
+                log.warn("Failed to purge the outbox of {}: {}", schema, ex.getMessage());
+            } finally {
+                release(schema, conn);
+            }
+        }
+    }
+
+    private void drain(String schema) {
+        try {
+            while (publishBatch(schema) >= batchSize) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        } catch (SQLException | RuntimeException ex) {
+            failureCounter.increment();
+            log.warn("Failed to relay outbox events of {}, retrying on the next sweep: {}", schema, ex.getMessage());
+        }
+    }
+
+    /**
+     * @return number of events published
+     */
+    private int publishBatch(String schema) throws SQLException {
+        List<ChangeEvent> events = new ArrayList<>();
+        Connection conn = connectionProvider.getConnection(schema);
+        try {
+            conn.setAutoCommit(false);
+            try {
+                long offset = lastOffset(schema, conn);
+                try (PreparedStatement ps = conn.prepareStatement(SELECT_UNPUBLISHED)) {
+                    ps.setInt(1, batchSize);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            events.add(new ChangeEvent(++offset, rs.getLong(1), rs.getLong(2),
+                                    ChangeEventType.valueOf(rs.getString(3)), rs.getLong(4), rs.getString(5),
+                                    rs.getTimestamp(6).toLocalDateTime()));
+                        }
+                    }
+                }
+                if (events.isEmpty()) {
+                    conn.commit();
+                    return 0;
+                }
+                try (PreparedStatement ps = conn.prepareStatement(MARK_PUBLISHED)) {
+                    for (ChangeEvent e : events) {
+                        ps.setLong(1, e.offset());
+                        ps.setLong(2, e.id());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                List<ChangeEvent> batch = List.copyOf(events);
+                for (ChangeEventSubscriber subscriber : subscribers) {
+                    subscriber.onEvents(schema, batch);
+                }
+                conn.commit();
+                lastOffsets.put(schema, offset);
+            } catch (SQLException | RuntimeException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            release(schema, conn);
+        }
+        publishedCounter.increment(events.size());
+        stream.publish(schema, events);
+        return events.size();
+    }
+
+    private long lastOffset(String schema, Connection conn) throws SQLException {
+        Long last = lastOffsets.get(schema);
+        if (last != null) {
+            return last;
+        }
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(SELECT_LAST_OFFSET)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void release(String schema, Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            connectionProvider.releaseConnection(schema, conn);
+        } catch (SQLException ex) {
+            log.debug("Failed to release connection of {}: {}", schema, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantRegistry;
+import com.edstruments.multitenantresourcemanagement.entity.OutboxEvent;
+import com.edstruments.multitenantresourcemanagement.entity.Resource;
+import com.edstruments.multitenantresourcemanagement.entity.User;
+import com.edstruments.multitenantresourcemanagement.enums.ChangeEventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes change events to the tenant's outbox table as part of the caller's transaction, so an
+ * event exists if and only if its change was committed. Once the transaction commits the
+ * {@link OutboxRelay} is woken up to publish it.
+ *
+ * Right before the transaction commits its events are stamped with the next value of the
+ * schema's {@code outbox_commit_seq} counter. Updating the counter locks its row until the
+ * commit, so a later value is only handed out after the earlier transaction has committed and
+ * {@code commit_seq} follows the commit order; the relay publishes in that order. The lock is
+ * held only for the commit itself, not for the rest of the transaction.
+ */
+@Slf4j
+@Service
+public class OutboxService {
+
+    private static final String COUNTER_DDL = "CREATE TABLE IF NOT EXISTS public.outbox_commit_seq (" +
+            "id INT PRIMARY KEY, last_seq BIGINT NOT NULL)";
+    private static final String COUNTER_SEED = "INSERT INTO public.outbox_commit_seq (id, last_seq) " +
+            "SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM public.outbox_commit_seq WHERE id = 1)";
+    private static final String NEXT_COMMIT_SEQ = "UPDATE outbox_commit_seq SET last_seq = last_seq + 1 WHERE id = 1";
+    private static final String CURRENT_COMMIT_SEQ = "SELECT last_seq FROM outbox_commit_seq WHERE id = 1";
+    // other transactions' uncommitted events are not visible, so this only stamps our own
+    private static final String STAMP_EVENTS = "UPDATE outbox_events SET commit_seq = ? " +
+            "WHERE stream_offset IS NULL AND commit_seq IS NULL";
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Tenant schemas get the counter from the tenant template; the public schema's is created
+     * here, as its tables come from the JPA mappings.
+     */
+    @PostConstruct
+    void init() {
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+            st.execute(COUNTER_DDL);
+            st.executeUpdate(COUNTER_SEED);
+        } catch (SQLException ex) {
+            log.warn("Failed to create the outbox commit counter: {}", ex.getMessage());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void resourceChanged(ChangeEventType type, Resource r) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", r.getId());
+        payload.put("name", r.getName());
+        payload.put("description", r.getDescription());
+        payload.put("ownerId", r.getOwnerId());
+        record(type, r.getTenantId(), r.getId(), payload);
+    }
+
+    /**
+     * Event of a bulk soft delete, where only the id and owner are loaded.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void resourceDeleted(Long tenantId, Long id, Long ownerId) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", id);
+        payload.put("ownerId", ownerId);
+        record(ChangeEventType.RESOURCE_DELETED, tenantId, id, payload);
+    }
+
+    /**
+     * User events never carry the password hash.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userChanged(ChangeEventType type, User u) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", u.getId());
+        payload.put("username", u.getUsername());
+        payload.put("role", u.getRole());
+        record(type, u.getTenantId(), u.getId(), payload);
+    }
+
+    private void record(ChangeEventType type, Long tenantId, Long aggregateId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException("Failed to serialize " + type + " event", ex);
+        }
+        entityManager.persist(OutboxEvent.builder()
+                .tenantId(tenantId)
+                .eventType(type)
+                .aggregateId(aggregateId)
+                .payload(json)
+                .build());
+        registerCommit();
+    }
+
+    /**
+     * One synchronization per transaction, however many events it records.
+     */
+    private void registerCommit() {
+        String tenant = TenantContext.getCurrentTenant();
+        String schema = tenant != null ? tenant : TenantRegistry.DEFAULT_SCHEMA;
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            if (s instanceof OutboxCommit commit && commit.schema.equals(schema)) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new OutboxCommit(schema));
+    }
+
+    private static void stampEvents(Connection conn) throws SQLException {
+        long commitSeq;
+        try (Statement st = conn.createStatement()) {
+            if (st.executeUpdate(NEXT_COMMIT_SEQ) == 0) {
+                throw new SQLException("outbox_commit_seq has no counter row");
+            }
+            try (ResultSet rs = st.executeQuery(CURRENT_COMMIT_SEQ)) {
+                rs.next();
+                commitSeq = rs.getLong(1);
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(STAMP_EVENTS)) {
+            ps.setLong(1, commitSeq);
+            ps.executeUpdate();
+        }
+    }
+
+    private final class OutboxCommit implements TransactionSynchronization {
+        private final String schema;
+
+        private OutboxCommit(String schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // the events must be inserted before they can be stamped; commit would flush anyway
+            entityManager.flush();
+            entityManager.unwrap(Session.class).doWork(OutboxService::stampEvents);
+        }
+
+        @Override
+        public void afterCommit() {
+            relay.wake(schema);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import com.edstruments.multitenantresourcemanagement.entity.QuotaUsage;
+import com.edstruments.multitenantresourcemanagement.enums.QuotaScope;
+import com.edstruments.multitenantresourcemanagement.repository.QuotaUsageRepository;
+import com.edstruments.multitenantresourcemanagement.repository.ResourceRepository;
+import com.edstruments.multitenantresourcemanagement.repository.UserRepository;
+import com.edstruments.multitenantresourcemanagement.metrics.TenantMeters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Quota engine backed by in-memory usage counters.
+ *
+ * Performance Optimization:
+ * Quota checks are an O(1) compare-and-increment on an atomic counter instead of COUNT
+ * queries per create, and they do no database work: committed changes are added to the
+ * quota_usage table afterwards, every {@code quota.flush-interval-ms}, in one transaction per
+ * counter. Reservations are undone in memory if the caller's transaction rolls back, so
+ * parallel creates in this application instance cannot exceed a limit.
+ *
+ * A counter is loaded from the real count the first time it is used and periodically
+ * reconciled against it to correct drift (rows changed outside the application). The
+ * reconciliation may briefly count a change twice while it commits, but never undercounts.
+ *
+ * The first load runs on the caller's connection, before the caller writes anything, so a
+ * request never needs a second connection from its tenant's share; its quota_usage row is
+ * written by the next flush.
+ */
+@Slf4j
+@Service
+public class QuotaService {
+
+    @Autowired
+    private QuotaUsageRepository quotaUsageRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TenantMeters<Timer> checkTimers;
+
+    private final Map<QuotaKey, UsageCounter> counters = new ConcurrentHashMap<>();
+
+    /** Serialises reconcile and flush; a lock rather than a monitor so virtual threads do not pin their carrier. */
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+
+    /**
+     * Identifies one counter. The schema is part of the key because each tenant schema
+     * holds its own rows.
+     */
+    record QuotaKey(String schema, QuotaScope scope, long tenantId, long ownerId) {
+    }
+
+    @PostConstruct
+    void init() {
+        checkTimers = new TenantMeters<>(tenantId -> Timer.builder("quota.check")
+                .description("Time to reserve quota")
+                .tags("tenant", TenantMeters.tag(tenantId))
+                .register(meterRegistry));
+    }
+
+    @PreDestroy
+    void stop() {
+        flushUsage();
+    }
+
+    private static final class UsageCounter {
+        /** Committed usage plus reservations in flight; what limits are checked against. */
+        final AtomicLong used = new AtomicLong();
+        /** Real count when loaded, plus the corrections made by reconciliation. */
+        final AtomicLong base = new AtomicLong();
+        /** Reservations committed since loading, counted once the database commit is done. */
+        final AtomicLong reserved = new AtomicLong();
+        /** Releases since loading, counted before the database commit and undone on rollback. */
+        final AtomicLong released = new AtomicLong();
+        /** Committed change not yet added to quota_usage. */
+        final AtomicLong unflushed = new AtomicLong();
+        /** Real count when loaded; the quota_usage row is set to it by the first flush. */
+        long loadedCount;
+        /** Whether the quota_usage row still has to be set to {@link #loadedCount}. */
+        volatile boolean rowPending;
+        /** Guards the first load; a lock rather than a monitor so virtual threads do not pin their carrier. */
+        final ReentrantLock loadLock = new ReentrantLock();
+        volatile boolean loaded;
+    }
+
+    /**
+     * Atomically reserves {@code amount} units if the counter stays within {@code limit}.
+     * Must be called inside a transaction; the reservation is released again if it rolls back.
+     *
+     * @return true if the reservation was made, false if it would exceed the limit
+     */
+    public boolean tryAcquire(QuotaScope scope, long tenantId, long ownerId, long limit, long amount) {
+        long start = System.nanoTime();
+        try {
+            return reserve(scope, tenantId, ownerId, limit, amount);
+        } finally {
+            checkTimers.get(tenantId).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean reserve(QuotaScope scope, long tenantId, long ownerId, long limit, long amount) {
+        UsageCounter counter = counter(key(scope, tenantId, ownerId));
+        long current;
+        do {
+            current = counter.used.get();
+            if (current + amount > limit) {
+                return false;
+            }
+        } while (!counter.used.compareAndSet(current, current + amount));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    counter.reserved.addAndGet(amount);
+                    counter.unflushed.addAndGet(amount);
+                } else {
+                    counter.used.addAndGet(-amount);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Gives back {@code amount} units once the surrounding transaction commits.
+     *
+     * A counter that is not loaded yet is left alone: callers release after their delete, so
+     * loading it here would count the delete twice, and it reads the count once it is loaded.
+     */
+    public void release(QuotaScope scope, long tenantId, long ownerId, long amount) {
+        UsageCounter counter = counters.get(key(scope, tenantId, ownerId));
+        if (counter == null || !counter.loaded) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean counted;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                counter.released.addAndGet(amount);
+                counted = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    counter.used.updateAndGet(v -> Math.max(0, v - amount));
+                    counter.unflushed.addAndGet(-amount);
+                } else if (counted) {
+                    counter.released.addAndGet(-amount);
+                }
+            }
+        });
+    }
+
+    /**
+     * Periodically corrects every loaded counter by the difference between the real count and
+     * the committed usage the counter accounts for.
+     *
+     * Committed reservations are read before counting, so the count includes all of them;
+     * releases are read after counting and are recorded before their commit, so they include
+     * all releases in the count. A change committing meanwhile can only make the difference
+     * too high, which the next run corrects.
+     */
+    @Scheduled(fixedDelayString = "${quota.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        maintenanceLock.lock();
+        try {
+            reconcileCounters();
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private void reconcileCounters() {
+        List<QuotaKey> keys = new ArrayList<>(counters.keySet());
+        for (QuotaKey key : keys) {
+            UsageCounter counter = counters.get(key);
+            if (counter == null || !counter.loaded) {
+                continue;
+            }
+            try {
+                long reserved = counter.reserved.get();
+                long actual = inSchema(key, () -> realCount(key));
+                long released = counter.released.get();
+                long drift = actual - (counter.base.get() + reserved - released);
+                if (drift != 0) {
+                    counter.base.addAndGet(drift);
+                    long corrected = counter.used.addAndGet(drift);
+                    counter.unflushed.addAndGet(drift);
+                    log.info("Reconciled quota {} by {} to {}", key, drift, corrected);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Failed to reconcile quota {}: {}", key, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Adds the committed changes of every counter to its quota_usage row. The first flush
+     * after a counter is loaded sets the row to the loaded count plus those changes.
+     */
+    @Scheduled(fixedDelayString = "${quota.flush-interval-ms:1000}")
+    public void flushUsage() {
+        maintenanceLock.lock();
+        try {
+            for (Map.Entry<QuotaKey, UsageCounter> e : counters.entrySet()) {
+                flush(e.getKey(), e.getValue());
+            }
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private void flush(QuotaKey key, UsageCounter counter) {
+        if (!counter.loaded) {
+            return;
+        }
+        boolean reset = counter.rowPending;
+        long delta = counter.unflushed.getAndSet(0);
+        if (delta == 0 && !reset) {
+            return;
+        }
+        try {
+            inSchema(key, () -> {
+                if (reset) {
+                    long used = counter.loadedCount + delta;
+                    if (quotaUsageRepository.setUsage(key.tenantId(), key.scope(), key.ownerId(), used) == 0) {
+                        insertRow(key, used);
+                    }
+                } else if (quotaUsageRepository.addUsage(key.tenantId(), key.scope(), key.ownerId(), delta) == 0) {
+                    // row removed since loading: start it again from the counter
+                    insertRow(key, counter.base.get() + counter.reserved.get() - counter.released.get());
+                }
+                return null;
+            });
+            counter.rowPending = false;
+        } catch (RuntimeException ex) {
+            counter.unflushed.addAndGet(delta);
+            log.warn("Failed to write quota usage {}: {}", key, ex.getMessage());
+        }
+    }
+
+    private UsageCounter counter(QuotaKey key) {
+        UsageCounter counter = counters.computeIfAbsent(key, k -> new UsageCounter());
+        if (!counter.loaded) {
+            counter.loadLock.lock();
+            try {
+                if (!counter.loaded) {
+                    long initial = loadCount(key);
+                    counter.base.set(initial);
+                    counter.used.set(initial);
+                    counter.loadedCount = initial;
+                    counter.rowPending = true;
+                    counter.loaded = true;
+                }
+            } finally {
+                counter.loadLock.unlock();
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Reads the real count on the caller's connection. Callers reserve before they write, so
+     * it sees only committed rows, and it needs no second connection from the tenant's share
+     * while the caller holds one.
+     */
+    private long loadCount(QuotaKey key) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return realCount(key);
+        }
+        return inSchema(key, () -> realCount(key));
+    }
+
+    /**
+     * Runs the work in a new transaction on the key's schema, so it reads what other
+     * transactions committed and not the caller's uncommitted changes.
+     */
+    private <T> T inSchema(QuotaKey key, Supplier<T> work) {
+        String previousTenant = TenantContext.getCurrentTenant();
+        TenantContext.setCurrentTenant(key.schema());
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            return tx.execute(status -> work.get());
+        } finally {
+            TenantContext.setCurrentTenant(previousTenant);
+        }
+    }
+
+    private void insertRow(QuotaKey key, long used) {
+        quotaUsageRepository.save(QuotaUsage.builder()
+                .tenantId(key.tenantId())
+                .scope(key.scope())
+                .ownerId(key.ownerId())
+                .used(used)
+                .build());
+    }
+
+    private long realCount(QuotaKey key) {
+        return switch (key.scope()) {
+            case TENANT_USERS -> userRepository.countByTenantId(key.tenantId());
+            case TENANT_RESOURCES -> resourceRepository.countByTenantId(key.tenantId());
+            case OWNER_RESOURCES -> resourceRepository.countByOwnerIdAndTenantId(key.ownerId(), key.tenantId());
+        };
+    }
+
+    private static QuotaKey key(QuotaScope scope, long tenantId, long ownerId) {
+        String tenant = TenantContext.getCurrentTenant();
+        return new QuotaKey(tenant != null ? tenant : "public", scope, tenantId, ownerId);
+    }
+}
@@ -0,0 +1,141 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.metrics.TenantMeters;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tenant and per-user request rate limits.
+ *
+ * Performance Optimization:
+ * Each bucket is a single {@link AtomicLong} holding the GCRA "theoretical arrival time"
+ * (the token-bucket state expressed as one timestamp), updated with a CAS, so a check
+ * takes no lock and allocates nothing once the bucket exists. Buckets live in bounded
+ * Caffeine caches and are evicted after {@code rate.limit.idle-eviction-seconds} without
+ * requests; an evicted bucket comes back full, which is where an idle bucket is anyway
+ * once the idle time exceeds its refill time. Limits come from the cached
+ * {@link TenantSettings}.
+ */
+@Service
+public class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    @Autowired
+    private TenantSettingsService tenantSettingsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rate.limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate.limit.max-buckets:100000}")
+    private long maxBuckets;
+
+    @Value("${rate.limit.idle-eviction-seconds:300}")
+    private long idleEvictionSeconds;
+
+    /**
+     * Time source of the buckets and of their idle eviction; replaced by tests.
+     */
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Cache<Long, AtomicLong> tenantBuckets;
+    private Cache<UserKey, AtomicLong> userBuckets;
+    private TenantMeters<Counter> rejected;
+
+    record UserKey(long tenantId, long userId) {
+    }
+
+    @PostConstruct
+    void init() {
+        // cache maintenance is cheap here; running it on the calling thread avoids waking a pool thread
+        tenantBuckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofSeconds(idleEvictionSeconds))
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .build();
+        userBuckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofSeconds(idleEvictionSeconds))
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .build();
+        rejected = new TenantMeters<>(tenantId -> Counter.builder("rate.limit.rejected")
+                .description("Requests rejected by the tenant or user rate limit")
+                .tags("tenant", TenantMeters.tag(tenantId))
+                .register(meterRegistry));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes one request from the user's bucket and from the tenant's bucket.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would be allowed
+     */
+    public long tryAcquire(long tenantId, long userId) {
+        TenantSettings settings = tenantSettingsService.get(tenantId);
+        long now = ticker.read();
+
+        long userInterval = interval(settings.userRateLimitPerSecond());
+        AtomicLong userBucket = userBuckets.get(new UserKey(tenantId, userId), k -> new AtomicLong(Long.MIN_VALUE));
+        long wait = acquire(userBucket, now, userInterval, userInterval * settings.userRateLimitCapacity());
+        if (wait > 0) {
+            rejected.get(tenantId).increment();
+            return wait;
+        }
+
+        long tenantInterval = interval(settings.rateLimitPerSecond());
+        AtomicLong tenantBucket = tenantBuckets.get(tenantId, k -> new AtomicLong(Long.MIN_VALUE));
+        wait = acquire(tenantBucket, now, tenantInterval, tenantInterval * settings.rateLimitCapacity());
+        if (wait > 0) {
+            // the request is not served, so it should not count against the user either
+            userBucket.addAndGet(-userInterval);
+            rejected.get(tenantId).increment();
+        }
+        return wait;
+    }
+
+    /**
+     * GCRA: a request is allowed if, after adding one emission interval to the theoretical
+     * arrival time, that time is no more than {@code tolerance} (capacity x interval) ahead
+     * of now. An arrival time further ahead than the current tolerance (left over from a
+     * stricter limit) is cut back to it, so a limit change applies within one interval.
+     */
+    private static long acquire(AtomicLong bucket, long now, long interval, long tolerance) {
+        while (true) {
+            long tat = bucket.get();
+            if (tat > now + tolerance) {
+                bucket.compareAndSet(tat, now + tolerance);
+                continue;
+            }
+            long next = Math.max(tat, now) + interval;
+            long excess = next - now - tolerance;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private static long interval(int perSecond) {
+        return NANOS_PER_SECOND / Math.max(1, perSecond);
+    }
+}
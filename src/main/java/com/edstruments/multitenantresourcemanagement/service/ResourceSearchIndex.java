@@ -0,0 +1,435 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import com.edstruments.multitenantresourcemanagement.dto.ResourceText;
+import com.edstruments.multitenantresourcemanagement.entity.Resource;
+import com.edstruments.multitenantresourcemanagement.enums.SearchMode;
+import com.edstruments.multitenantresourcemanagement.repository.ResourceRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search index over resource names and descriptions, one per tenant.
+ *
+ * Performance Optimization:
+ * A leading-wildcard LIKE cannot use the name index and scans every row of the tenant.
+ * Here each tenant keeps a trigram posting list (substring search) and a sorted word
+ * dictionary (prefix search), so a selective query only touches the documents that
+ * share its rarest trigram or word prefix, independent of the tenant's resource count.
+ *
+ * A tenant's index is built from the database on its first search and kept in sync
+ * after each committed create, update and delete. The indexes share a budget of
+ * {@code search.index.max-bytes} (estimated heap size); least recently used tenants are
+ * evicted beyond it and rebuilt on their next search.
+ */
+@Slf4j
+@Component
+public class ResourceSearchIndex {
+
+    private static final Pattern WORD_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int DOC_BYTES = 96;
+    private static final int POSTING_BYTES = 48;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${search.index.max-bytes:268435456}")
+    private long maxBytes;
+
+    private Cache<IndexKey, TenantIndex> indexes;
+
+    @PostConstruct
+    void init() {
+        indexes = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((IndexKey k, TenantIndex v) -> (int) Math.min(Integer.MAX_VALUE, v.bytes))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "search.index");
+    }
+
+    /**
+     * Identifies one tenant index. The schema is part of the key because each tenant
+     * schema holds its own rows.
+     */
+    record IndexKey(String schema, long tenantId) {
+    }
+
+    private record Doc(String name, String description) {
+        boolean contains(String q) {
+            return name.contains(q) || description.contains(q);
+        }
+    }
+
+    private static final class TenantIndex {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        /** Serialises the initial load; not a monitor, so virtual threads waiting on it do not pin. */
+        final ReentrantLock loadLock = new ReentrantLock();
+        final Map<Long, Doc> docs = new HashMap<>();
+        final Map<String, Set<Long>> trigrams = new HashMap<>();
+        final NavigableMap<String, Set<Long>> words = new TreeMap<>();
+        /** Ids changed while the index was loading; the live change wins over the loaded row. */
+        final Set<Long> touched = new HashSet<>();
+        volatile boolean loaded;
+        /** Rough heap footprint, the index's weight in the cache; changed under the write lock. */
+        volatile long bytes;
+
+        void put(long id, Doc doc) {
+            remove(id);
+            docs.put(id, doc);
+            Set<String> grams = trigramsOf(doc.name() + "\n" + doc.description());
+            for (String gram : grams) {
+                trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+            }
+            Set<String> docWords = wordsOf(doc);
+            for (String word : docWords) {
+                words.computeIfAbsent(word, w -> new HashSet<>()).add(id);
+            }
+            bytes += estimateBytes(doc, grams.size() + docWords.size());
+        }
+
+        void remove(long id) {
+            Doc old = docs.remove(id);
+            if (old == null) {
+                return;
+            }
+            Set<String> grams = trigramsOf(old.name() + "\n" + old.description());
+            for (String gram : grams) {
+                removePosting(trigrams, gram, id);
+            }
+            Set<String> oldWords = wordsOf(old);
+            for (String word : oldWords) {
+                removePosting(words, word, id);
+            }
+            bytes -= estimateBytes(old, grams.size() + oldWords.size());
+        }
+
+        private static long estimateBytes(Doc doc, int postings) {
+            return DOC_BYTES + 2L * (doc.name().length() + doc.description().length())
+                    + (long) POSTING_BYTES * postings;
+        }
+    }
+
+    /**
+     * Returns the ids of the tenant's resources matching {@code query}, best match first
+     * for {@link SearchMode#RANKED} and newest first otherwise.
+     * Must be called with the tenant's schema selected, as the index may be loaded on demand.
+     */
+    public List<Long> search(long tenantId, String query, SearchMode mode, int limit) {
+        String q = normalise(query).trim();
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        TenantIndex index = loadedIndex(key(tenantId), tenantId);
+        index.lock.readLock().lock();
+        try {
+            return switch (mode) {
+                case PREFIX -> newestFirst(prefixMatches(index, q), limit);
+                case SUBSTRING -> newestFirst(substringMatches(index, q), limit);
+                case RANKED -> ranked(index, q, limit);
+            };
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the resource in its tenant's index once the current transaction commits.
+     */
+    public void indexAfterCommit(Resource resource) {
+        IndexKey key = key(resource.getTenantId());
+        long id = resource.getId();
+        Doc doc = new Doc(normalise(resource.getName()), normalise(resource.getDescription()));
+        afterCommit(() -> update(key, id, doc));
+    }
+
+    /**
+     * Removes the resource from its tenant's index once the current transaction commits.
+     */
+    public void removeAfterCommit(long tenantId, long id) {
+        IndexKey key = key(tenantId);
+        afterCommit(() -> update(key, id, null));
+    }
+
+    /**
+     * Bulk variant of {@link #indexAfterCommit}: one synchronization and one lock
+     * acquisition for all resources of the tenant.
+     */
+    public void indexAllAfterCommit(long tenantId, List<Resource> resources) {
+        IndexKey key = key(tenantId);
+        Map<Long, Doc> docs = new LinkedHashMap<>();
+        for (Resource r : resources) {
+            docs.put(r.getId(), new Doc(normalise(r.getName()), normalise(r.getDescription())));
+        }
+        afterCommit(() -> updateAll(key, docs));
+    }
+
+    /**
+     * Bulk variant of {@link #removeAfterCommit}.
+     */
+    public void removeAllAfterCommit(long tenantId, Collection<Long> ids) {
+        IndexKey key = key(tenantId);
+        Map<Long, Doc> removals = new LinkedHashMap<>();
+        for (Long id : ids) {
+            removals.put(id, null);
+        }
+        afterCommit(() -> updateAll(key, removals));
+    }
+
+    /**
+     * Drops every index held for the tenant once the current transaction commits,
+     * e.g. when the tenant is deleted.
+     */
+    public void evictTenant(long tenantId) {
+        afterCommit(() -> indexes.asMap().keySet().removeIf(k -> k.tenantId() == tenantId));
+    }
+
+    private void update(IndexKey key, long id, Doc doc) {
+        Map<Long, Doc> change = new HashMap<>(1);
+        change.put(id, doc);
+        updateAll(key, change);
+    }
+
+    /**
+     * Applies committed changes; a null document removes the id.
+     */
+    private void updateAll(IndexKey key, Map<Long, Doc> changes) {
+        TenantIndex index = indexes.getIfPresent(key);
+        if (index == null) {
+            // not loaded (or evicted); the next search reads the committed state from the database
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            changes.forEach((id, doc) -> {
+                if (!index.loaded) {
+                    index.touched.add(id);
+                }
+                if (doc == null) {
+                    index.remove(id);
+                } else {
+                    index.put(id, doc);
+                }
+            });
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        reweigh(key, index);
+    }
+
+    /**
+     * Updates the cache weight of the index after it grew or shrank; a no-op if it was evicted
+     * meanwhile, so an evicted index is never put back.
+     */
+    private void reweigh(IndexKey key, TenantIndex index) {
+        indexes.asMap().replace(key, index, index);
+    }
+
+    private TenantIndex loadedIndex(IndexKey key, long tenantId) {
+        // an empty index weighs nothing until loaded, so it cannot be evicted while loading
+        TenantIndex index = indexes.get(key, k -> new TenantIndex());
+        if (!index.loaded) {
+            index.loadLock.lock();
+            try {
+                if (!index.loaded) {
+                    long start = System.nanoTime();
+                    List<ResourceText> rows = resourceRepository.findSearchTextByTenantId(tenantId);
+                    index.lock.writeLock().lock();
+                    try {
+                        for (ResourceText row : rows) {
+                            if (!index.touched.contains(row.id())) {
+                                index.put(row.id(), new Doc(normalise(row.name()), normalise(row.description())));
+                            }
+                        }
+                        index.touched.clear();
+                        index.loaded = true;
+                    } finally {
+                        index.lock.writeLock().unlock();
+                    }
+                    reweigh(key, index);
+                    log.info("Built search index for {} with {} resources in {} ms",
+                            key, rows.size(), (System.nanoTime() - start) / 1_000_000);
+                }
+            } finally {
+                index.loadLock.unlock();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Documents in which every query word starts some indexed word.
+     */
+    private static Set<Long> prefixMatches(TenantIndex index, String q) {
+        Set<Long> result = null;
+        for (String term : WORD_SPLIT.split(q)) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Set<Long> posting : index.words.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                ids.addAll(posting);
+            }
+            if (result == null) {
+                result = ids;
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : Set.of();
+    }
+
+    /**
+     * Documents containing {@code q}. Candidates come from intersecting the posting lists
+     * of the query's trigrams, rarest first, and are then verified against the text.
+     * Queries shorter than a trigram have no selective postings and scan the tenant's documents.
+     */
+    private static Set<Long> substringMatches(TenantIndex index, String q) {
+        Set<Long> result = new HashSet<>();
+        if (q.length() < 3) {
+            index.docs.forEach((id, doc) -> {
+                if (doc.contains(q)) {
+                    result.add(id);
+                }
+            });
+            return result;
+        }
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : trigramsOf(q)) {
+            Set<Long> posting = index.trigrams.get(gram);
+            if (posting == null) {
+                return result;
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        candidates:
+        for (Long id : postings.get(0)) {
+            for (int i = 1; i < postings.size(); i++) {
+                if (!postings.get(i).contains(id)) {
+                    continue candidates;
+                }
+            }
+            if (index.docs.get(id).contains(q)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static List<Long> ranked(TenantIndex index, String q, int limit) {
+        List<String> terms = Arrays.stream(WORD_SPLIT.split(q)).filter(t -> !t.isEmpty()).toList();
+        Set<Long> candidates = new HashSet<>();
+        for (String term : terms) {
+            candidates.addAll(prefixMatches(index, term));
+            if (term.length() >= 3) {
+                candidates.addAll(substringMatches(index, term));
+            }
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long id : candidates) {
+            Doc doc = index.docs.get(id);
+            double score = doc.name().startsWith(q) ? 2 : 0;
+            for (String term : terms) {
+                score += termScore(doc.name(), term, 4, 3, 2) + termScore(doc.description(), term, 1.5, 1, 0.5);
+            }
+            scores.put(id, score);
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static double termScore(String text, String term, double word, double prefix, double substring) {
+        if (!text.contains(term)) {
+            return 0;
+        }
+        double best = substring;
+        for (String w : WORD_SPLIT.split(text)) {
+            if (w.equals(term)) {
+                return word;
+            }
+            if (w.startsWith(term)) {
+                best = prefix;
+            }
+        }
+        return best;
+    }
+
+    private static List<Long> newestFirst(Set<Long> ids, int limit) {
+        return ids.stream().sorted(Comparator.reverseOrder()).limit(limit).toList();
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static Set<String> wordsOf(Doc doc) {
+        Set<String> words = new HashSet<>();
+        for (String text : new String[]{doc.name(), doc.description()}) {
+            for (String w : WORD_SPLIT.split(text)) {
+                if (!w.isEmpty()) {
+                    words.add(w);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String token, long id) {
+        Set<Long> ids = postings.get(token);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(token);
+        }
+    }
+
+    private static String normalise(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static IndexKey key(long tenantId) {
+        String tenant = TenantContext.getCurrentTenant();
+        return new IndexKey(tenant != null ? tenant : "public", tenantId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,36 +1,98 @@
 package com.edstruments.multitenantresourcemanagement.service;
 
+import com.edstruments.multitenantresourcemanagement.dto.BatchItemResult;
+import com.edstruments.multitenantresourcemanagement.dto.CursorPage;
+import com.edstruments.multitenantresourcemanagement.dto.KeysetCursor;
 import com.edstruments.multitenantresourcemanagement.entity.Resource;
+import com.edstruments.multitenantresourcemanagement.enums.ChangeEventType;
+import com.edstruments.multitenantresourcemanagement.enums.QuotaScope;
+import com.edstruments.multitenantresourcemanagement.enums.SearchMode;
 import com.edstruments.multitenantresourcemanagement.repository.ResourceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ResourceService {
 
+    /** Ids resolved per query in bulk update/delete, keeps IN lists bounded. */
+    private static final int ID_CHUNK = 1000;
+
     @Autowired
     private ResourceRepository resourceRepository;
 
-    @Value("${quota.max-per-user:10}")
-    private int maxPerUser;
+    @Autowired
+    private QuotaService quotaService;
+
+    @Autowired
+    private TenantSettingsService tenantSettingsService;
 
-    @Value("${quota.max-resources:500}")
-    private int maxPerTenant;
+    @Autowired
+    private ResourceSearchIndex searchIndex;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
 
     @Transactional
     public Resource createResource(Resource resource) {
-        long totalForTenant = resourceRepository.countByTenantId(resource.getTenantId());
-        if (totalForTenant >= maxPerTenant) {
+        TenantSettings settings = tenantSettingsService.get(resource.getTenantId());
+        // reservations are undone by the quota engine if this transaction rolls back
+        if (!quotaService.tryAcquire(QuotaScope.TENANT_RESOURCES, resource.getTenantId(), 0, settings.maxResources(), 1)) {
             throw new RuntimeException("Tenant resource quota exceeded");
         }
-        long userCount = resourceRepository.countByOwnerIdAndTenantId(resource.getOwnerId(), resource.getTenantId());
-        if (userCount >= maxPerUser) {
+        if (!quotaService.tryAcquire(QuotaScope.OWNER_RESOURCES, resource.getTenantId(), resource.getOwnerId(), settings.maxResourcesPerUser(), 1)) {
             throw new RuntimeException("User resource quota exceeded");
         }
-        return resourceRepository.save(resource);
+        Resource saved = resourceRepository.save(resource);
+        searchIndex.indexAfterCommit(saved);
+        outboxService.resourceChanged(ChangeEventType.RESOURCE_CREATED, saved);
+        return saved;
+    }
+
+    /**
+     * Point read by primary key within the tenant. Loaded by id, so it is served from the
+     * tenant's partition of the Hibernate second-level cache when present.
+     */
+    @Transactional(readOnly = true)
+    public Resource getResource(Long id, Long tenantId) {
+        return resourceRepository.findById(id)
+                .filter(r -> tenantId.equals(r.getTenantId()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Resource not found"));
+    }
+
+    /**
+     * Strong ETag derived from the id and last modification time of a resource.
+     */
+    public static String etag(Resource r) {
+        long version = r.getUpdatedAt() == null ? 0
+                : r.getUpdatedAt().toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + r.getUpdatedAt().getNano();
+        return "\"" + r.getId() + "-" + Long.toHexString(version) + "\"";
     }
 
     @Transactional
@@ -39,7 +101,10 @@ public class ResourceService {
                 .orElseThrow(() -> new RuntimeException("Resource not found"));
         r.setName(payload.getName());
         r.setDescription(payload.getDescription());
-        return resourceRepository.save(r);
+        Resource saved = resourceRepository.save(r);
+        searchIndex.indexAfterCommit(saved);
+        outboxService.resourceChanged(ChangeEventType.RESOURCE_UPDATED, saved);
+        return saved;
     }
 
     @Transactional
@@ -47,8 +112,13 @@ public class ResourceService {
         Resource r = resourceRepository.findByIdAndTenantId(id, tenantId)
                 .orElseThrow(() -> new RuntimeException("Resource not found"));
         resourceRepository.deleteById(id); // will perform soft-delete via @SQLDelete
+        searchIndex.removeAfterCommit(tenantId, id);
+        outboxService.resourceChanged(ChangeEventType.RESOURCE_DELETED, r);
+        quotaService.release(QuotaScope.TENANT_RESOURCES, tenantId, 0, 1);
+        quotaService.release(QuotaScope.OWNER_RESOURCES, tenantId, r.getOwnerId(), 1);
     }
 
+    @Transactional(readOnly = true)
     public Page<Resource> listResources(Long tenantId, String name, Long ownerId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         if (name != null && ownerId != null) {
@@ -61,4 +131,232 @@ public class ResourceService {
             return resourceRepository.findByTenantId(tenantId, pageable);
         }
     }
+
+    /**
+     * Keyset pagination over a tenant's resources, newest first. Pass the previous page's
+     * nextCursor to continue; no COUNT query is issued.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Resource> scrollResources(Long tenantId, Long ownerId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<Resource> rows = after == null
+                ? resourceRepository.scrollFirst(tenantId, ownerId, limit)
+                : resourceRepository.scrollAfter(tenantId, ownerId, after.timestamp(), after.id(), limit);
+        return CursorPage.of(rows, size, r -> new KeysetCursor(r.getCreatedAt(), r.getId()));
+    }
+
+    /**
+     * Searches resource names and descriptions through the per-tenant search index,
+     * then loads the matching rows by primary key: from the second-level cache where
+     * present, the rest in one query.
+     */
+    @Transactional(readOnly = true)
+    public List<Resource> searchResources(Long tenantId, String query, SearchMode mode, int limit) {
+        List<Long> ids = searchIndex.search(tenantId, query, mode, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Resource> byId = entityManager.unwrap(Session.class).byMultipleIds(Resource.class)
+                .multiLoad(ids).stream()
+                .filter(r -> r != null && tenantId.equals(r.getTenantId()))
+                .collect(Collectors.toMap(Resource::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(r -> r != null).toList();
+    }
+
+    /**
+     * Bulk create.
+     *
+     * Performance Optimization:
+     * Quotas are reserved once per owner and once for the tenant instead of per item, rows
+     * are inserted as JDBC batches (pooled sequence ids) and the persistence context is
+     * flushed and cleared every batch so memory stays flat for large imports. Imported rows
+     * are not put into the second-level cache, so an import does not push the tenant's
+     * recently read resources out of its cache partition.
+     *
+     * Items that fail validation or exceed their owner's quota are reported individually;
+     * if the accepted items exceed the tenant quota the whole batch is rejected.
+     */
+    @Transactional
+    public List<BatchItemResult> createResources(Long tenantId, List<Resource> items) {
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        Map<Long, List<Integer>> byOwner = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            Resource r = items.get(i);
+            if (r == null || r.getName() == null || r.getName().isBlank()) {
+                results[i] = BatchItemResult.failed(i, null, "Resource name is required");
+            } else if (r.getOwnerId() == null) {
+                results[i] = BatchItemResult.failed(i, null, "Owner ID is required");
+            } else if (r.getTenantId() != null && !r.getTenantId().equals(tenantId)) {
+                results[i] = BatchItemResult.failed(i, null, "Tenant mismatch");
+            } else {
+                byOwner.computeIfAbsent(r.getOwnerId(), o -> new ArrayList<>()).add(i);
+            }
+        }
+
+        TenantSettings settings = tenantSettingsService.get(tenantId);
+        List<Integer> accepted = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> e : byOwner.entrySet()) {
+            List<Integer> indexes = e.getValue();
+            if (quotaService.tryAcquire(QuotaScope.OWNER_RESOURCES, tenantId, e.getKey(), settings.maxResourcesPerUser(), indexes.size())) {
+                accepted.addAll(indexes);
+            } else {
+                indexes.forEach(i -> results[i] = BatchItemResult.failed(i, null, "User resource quota exceeded"));
+            }
+        }
+        if (!accepted.isEmpty()
+                && !quotaService.tryAcquire(QuotaScope.TENANT_RESOURCES, tenantId, 0, settings.maxResources(), accepted.size())) {
+            throw new RuntimeException("Tenant resource quota exceeded");
+        }
+
+        Collections.sort(accepted);
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        List<Resource> saved = new ArrayList<>(accepted.size());
+        for (int i : accepted) {
+            Resource r = items.get(i);
+            r.setId(null);
+            r.setTenantId(tenantId);
+            r.setDeleted(false);
+            r.setDeletedAt(null);
+            entityManager.persist(r);
+            outboxService.resourceChanged(ChangeEventType.RESOURCE_CREATED, r);
+            saved.add(r);
+            if (saved.size() % jdbcBatchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        for (int k = 0; k < accepted.size(); k++) {
+            int i = accepted.get(k);
+            results[i] = BatchItemResult.ok(i, saved.get(k).getId());
+        }
+        searchIndex.indexAllAfterCommit(tenantId, saved);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Bulk update of name and description. Rows are loaded one chunk of ids per query and
+     * written back as batched UPDATE statements on flush.
+     */
+    @Transactional
+    public List<BatchItemResult> updateResources(Long tenantId, List<Resource> items) {
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        List<Resource> updated = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += ID_CHUNK) {
+            int to = Math.min(items.size(), from + ID_CHUNK);
+            Set<Long> ids = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                Resource p = items.get(i);
+                if (p != null && p.getId() != null) {
+                    ids.add(p.getId());
+                }
+            }
+            Map<Long, Resource> existing = new HashMap<>();
+            if (!ids.isEmpty()) {
+                resourceRepository.findByTenantIdAndIdIn(tenantId, ids).forEach(r -> existing.put(r.getId(), r));
+            }
+            for (int i = from; i < to; i++) {
+                Resource p = items.get(i);
+                Long id = p != null ? p.getId() : null;
+                Resource r = id != null ? existing.get(id) : null;
+                if (id == null) {
+                    results[i] = BatchItemResult.failed(i, null, "Resource id is required");
+                } else if (p.getName() == null || p.getName().isBlank()) {
+                    results[i] = BatchItemResult.failed(i, id, "Resource name is required");
+                } else if (r == null) {
+                    results[i] = BatchItemResult.failed(i, id, "Resource not found");
+                } else {
+                    r.setName(p.getName());
+                    r.setDescription(p.getDescription());
+                    outboxService.resourceChanged(ChangeEventType.RESOURCE_UPDATED, r);
+                    results[i] = BatchItemResult.ok(i, id);
+                }
+            }
+            entityManager.flush();
+            updated.addAll(existing.values());
+            entityManager.clear();
+        }
+        searchIndex.indexAllAfterCommit(tenantId, updated);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Bulk soft delete: one UPDATE statement per chunk of ids, quotas released per owner.
+     */
+    @Transactional
+    public List<BatchItemResult> deleteResources(Long tenantId, List<Long> ids) {
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        Map<Long, Long> deletedPerOwner = new HashMap<>();
+        Set<Long> deleted = new LinkedHashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            int to = Math.min(ids.size(), from + ID_CHUNK);
+            Set<Long> chunk = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                if (ids.get(i) != null) {
+                    chunk.add(ids.get(i));
+                }
+            }
+            Map<Long, Long> ownerById = new HashMap<>();
+            if (!chunk.isEmpty()) {
+                for (Resource r : resourceRepository.findByTenantIdAndIdIn(tenantId, chunk)) {
+                    if (deleted.add(r.getId())) {
+                        ownerById.put(r.getId(), r.getOwnerId());
+                        deletedPerOwner.merge(r.getOwnerId(), 1L, Long::sum);
+                    }
+                }
+            }
+            if (!ownerById.isEmpty()) {
+                resourceRepository.softDeleteByTenantIdAndIdIn(tenantId, ownerById.keySet(), now);
+                evictSecondLevel(ownerById.keySet());
+                ownerById.forEach((id, owner) -> outboxService.resourceDeleted(tenantId, id, owner));
+            }
+            for (int i = from; i < to; i++) {
+                Long id = ids.get(i);
+                results[i] = id != null && deleted.contains(id)
+                        ? BatchItemResult.ok(i, id)
+                        : BatchItemResult.failed(i, id, "Resource not found");
+            }
+            // writes the chunk's outbox events before they are detached
+            entityManager.flush();
+            entityManager.clear();
+        }
+        if (!deleted.isEmpty()) {
+            quotaService.release(QuotaScope.TENANT_RESOURCES, tenantId, 0, deleted.size());
+            deletedPerOwner.forEach((owner, count) ->
+                    quotaService.release(QuotaScope.OWNER_RESOURCES, tenantId, owner, count));
+        }
+        searchIndex.removeAllAfterCommit(tenantId, deleted);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Evicts soft-deleted resources of the current tenant from the Hibernate second-level
+     * cache, now and again after commit so a concurrent load cannot re-cache the old row.
+     * Needed because the bulk soft delete bypasses Hibernate's entity delete.
+     */
+    private void evictSecondLevel(Collection<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(Resource.class);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        if (access == null) {
+            return;
+        }
+        List<Object> keys = ids.stream()
+                .map(id -> access.generateCacheKey(id, persister, factory, session.getTenantIdentifier()))
+                .toList();
+        keys.forEach(access::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.forEach(access::evict);
+                }
+            });
+        }
+    }
 }
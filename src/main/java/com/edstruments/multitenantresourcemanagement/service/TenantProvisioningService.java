@@ -0,0 +1,365 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.SchemaBasedMultiTenantConnectionProvider;
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantRegistry;
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantSchemaTemplate;
+import com.edstruments.multitenantresourcemanagement.dto.TenantProvisioningReport;
+import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.repository.TenantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Tenant onboarding: creates the tenant row (inactive), its schema from the
+ * {@link TenantSchemaTemplate}, warms the tenant's settings cache and pooled connections, and
+ * only then activates the tenant. A failed step removes the row again, and the schema if it
+ * was created here. Reserved schema names and schemas that already exist are rejected with
+ * {@code 409 Conflict} rather than adopted, so a tenant can never be pointed at another
+ * tenant's or the system's tables.
+ *
+ * Performance Optimization:
+ * Bulk onboarding runs on a bounded pool of {@code tenant.provisioning.threads} workers; when
+ * the queue is full the submitting thread provisions the tenant itself, which throttles the
+ * submitter instead of failing. The first requests of a new tenant find its settings cached
+ * and pooled connections already switched to its schema. Per-tenant time is recorded in the
+ * {@code tenant.provisioning} timer.
+ */
+@Slf4j
+@Service
+public class TenantProvisioningService {
+
+    private static final Pattern SCHEMA_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9_]{0,62}");
+    private static final Set<String> RESERVED_SCHEMAS = Set.of("PUBLIC", "INFORMATION_SCHEMA");
+    private static final String[] WARM_UP_QUERIES = {
+            "SELECT COUNT(*) FROM users WHERE 1 = 0",
+            "SELECT COUNT(*) FROM resources WHERE 1 = 0",
+            "SELECT COUNT(*) FROM quota_usage WHERE 1 = 0"
+    };
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private TenantSchemaTemplate schemaTemplate;
+
+    @Autowired
+    private SchemaBasedMultiTenantConnectionProvider connectionProvider;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TenantSettingsService tenantSettingsService;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskDecorator taskDecorator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tenant.provisioning.threads:4}")
+    private int threads;
+
+    @Value("${tenant.provisioning.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${tenant.provisioning.warm-connections:2}")
+    private int warmConnections;
+
+    @Value("${tenant.provisioning.upgrade-on-startup:true}")
+    private boolean upgradeOnStartup;
+
+    /**
+     * H2 takes an exclusive lock on its catalog for each DDL statement, and concurrent DDL from
+     * other sessions times out waiting for it. Schema creation is therefore serialized; saving
+     * the row, warming up and activating still run in parallel.
+     */
+    private final ReentrantLock ddlLock = new ReentrantLock();
+
+    private ThreadPoolExecutor executor;
+    private Timer provisionTimer;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "tenant-provisioning-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        Gauge.builder("tenant.provisioning.queue.depth", executor, e -> e.getQueue().size())
+                .description("Tenants waiting to be provisioned")
+                .register(meterRegistry);
+        provisionTimer = Timer.builder("tenant.provisioning")
+                .description("Time to create, template, warm and activate one tenant")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        failedCounter = meterRegistry.counter("tenant.provisioning.failed");
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Brings the schemas of existing tenants to the latest template version.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void upgradeExistingSchemas() {
+        if (!upgradeOnStartup) {
+            return;
+        }
+        List<CompletableFuture<Void>> upgrades = new ArrayList<>();
+        for (Tenant tenant : tenantRepository.findAll()) {
+            upgrades.add(CompletableFuture.runAsync(() -> {
+                ddlLock.lock();
+                try {
+                    applyTemplate(tenant.getSchemaName());
+                } catch (SQLException ex) {
+                    log.error("Failed to upgrade schema {} of tenant {}: {}",
+                            tenant.getSchemaName(), tenant.getId(), ex.getMessage());
+                } finally {
+                    ddlLock.unlock();
+                }
+            }, task -> executor.execute(taskDecorator.decorate(task))));
+        }
+        CompletableFuture.allOf(upgrades.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Provisions one tenant on the calling thread and returns it, activated unless it was
+     * submitted with {@code isActive = false}.
+     */
+    public Tenant provision(Tenant tenant) {
+        long start = System.nanoTime();
+        try {
+            return doProvision(tenant);
+        } catch (RuntimeException ex) {
+            failedCounter.increment();
+            throw ex;
+        } finally {
+            provisionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Provisions the tenants in parallel and waits for all of them. A failing tenant does not
+     * affect the others.
+     */
+    public TenantProvisioningReport provisionAll(List<Tenant> tenants) {
+        long start = System.nanoTime();
+        List<CompletableFuture<TenantProvisioningReport.Item>> futures = new ArrayList<>(tenants.size());
+        for (int i = 0; i < tenants.size(); i++) {
+            int index = i;
+            Tenant tenant = tenants.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> provisionItem(index, tenant),
+                    task -> executor.execute(taskDecorator.decorate(task))));
+        }
+        List<TenantProvisioningReport.Item> items = futures.stream().map(CompletableFuture::join).toList();
+        TenantProvisioningReport report = TenantProvisioningReport.of(items, System.nanoTime() - start);
+        log.info("Provisioned {} of {} tenants in {} ms ({} tenants/s)", report.succeeded(), items.size(),
+                report.totalMillis(), String.format("%.1f", report.tenantsPerSecond()));
+        return report;
+    }
+
+    private TenantProvisioningReport.Item provisionItem(int index, Tenant tenant) {
+        long start = System.nanoTime();
+        try {
+            Tenant saved = provision(tenant);
+            return new TenantProvisioningReport.Item(index, saved.getId(), saved.getSchemaName(), true,
+                    elapsedMillis(start), null);
+        } catch (RuntimeException ex) {
+            String error = ex instanceof ResponseStatusException rse ? rse.getReason() : ex.getMessage();
+            return new TenantProvisioningReport.Item(index, null, tenant.getSchemaName(), false,
+                    elapsedMillis(start), error);
+        }
+    }
+
+    private Tenant doProvision(Tenant tenant) {
+        String schema = tenant.getSchemaName();
+        if (schema == null || !SCHEMA_NAME.matcher(schema).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid schema name: " + schema);
+        }
+        if (isReserved(schema)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Reserved schema name: " + schema);
+        }
+        boolean activate = !Boolean.FALSE.equals(tenant.getIsActive());
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        tenant.setIsActive(false);
+        Tenant saved = tx.execute(status -> tenantRepository.save(tenant));
+        long id = saved.getId();
+        boolean schemaCreated = false;
+        try {
+            ddlLock.lock();
+            try {
+                createSchema(schema);
+                schemaCreated = true;
+                applyTemplate(schema);
+            } finally {
+                ddlLock.unlock();
+            }
+            warmUp(id, schema);
+            if (activate) {
+                saved = tx.execute(status -> {
+                    Tenant t = tenantRepository.findById(id).orElseThrow();
+                    t.setIsActive(true);
+                    return tenantRepository.save(t);
+                });
+            }
+            // reload with the final active flag
+            tenantSettingsService.evict(id);
+            tenantSettingsService.get(id);
+            tenantRegistry.refresh();
+            return saved;
+        } catch (SQLException | RuntimeException ex) {
+            rollBack(id, schema, schemaCreated);
+            if (ex instanceof ResponseStatusException rse) {
+                throw rse;
+            }
+            throw new RuntimeException("Failed to provision tenant schema " + schema + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * The default schema, the catalog and the {@code pg_} system schemas of PostgreSQL.
+     */
+    private static boolean isReserved(String schema) {
+        String name = schema.toUpperCase(Locale.ROOT);
+        return RESERVED_SCHEMAS.contains(name) || name.startsWith("PG_");
+    }
+
+    /**
+     * Creates the schema; an existing schema is never adopted. Called with {@code ddlLock} held,
+     * so the existence check and the create cannot interleave with another provisioning.
+     */
+    private void createSchema(String schema) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SCHEMATA WHERE UPPER(SCHEMA_NAME) = UPPER(?)")) {
+                ps.setString(1, schema);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    if (rs.getInt(1) > 0) {
+                        throw new ResponseStatusException(HttpStatus.CONFLICT, "Schema already exists: " + schema);
+                    }
+                }
+            }
+            try (Statement st = conn.createStatement()) {
+                st.execute(String.format("CREATE SCHEMA %s", schema));
+            }
+        }
+    }
+
+    private void applyTemplate(String schema) throws SQLException {
+        Connection conn = connectionProvider.getConnection(schema);
+        try {
+            int previous = schemaTemplate.apply(conn);
+            if (previous < schemaTemplate.latestVersion()) {
+                log.info("Schema {} upgraded from template version {} to {}",
+                        schema, previous, schemaTemplate.latestVersion());
+            }
+        } finally {
+            connectionProvider.releaseConnection(schema, conn);
+        }
+    }
+
+    /**
+     * Loads the tenant's settings and borrows {@code warm-connections} connections at once, so
+     * that many pooled connections are already switched to the schema and have parsed the
+     * tenant's tables.
+     */
+    private void warmUp(long tenantId, String schema) throws SQLException {
+        tenantSettingsService.get(tenantId);
+        List<Connection> borrowed = new ArrayList<>(warmConnections);
+        try {
+            for (int i = 0; i < warmConnections; i++) {
+                Connection conn = connectionProvider.getConnection(schema);
+                borrowed.add(conn);
+                try (Statement st = conn.createStatement()) {
+                    for (String sql : WARM_UP_QUERIES) {
+                        st.executeQuery(sql).close();
+                    }
+                }
+            }
+        } finally {
+            for (Connection conn : borrowed) {
+                connectionProvider.releaseConnection(schema, conn);
+            }
+        }
+    }
+
+    /**
+     * Drops a tenant schema with everything in it, serialized with schema creation.
+     */
+    public void dropSchema(String schema) throws SQLException {
+        ddlLock.lock();
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+            st.execute(String.format("DROP SCHEMA IF EXISTS %s CASCADE", schema));
+        } finally {
+            ddlLock.unlock();
+        }
+    }
+
+    private void rollBack(Long tenantId, String schema, boolean dropSchema) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    tenantRepository.deleteById(tenantId));
+            tenantSettingsService.evict(tenantId);
+            tenantRegistry.refresh();
+            if (dropSchema) {
+                dropSchema(schema);
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.error("Failed to roll back provisioning of tenant {} ({}): {}", tenantId, schema, ex.getMessage());
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -1,14 +1,17 @@
 package com.edstruments.multitenantresourcemanagement.service;
 
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantRegistry;
+import com.edstruments.multitenantresourcemanagement.dto.TenantProvisioningReport;
 import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.entity.TenantDeletionJob;
 import com.edstruments.multitenantresourcemanagement.repository.TenantRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.SQLException;
+import java.util.List;
 
 @Service
 public class TenantService {
@@ -17,38 +20,69 @@ public class TenantService {
     private TenantRepository tenantRepository;
 
     @Autowired
-    private DataSource dataSource;
+    private TenantSettingsService tenantSettingsService;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private TenantProvisioningService tenantProvisioningService;
+
+    @Autowired
+    private TenantDeletionService tenantDeletionService;
+
 
     /**
-     * Create tenant record and create schema in DB.
+     * Create tenant record and its schema from the tenant schema template, see
+     * {@link TenantProvisioningService}. The tenant is only active once its schema is ready.
      */
-    @Transactional
     public Tenant createTenant(Tenant tenant) {
         // ensure uniqueness checks handled by controller or repository constraints
-        Tenant saved = tenantRepository.save(tenant);
-        // create schema in DB
-        try (Connection conn = dataSource.getConnection()) {
-            String schema = tenant.getSchemaName();
-            conn.createStatement().execute(String.format("CREATE SCHEMA IF NOT EXISTS %s", schema));
-        } catch (SQLException ex) {
-            throw new RuntimeException("Failed to create tenant schema: " + ex.getMessage(), ex);
-        }
-        return saved;
+        return tenantProvisioningService.provision(tenant);
     }
 
     /**
-     * Delete tenant record and drop schema (cascade).
+     * Create many tenants in parallel; per-tenant results and throughput are reported.
+     */
+    public TenantProvisioningReport createTenants(List<Tenant> tenants) {
+        return tenantProvisioningService.provisionAll(tenants);
+    }
+
+    /**
+     * Update tenant quotas, rate limits and active flag. Fields left null in the payload are unchanged.
      */
     @Transactional
-    public void deleteTenant(Long id) {
+    public Tenant updateTenant(Long id, Tenant payload) {
         Tenant t = tenantRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tenant not found"));
-        String schema = t.getSchemaName();
-        tenantRepository.deleteById(id);
-        try (Connection conn = dataSource.getConnection()) {
-            conn.createStatement().execute(String.format("DROP SCHEMA IF EXISTS %s CASCADE", schema));
-        } catch (SQLException ex) {
-            throw new RuntimeException("Failed to drop tenant schema: " + ex.getMessage(), ex);
+        if (payload.getMaxUsers() != null) t.setMaxUsers(payload.getMaxUsers());
+        if (payload.getMaxResources() != null) t.setMaxResources(payload.getMaxResources());
+        if (payload.getMaxResourcesPerUser() != null) t.setMaxResourcesPerUser(payload.getMaxResourcesPerUser());
+        if (payload.getRateLimitCapacity() != null) t.setRateLimitCapacity(payload.getRateLimitCapacity());
+        if (payload.getRateLimitPerSecond() != null) t.setRateLimitPerSecond(payload.getRateLimitPerSecond());
+        if (payload.getUserRateLimitCapacity() != null) t.setUserRateLimitCapacity(payload.getUserRateLimitCapacity());
+        if (payload.getUserRateLimitPerSecond() != null) t.setUserRateLimitPerSecond(payload.getUserRateLimitPerSecond());
+        if (payload.getIsActive() != null) {
+            if (payload.getIsActive() && tenantDeletionService.isDeleting(t.getSchemaName())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Tenant is being deleted");
+            }
+            t.setIsActive(payload.getIsActive());
         }
+        Tenant saved = tenantRepository.save(t);
+        tenantSettingsService.evict(id);
+        tenantRegistry.refreshAfterCommit();
+        return saved;
+    }
+
+    /**
+     * Deactivate the tenant and delete it with its schema in the background, see
+     * {@link TenantDeletionService}. Returns the job to poll for progress.
+     */
+    public TenantDeletionJob deleteTenant(Long id) {
+        return tenantDeletionService.delete(id);
+    }
+
+    public TenantDeletionJob getDeletionJob(Long jobId) {
+        return tenantDeletionService.getJob(jobId);
     }
 }
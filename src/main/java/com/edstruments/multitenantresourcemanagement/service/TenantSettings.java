@@ -0,0 +1,17 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+/**
+ * Effective per-tenant settings: the tenant's own quota and rate-limit columns with the
+ * global {@code quota.*} and {@code rate.limit.*} defaults filled in where a column is not set.
+ */
+public record TenantSettings(long tenantId,
+                             String schemaName,
+                             boolean active,
+                             int maxUsers,
+                             int maxResources,
+                             int maxResourcesPerUser,
+                             int rateLimitCapacity,
+                             int rateLimitPerSecond,
+                             int userRateLimitCapacity,
+                             int userRateLimitPerSecond) {
+}
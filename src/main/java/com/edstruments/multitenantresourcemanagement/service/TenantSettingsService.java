@@ -0,0 +1,119 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.repository.TenantRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Cached lookup of per-tenant settings used by the quota checks and the rate limiter.
+ *
+ * Performance Optimization:
+ * Settings are loaded from the tenants table (public schema) once and refreshed ahead
+ * of expiry in the background, so writes do not pay a tenants lookup. Entries are
+ * evicted when a tenant is updated or deleted. Hit ratio and load latency are exported
+ * under the {@code cache.*} metrics with {@code cache=tenantSettings}.
+ */
+@Service
+public class TenantSettingsService {
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${quota.max-users:50}")
+    private int defaultMaxUsers;
+
+    @Value("${quota.max-resources:500}")
+    private int defaultMaxResources;
+
+    @Value("${quota.max-per-user:10}")
+    private int defaultMaxPerUser;
+
+    @Value("${rate.limit.capacity:100}")
+    private int defaultRateCapacity;
+
+    @Value("${rate.limit.refill-per-second:100}")
+    private int defaultRatePerSecond;
+
+    @Value("${rate.limit.user-capacity:50}")
+    private int defaultUserRateCapacity;
+
+    @Value("${rate.limit.user-refill-per-second:25}")
+    private int defaultUserRatePerSecond;
+
+    @Value("${tenant.settings.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${tenant.settings.cache.refresh-after-seconds:60}")
+    private long refreshAfterSeconds;
+
+    @Value("${tenant.settings.cache.expire-after-seconds:300}")
+    private long expireAfterSeconds;
+
+    private LoadingCache<Long, TenantSettings> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds))
+                .expireAfterWrite(Duration.ofSeconds(expireAfterSeconds))
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tenantSettings");
+    }
+
+    public TenantSettings get(long tenantId) {
+        return cache.get(tenantId);
+    }
+
+    /**
+     * Evicts the tenant once the current transaction commits (immediately if there is none),
+     * so a concurrent reload cannot pick up the pre-commit row.
+     */
+    public void evict(long tenantId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(tenantId);
+                }
+            });
+        } else {
+            cache.invalidate(tenantId);
+        }
+    }
+
+    private TenantSettings load(Long tenantId) {
+        // tenants without a row (or with unset columns) fall back to the global quotas
+        Tenant t = tenantRepository.findById(tenantId).orElse(null);
+        if (t == null) {
+            return new TenantSettings(tenantId, null, true, defaultMaxUsers, defaultMaxResources, defaultMaxPerUser,
+                    defaultRateCapacity, defaultRatePerSecond, defaultUserRateCapacity, defaultUserRatePerSecond);
+        }
+        return new TenantSettings(
+                tenantId,
+                t.getSchemaName(),
+                !Boolean.FALSE.equals(t.getIsActive()),
+                t.getMaxUsers() != null ? t.getMaxUsers() : defaultMaxUsers,
+                t.getMaxResources() != null ? t.getMaxResources() : defaultMaxResources,
+                t.getMaxResourcesPerUser() != null ? t.getMaxResourcesPerUser() : defaultMaxPerUser,
+                t.getRateLimitCapacity() != null ? t.getRateLimitCapacity() : defaultRateCapacity,
+                t.getRateLimitPerSecond() != null ? t.getRateLimitPerSecond() : defaultRatePerSecond,
+                t.getUserRateLimitCapacity() != null ? t.getUserRateLimitCapacity() : defaultUserRateCapacity,
+                t.getUserRateLimitPerSecond() != null ? t.getUserRateLimitPerSecond() : defaultUserRatePerSecond);
+    }
+}
@@ -0,0 +1,13 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.entity.User;
+
+/**
+ * The part of a user needed to authenticate a login.
+ */
+public record UserCredential(long userId, String username, String passwordHash, String role) {
+
+    public static UserCredential of(User user) {
+        return new UserCredential(user.getId(), user.getUsername(), user.getPassword(), user.getRole().name());
+    }
+}
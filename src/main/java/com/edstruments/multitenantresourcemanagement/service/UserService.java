@@ -1,9 +1,10 @@
 package com.edstruments.multitenantresourcemanagement.service;
 
 import com.edstruments.multitenantresourcemanagement.entity.User;
+import com.edstruments.multitenantresourcemanagement.enums.ChangeEventType;
+import com.edstruments.multitenantresourcemanagement.enums.QuotaScope;
 import com.edstruments.multitenantresourcemanagement.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,17 +18,28 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    @Value("${quota.max-users:50}")
-    private int defaultMaxUsers;
+    @Autowired
+    private QuotaService quotaService;
+
+    @Autowired
+    private TenantSettingsService tenantSettingsService;
+
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private OutboxService outboxService;
 
     @Transactional
     public User createUser(User user) {
-        long current = userRepository.countByTenantId(user.getTenantId());
-        if (current >= defaultMaxUsers) {
+        if (!quotaService.tryAcquire(QuotaScope.TENANT_USERS, user.getTenantId(), 0,
+                tenantSettingsService.get(user.getTenantId()).maxUsers(), 1)) {
             throw new RuntimeException("Tenant user quota exceeded");
         }
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        outboxService.userChanged(ChangeEventType.USER_CREATED, saved);
+        return saved;
     }
 
     @Transactional
@@ -36,5 +48,22 @@ public class UserService {
         if (!u.getTenantId().equals(tenantId)) throw new RuntimeException("Unauthorized tenant access");
         // soft delete flag is implemented via @SQLDelete in entity
         userRepository.deleteById(userId);
+        quotaService.release(QuotaScope.TENANT_USERS, tenantId, 0, 1);
+        credentialCache.evict(u.getUsername(), tenantId);
+        outboxService.userChanged(ChangeEventType.USER_DELETED, u);
+    }
+
+    /**
+     * Replaces a password hash with one of the currently configured cost, unless the
+     * password was changed in the meantime.
+     */
+    @Transactional
+    public void updatePasswordHash(Long userId, Long tenantId, String expectedHash, String newHash) {
+        User u = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        if (!u.getTenantId().equals(tenantId) || !u.getPassword().equals(expectedHash)) {
+            return;
+        }
+        u.setPassword(newHash);
+        credentialCache.evict(u.getUsername(), tenantId);
     }
 }
@@ -0,0 +1,64 @@
+-- Tables of a tenant schema, matching the JPA mappings (tenants stays in the public schema).
+-- Applied by TenantSchemaTemplate to the new tenant's schema; statements are separated by ';'.
+-- Enum columns are plain varchar so new enum constants need no migration.
+
+CREATE SEQUENCE IF NOT EXISTS resources_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(50) NOT NULL,
+    tenant_id BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    deleted_at TIMESTAMP(6),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    UNIQUE (username, tenant_id)
+);
+CREATE INDEX IF NOT EXISTS idx_user_tenant ON users (tenant_id);
+CREATE INDEX IF NOT EXISTS idx_user_username ON users (username);
+CREATE INDEX IF NOT EXISTS idx_user_deleted ON users (deleted);
+
+CREATE TABLE IF NOT EXISTS resources (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    owner_id BIGINT NOT NULL,
+    tenant_id BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    deleted_at TIMESTAMP(6),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+CREATE INDEX IF NOT EXISTS idx_resource_tenant ON resources (tenant_id);
+CREATE INDEX IF NOT EXISTS idx_resource_owner ON resources (owner_id);
+CREATE INDEX IF NOT EXISTS idx_resource_name ON resources (name);
+CREATE INDEX IF NOT EXISTS idx_resource_deleted ON resources (deleted);
+CREATE INDEX IF NOT EXISTS idx_resource_tenant_deleted ON resources (tenant_id, deleted);
+CREATE INDEX IF NOT EXISTS idx_resource_tenant_created ON resources (tenant_id, created_at DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS quota_usage (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tenant_id BIGINT NOT NULL,
+    scope VARCHAR(50) NOT NULL,
+    owner_id BIGINT NOT NULL,
+    used BIGINT NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_quota_usage UNIQUE (tenant_id, scope, owner_id)
+);
+
+-- rows live in the monthly partitions created by AuditLogPartitions; the table backs the mapping
+CREATE TABLE IF NOT EXISTS audit_logs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    tenant_id BIGINT NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50),
+    entity_id BIGINT,
+    details VARCHAR(2000),
+    timestamp TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_audit_tenant_ts ON audit_logs (tenant_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_tenant_user_ts ON audit_logs (tenant_id, user_id, timestamp);
+CREATE INDEX IF NOT EXISTS idx_audit_tenant_action_ts ON audit_logs (tenant_id, action, timestamp);
@@ -0,0 +1,15 @@
+-- Transactional outbox: change events written in the same transaction as the change and
+-- relayed to subscribers by OutboxRelay, which numbers them (stream_offset) as it publishes.
+
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT NOT NULL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload VARCHAR(4000),
+    stream_offset BIGINT,
+    created_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_outbox_offset ON outbox_events (stream_offset, id);
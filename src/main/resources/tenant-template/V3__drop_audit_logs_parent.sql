@@ -0,0 +1,5 @@
+-- Audit entries live in the monthly partitions audit_logs_yyyyMM created by AuditLogPartitions;
+-- V1 still creates an empty audit_logs table and indexes, which are dropped here. V1 is left
+-- as released so schemas on every template version are built from the same steps.
+
+DROP TABLE IF EXISTS audit_logs;
@@ -0,0 +1,14 @@
+-- Commit order of outbox events: right before a transaction with events commits, OutboxService
+-- takes the next value of outbox_commit_seq and stamps the transaction's events with it. The
+-- counter row stays locked until the commit, so commit_seq follows the commit order.
+
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS commit_seq BIGINT;
+UPDATE outbox_events SET commit_seq = 0 WHERE commit_seq IS NULL;
+CREATE INDEX IF NOT EXISTS idx_outbox_pending ON outbox_events (stream_offset, commit_seq, id);
+
+CREATE TABLE IF NOT EXISTS outbox_commit_seq (
+    id INT PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
+INSERT INTO outbox_commit_seq (id, last_seq)
+SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM outbox_commit_seq WHERE id = 1);
@@ -0,0 +1,189 @@
+package com.edstruments.multitenantresourcemanagement.archive;
+
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditSegmentWriterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rowsSurviveTheRoundTripIncludingNulls() throws IOException {
+        List<AuditLog> rows = List.of(
+                row(1, 1, 0, AuditAction.CREATED_RESOURCE, "Resource", 42L, "created \"a\" – ünïcödé"),
+                row(1, 2, 1, AuditAction.UPDATED_RESOURCE, null, null, null),
+                row(1, 3, 2, AuditAction.DELETED_RESOURCE, "Resource", -7L, ""),
+                row(2, 4, 0, AuditAction.CREATED_RESOURCE, "User", 0L, "x".repeat(2000)));
+        Path segment = write(rows);
+
+        AuditSegmentReader reader = AuditSegmentReader.open(segment);
+
+        assertThat(reader.rowCount()).isEqualTo(4);
+        assertSameRows(reader.query(1, null, null, null, null).toList(), rows.subList(0, 3));
+        assertSameRows(reader.query(2, null, null, null, null).toList(), rows.subList(3, 4));
+        assertThat(reader.query(3, null, null, null, null)).isEmpty();
+    }
+
+    @Test
+    void rowsSpanningSeveralBlocksAreReadInOrder() throws IOException {
+        List<AuditLog> rows = tenants(5000, 4000, 10);
+        Path segment = write(rows);
+
+        AuditSegmentReader reader = AuditSegmentReader.open(segment);
+
+        assertThat(reader.rowCount()).isEqualTo(9010);
+        assertSameRows(reader.query(1, null, null, null, null).toList(), rows.subList(0, 5000));
+        assertSameRows(reader.query(2, null, null, null, null).toList(), rows.subList(5000, 9000));
+        assertSameRows(reader.query(3, null, null, null, null).toList(), rows.subList(9000, 9010));
+    }
+
+    @Test
+    void filtersOnTimeUserAndAction() throws IOException {
+        List<AuditLog> rows = tenants(300);
+        AuditSegmentReader reader = AuditSegmentReader.open(write(rows));
+
+        LocalDateTime from = START.plusMinutes(100);
+        LocalDateTime to = START.plusMinutes(199);
+        assertThat(reader.query(1, from, to, null, null).toList()).hasSize(100)
+                .allSatisfy(a -> assertThat(a.getTimestamp()).isBetween(from, to));
+        assertThat(reader.query(1, null, null, AuditAction.UPDATED_RESOURCE, null).toList()).hasSize(100)
+                .allSatisfy(a -> assertThat(a.getAction()).isEqualTo(AuditAction.UPDATED_RESOURCE));
+        assertThat(reader.query(1, null, null, null, 3L).toList()).hasSize(30)
+                .allSatisfy(a -> assertThat(a.getUserId()).isEqualTo(3L));
+    }
+
+    @Test
+    void actionMissingFromTheDictionaryMatchesNothing() throws IOException {
+        AuditSegmentReader reader = AuditSegmentReader.open(write(tenants(10)));
+
+        assertThat(reader.query(1, null, null, AuditAction.CREATED_USER, null)).isEmpty();
+    }
+
+    @Test
+    void blocksOutsideTheTenantOrTimeRangeAreNotInflated() throws IOException {
+        List<AuditLog> rows = tenants(5000, 4000, 10);
+        Path segment = write(rows);
+        // corrupt the first block, which only holds tenant 1's first 4096 rows
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            byte[] garbage = new byte[32];
+            Arrays.fill(garbage, (byte) 0xFF);
+            channel.write(ByteBuffer.wrap(garbage), AuditSegmentWriter.MAGIC.length);
+        }
+        AuditSegmentReader reader = AuditSegmentReader.open(segment);
+
+        assertThat(reader.query(2, null, null, null, null).toList()).hasSize(4000);
+        assertThat(reader.query(3, null, null, null, null).toList()).hasSize(10);
+        LocalDateTime afterFirstBlock = rows.get(AuditSegmentWriter.BLOCK_ROWS).getTimestamp();
+        assertThat(reader.query(1, afterFirstBlock, null, null, null).toList()).hasSize(5000 - 4096);
+        assertThatThrownBy(() -> reader.query(1, null, null, null, null).toList())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void finishedSegmentReplacesThePartialFile() throws IOException {
+        Path target = dir.resolve("nested").resolve("202403.seg");
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(target)) {
+            writer.append(row(1, 1, 0, AuditAction.CREATED_RESOURCE, "Resource", 1L, null));
+            assertThat(writer.finish()).isEqualTo(1);
+        }
+
+        assertThat(target).exists();
+        assertThat(target.resolveSibling("202403.seg.partial")).doesNotExist();
+    }
+
+    @Test
+    void unfinishedSegmentLeavesNoFile() throws IOException {
+        Path target = dir.resolve("202403.seg");
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(target)) {
+            writer.append(row(1, 1, 0, AuditAction.CREATED_RESOURCE, "Resource", 1L, null));
+        }
+
+        assertThat(target).doesNotExist();
+        try (var files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void rowsOutOfOrderAreRejected() throws IOException {
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(dir.resolve("202403.seg"))) {
+            writer.append(row(2, 1, 0, AuditAction.CREATED_RESOURCE, null, null, null));
+            assertThatThrownBy(() -> writer.append(row(1, 2, 0, AuditAction.CREATED_RESOURCE, null, null, null)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private Path write(List<AuditLog> rows) throws IOException {
+        Path target = dir.resolve("segment.seg");
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(target)) {
+            for (AuditLog row : rows) {
+                writer.append(row);
+            }
+            writer.finish();
+        }
+        return target;
+    }
+
+    /**
+     * Rows for tenants 1, 2, ... with the given row counts, one minute apart, cycling through
+     * three actions and ten users.
+     */
+    private static List<AuditLog> tenants(int... counts) {
+        AuditAction[] actions = {AuditAction.CREATED_RESOURCE, AuditAction.UPDATED_RESOURCE,
+                AuditAction.DELETED_RESOURCE};
+        List<AuditLog> rows = new ArrayList<>();
+        long id = 1;
+        for (int t = 0; t < counts.length; t++) {
+            for (int i = 0; i < counts[t]; i++) {
+                rows.add(AuditLog.builder()
+                        .id(id++)
+                        .tenantId(t + 1L)
+                        .userId((long) i % 10)
+                        .action(actions[i % actions.length])
+                        .entityType(i % 2 == 0 ? "Resource" : null)
+                        .entityId(i % 5 == 0 ? null : (long) i)
+                        .details(i % 3 == 0 ? null : "details " + i)
+                        .timestamp(START.plusMinutes(i))
+                        .build());
+            }
+        }
+        return rows;
+    }
+
+    private static AuditLog row(long tenantId, long id, int minute, AuditAction action, String entityType,
+                                Long entityId, String details) {
+        return AuditLog.builder()
+                .id(id)
+                .tenantId(tenantId)
+                .userId(id * 10)
+                .action(action)
+                .entityType(entityType)
+                .entityId(entityId)
+                .details(details)
+                .timestamp(START.plusMinutes(minute).plusNanos(123_456_000))
+                .build();
+    }
+
+    private static void assertSameRows(List<AuditLog> actual, List<AuditLog> expected) {
+        assertThat(actual).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,89 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import com.edstruments.multitenantresourcemanagement.enums.UserRole;
+import com.edstruments.multitenantresourcemanagement.security.TenantPrincipal;
+import com.edstruments.multitenantresourcemanagement.service.RateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private final RateLimiter rateLimiter = mock(RateLimiter.class);
+    private final RateLimitFilter filter = new RateLimitFilter();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final MockFilterChain chain = new MockFilterChain();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "rateLimiter", rateLimiter);
+        when(rateLimiter.isEnabled()).thenReturn(true);
+    }
+
+    @Test
+    void requestWithinTheLimitIsPassedOn() throws Exception {
+        when(rateLimiter.tryAcquire(1, 7)).thenReturn(0L);
+
+        filter.doFilter(request(true), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void requestOverTheLimitGets429WithRetryAfterRoundedUp() throws Exception {
+        when(rateLimiter.tryAcquire(1, 7)).thenReturn(1_500_000_000L);
+
+        filter.doFilter(request(true), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void waitBelowOneSecondAsksToRetryAfterOneSecond() throws Exception {
+        when(rateLimiter.tryAcquire(1, 7)).thenReturn(1L);
+
+        filter.doFilter(request(true), response, chain);
+
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+    }
+
+    @Test
+    void unauthenticatedRequestsAreNotLimited() throws Exception {
+        filter.doFilter(request(false), response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        verify(rateLimiter, never()).tryAcquire(anyLong(), anyLong());
+    }
+
+    @Test
+    void disabledLimiterIsSkipped() throws Exception {
+        when(rateLimiter.isEnabled()).thenReturn(false);
+
+        filter.doFilter(request(true), response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        verify(rateLimiter, never()).tryAcquire(anyLong(), anyLong());
+    }
+
+    private static MockHttpServletRequest request(boolean authenticated) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/resources");
+        if (authenticated) {
+            request.setAttribute(TenantPrincipal.REQUEST_ATTRIBUTE,
+                    new TenantPrincipal(7, 1, "alice", UserRole.EMPLOYEE));
+        }
+        return request;
+    }
+}
@@ -0,0 +1,146 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import com.edstruments.multitenantresourcemanagement.entity.Resource;
+import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.repository.TenantRepository;
+import com.edstruments.multitenantresourcemanagement.service.ResourceService;
+import com.edstruments.multitenantresourcemanagement.service.TenantService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never",
+        "l2cache.enabled=false",
+        "datasource.replica.url=" + ReadReplicaRouterTest.REPLICA_URL,
+        "datasource.replica.max-lag-ms=-1",
+        "datasource.replica.sticky-ms=" + ReadReplicaRouterTest.STICKY_MS
+})
+class ReadReplicaRouterTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing-replica;DB_CLOSE_DELAY=-1";
+    static final long STICKY_MS = 1000;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private TenantSchemaTemplate schemaTemplate;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromTheReplica() throws SQLException {
+        Tenant tenant = tenantOnBoth("replica_reads");
+        double before = reads("replica");
+
+        assertThat(listNames(tenant)).containsExactly("replica copy");
+        assertThat(reads("replica")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void readsStayOnThePrimaryForStickyMsAfterAWrite() throws Exception {
+        Tenant tenant = tenantOnBoth("sticky_writes");
+        assertThat(listNames(tenant)).containsExactly("replica copy");
+
+        TenantContext.setCurrentTenant(tenant.getSchemaName());
+        Resource payload = new Resource();
+        payload.setName("primary update");
+        resourceService.updateResource(1L, tenant.getId(), payload);
+
+        assertThat(listNames(tenant)).containsExactly("primary update");
+
+        Thread.sleep(STICKY_MS + 100);
+        assertThat(listNames(tenant)).containsExactly("replica copy");
+    }
+
+    @Test
+    void readFallsBackToThePrimaryWhenTheReplicaLacksTheSchema() {
+        Tenant tenant = tenantService.createTenant(tenant("primary_only"));
+        insert(primary, tenant, "primary copy");
+        double fallbacks = meterRegistry.counter("datasource.replica.fallbacks").count();
+
+        assertThat(listNames(tenant)).containsExactly("primary copy");
+        assertThat(meterRegistry.counter("datasource.replica.fallbacks").count()).isEqualTo(fallbacks + 1);
+    }
+
+    @Test
+    void publicSchemaIsReadFromThePrimary() {
+        tenantService.createTenant(tenant("directory_entry"));
+        double before = reads("replica");
+
+        // the replica has no tenants table at all
+        assertThat(tenantRepository.findAll()).extracting(Tenant::getSchemaName).contains("directory_entry");
+        assertThat(reads("replica")).isEqualTo(before);
+    }
+
+    /**
+     * A tenant provisioned on the primary whose schema is also present on the replica, with
+     * resource 1 named differently on each.
+     */
+    private Tenant tenantOnBoth(String schema) throws SQLException {
+        Tenant tenant = tenantService.createTenant(tenant(schema));
+        insert(primary, tenant, "primary copy");
+        try (Connection conn = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE SCHEMA " + schema);
+            }
+            conn.setSchema(schema.toUpperCase());
+            schemaTemplate.apply(conn);
+            insert(new JdbcTemplate(new SingleConnectionDataSource(conn, true)), tenant, "replica copy");
+        }
+        return tenant;
+    }
+
+    private static void insert(JdbcTemplate jdbc, Tenant tenant, String name) {
+        jdbc.update("INSERT INTO " + tenant.getSchemaName() + ".resources (id, name, owner_id, tenant_id, deleted) " +
+                "VALUES (1, ?, 1, ?, FALSE)", name, tenant.getId());
+    }
+
+    private List<String> listNames(Tenant tenant) {
+        TenantContext.setCurrentTenant(tenant.getSchemaName());
+        try {
+            return resourceService.listResources(tenant.getId(), null, null, 0, 10).getContent().stream()
+                    .map(Resource::getName)
+                    .toList();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private double reads(String target) {
+        return meterRegistry.counter("datasource.replica.reads", "target", target).count();
+    }
+
+    private static Tenant tenant(String schema) {
+        return Tenant.builder().name("Tenant " + schema).schemaName(schema).isActive(true).build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.edstruments.multitenantresourcemanagement.config.multitenancy;
+
+import com.edstruments.multitenantresourcemanagement.enums.UserRole;
+import com.edstruments.multitenantresourcemanagement.security.TenantPrincipal;
+import com.edstruments.multitenantresourcemanagement.service.TenantDeletionService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TenantFilterTest {
+
+    private static final TenantRegistry.Entry ACME = new TenantRegistry.Entry(1, "acme", true);
+    private static final TenantRegistry.Entry GLOBEX = new TenantRegistry.Entry(2, "globex", true);
+    private static final TenantRegistry.Entry INITECH = new TenantRegistry.Entry(3, "initech", false);
+    private static final TenantRegistry.Entry UMBRELLA = new TenantRegistry.Entry(4, "umbrella", false);
+
+    private final TenantRegistry registry = mock(TenantRegistry.class);
+    private final TenantDeletionService deletionService = mock(TenantDeletionService.class);
+    private final TenantFilter filter = new TenantFilter();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final AtomicReference<String> schemaSeen = new AtomicReference<>();
+    private final FilterChain chain = (req, res) -> schemaSeen.set(TenantContext.getCurrentTenant());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "tenantRegistry", registry);
+        ReflectionTestUtils.setField(filter, "tenantDeletionService", deletionService);
+        for (TenantRegistry.Entry e : new TenantRegistry.Entry[]{ACME, GLOBEX, INITECH, UMBRELLA}) {
+            when(registry.findBySchema(e.schemaName())).thenReturn(e);
+            when(registry.findById(e.id())).thenReturn(e);
+        }
+        when(deletionService.isDeleting("umbrella")).thenReturn(true);
+    }
+
+    @Test
+    void headerSelectsTheTenantSchemaForTheRequest() throws Exception {
+        filter.doFilter(request("acme", null), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(schemaSeen.get()).isEqualTo("acme");
+        assertThat(TenantContext.getCurrentTenant()).isNull();
+    }
+
+    @Test
+    void tokenTenantIsUsedWithoutAHeader() throws Exception {
+        filter.doFilter(request(null, principal(2)), response, chain);
+
+        assertThat(schemaSeen.get()).isEqualTo("globex");
+    }
+
+    @Test
+    void anonymousRequestWithoutAHeaderUsesThePublicSchema() throws Exception {
+        filter.doFilter(request(null, null), response, chain);
+
+        assertThat(schemaSeen.get()).isEqualTo(TenantRegistry.DEFAULT_SCHEMA);
+    }
+
+    @Test
+    void unknownTenantIsRejectedWith400() throws Exception {
+        filter.doFilter(request("nowhere", null), response, chain);
+        assertRejected(400);
+
+        MockHttpServletResponse tokenResponse = new MockHttpServletResponse();
+        filter.doFilter(request(null, principal(99)), tokenResponse, chain);
+        assertThat(tokenResponse.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void inactiveTenantIsRejectedWith403() throws Exception {
+        filter.doFilter(request("initech", null), response, chain);
+
+        assertRejected(403);
+        assertThat(response.getContentAsString()).isEqualTo("Tenant is inactive");
+    }
+
+    @Test
+    void tenantBeingDeletedIsRejectedWith410() throws Exception {
+        filter.doFilter(request(null, principal(4)), response, chain);
+
+        assertRejected(410);
+    }
+
+    @Test
+    void headerNamingAnotherTenantThanTheTokenIsRejectedWith403() throws Exception {
+        filter.doFilter(request("globex", principal(1)), response, chain);
+
+        assertRejected(403);
+        assertThat(response.getContentAsString()).isEqualTo("Tenant mismatch");
+    }
+
+    @Test
+    void authenticatedCallerCannotSwitchToThePublicSchema() throws Exception {
+        filter.doFilter(request("public", principal(1)), response, chain);
+
+        assertRejected(403);
+    }
+
+    @Test
+    void headerMatchingTheTokenIsAccepted() throws Exception {
+        filter.doFilter(request("acme", principal(1)), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(schemaSeen.get()).isEqualTo("acme");
+    }
+
+    private void assertRejected(int status) {
+        assertThat(response.getStatus()).isEqualTo(status);
+        assertThat(schemaSeen.get()).isNull();
+    }
+
+    private static TenantPrincipal principal(long tenantId) {
+        return new TenantPrincipal(7, tenantId, "alice", UserRole.EMPLOYEE);
+    }
+
+    private static MockHttpServletRequest request(String header, TenantPrincipal principal) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/resources");
+        if (header != null) {
+            request.addHeader("X-Tenant-ID", header);
+        }
+        if (principal != null) {
+            request.setAttribute(TenantPrincipal.REQUEST_ATTRIBUTE, principal);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,89 @@
+package com.edstruments.multitenantresourcemanagement.controller;
+
+import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.enums.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenant-controller-test;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never",
+        "tenant.provisioning.batch-max-items=2"
+})
+class TenantControllerTest {
+
+    @Autowired
+    private TenantController tenantController;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void batchOnboardingIsDeniedToTenantAdmins() {
+        authenticate(UserRole.ADMIN);
+
+        assertThatThrownBy(() -> tenantController.createTenants(List.of()))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void superAdminCanOnboardABatch() {
+        authenticate(UserRole.SUPER_ADMIN);
+
+        ResponseEntity<?> response = tenantController.createTenants(List.of(tenant("batch_a"), tenant("batch_b")));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+    }
+
+    @Test
+    void batchOverTheLimitIsRejected() {
+        authenticate(UserRole.SUPER_ADMIN);
+
+        ResponseEntity<?> response = tenantController.createTenants(
+                List.of(tenant("over_a"), tenant("over_b"), tenant("over_c")));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(413);
+    }
+
+    @Test
+    void tenantUpdateIsDeniedToTenantAdmins() {
+        authenticate(UserRole.ADMIN);
+
+        assertThatThrownBy(() -> tenantController.updateTenant(1L, tenant("update_a")))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void tenantDeletionIsDeniedToTenantAdmins() {
+        authenticate(UserRole.ADMIN);
+
+        assertThatThrownBy(() -> tenantController.deleteTenant(1L))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> tenantController.getDeletionJob(1L))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    private static void authenticate(UserRole role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "operator", null, Collections.singletonList(new SimpleGrantedAuthority(role.name()))));
+    }
+
+    private static Tenant tenant(String schema) {
+        return Tenant.builder().name("Tenant " + schema).schemaName(schema).isActive(true).build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.edstruments.multitenantresourcemanagement.repository;
+
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import com.edstruments.multitenantresourcemanagement.service.AuditLogWriter;
+import com.edstruments.multitenantresourcemanagement.service.AuditRetentionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:audit-repository-test;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never",
+        "audit.async.enabled=false",
+        "audit.retention.months=12"
+})
+class AuditLogRepositoryImplTest {
+
+    private static final String SCHEMA = "public";
+
+    @Autowired
+    private AuditLogRepository repository;
+
+    @Autowired
+    private AuditLogPartitions partitions;
+
+    @Autowired
+    private AuditLogWriter writer;
+
+    @Autowired
+    private AuditRetentionService retentionService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void parentTableIsNotCreated() {
+        Integer tables = jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE UPPER(TABLE_NAME) = 'AUDIT_LOGS'", Integer.class);
+        assertThat(tables).isZero();
+    }
+
+    @Test
+    void timeRangeQueriesOnlyReadTheMonthsTheyOverlap() {
+        long tenant = 11;
+        YearMonth now = YearMonth.now();
+        for (int m = 0; m < 4; m++) {
+            write(tenant, now.minusMonths(m), 2);
+        }
+        LocalDateTime from = now.minusMonths(2).atDay(1).atStartOfDay();
+        LocalDateTime to = now.minusMonths(1).atEndOfMonth().atTime(23, 59);
+
+        assertThat(partitions.prune(SCHEMA, from, to)).containsExactly(now.minusMonths(2), now.minusMonths(1));
+        Page<AuditLog> page = repository.findByTenantIdAndTimestampBetween(tenant, from, to, PageRequest.of(0, 10));
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).allSatisfy(a ->
+                assertThat(YearMonth.from(a.getTimestamp())).isBetween(now.minusMonths(2), now.minusMonths(1)));
+    }
+
+    @Test
+    void offsetPagesSpanMonthsNewestFirst() {
+        long tenant = 12;
+        YearMonth now = YearMonth.now();
+        for (int m = 0; m < 3; m++) {
+            write(tenant, now.minusMonths(m), 3);
+        }
+
+        Page<AuditLog> second = repository.findByTenantIdOrderByTimestampDesc(tenant, PageRequest.of(1, 4));
+
+        assertThat(second.getTotalElements()).isEqualTo(9);
+        assertThat(second.getContent()).hasSize(4);
+        assertThat(second.getContent()).extracting(a -> YearMonth.from(a.getTimestamp()))
+                .containsExactly(now.minusMonths(1), now.minusMonths(1), now.minusMonths(2), now.minusMonths(2));
+    }
+
+    @Test
+    void lateEntriesInAClosedMonthAreCounted() {
+        long tenant = 13;
+        YearMonth last = YearMonth.now().minusMonths(1);
+        write(tenant, last, 2);
+        assertThat(repository.findByTenantIdOrderByTimestampDesc(tenant, PageRequest.of(0, 1)).getTotalElements())
+                .isEqualTo(2);
+
+        // e.g. replayed from the spill file after the month ended
+        write(tenant, last, 3);
+
+        assertThat(repository.findByTenantIdOrderByTimestampDesc(tenant, PageRequest.of(0, 1)).getTotalElements())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void keysetScrollCrossesMonthBoundaries() {
+        long tenant = 14;
+        YearMonth now = YearMonth.now();
+        for (int m = 0; m < 3; m++) {
+            write(tenant, now.minusMonths(m), 3);
+        }
+
+        List<AuditLog> all = new ArrayList<>();
+        List<AuditLog> batch = repository.scrollFirst(tenant, Limit.of(2));
+        while (!batch.isEmpty()) {
+            all.addAll(batch);
+            AuditLog last = batch.get(batch.size() - 1);
+            batch = repository.scrollAfter(tenant, last.getTimestamp(), last.getId(), Limit.of(2));
+        }
+
+        assertThat(all).hasSize(9);
+        assertThat(all).extracting(AuditLog::getId).doesNotHaveDuplicates();
+        for (int i = 1; i < all.size(); i++) {
+            assertThat(all.get(i).getTimestamp()).isBeforeOrEqualTo(all.get(i - 1).getTimestamp());
+        }
+        assertThat(all.get(0).getTimestamp()).isAfterOrEqualTo(now.atDay(1).atStartOfDay());
+        assertThat(YearMonth.from(all.get(8).getTimestamp())).isEqualTo(now.minusMonths(2));
+    }
+
+    @Test
+    void retentionDropsExpiredPartitionsAndTheirCounts() {
+        long tenant = 15;
+        YearMonth expired = YearMonth.now().minusMonths(14);
+        YearMonth kept = YearMonth.now().minusMonths(5);
+        write(tenant, expired, 2);
+        write(tenant, kept, 1);
+        assertThat(repository.findByTenantIdOrderByTimestampDesc(tenant, PageRequest.of(0, 10)).getTotalElements())
+                .isEqualTo(3);
+
+        retentionService.applyRetention();
+
+        assertThat(partitions.prune(SCHEMA, null, null)).doesNotContain(expired).contains(kept);
+        Page<AuditLog> page = repository.findByTenantIdOrderByTimestampDesc(tenant, PageRequest.of(0, 10));
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(YearMonth.from(page.getContent().get(0).getTimestamp())).isEqualTo(kept);
+    }
+
+    private void write(long tenant, YearMonth month, int n) {
+        List<AuditLog> entries = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            entries.add(AuditLog.builder()
+                    .userId(1L)
+                    .tenantId(tenant)
+                    .action(AuditAction.CREATED_RESOURCE)
+                    .entityType("Resource")
+                    .entityId((long) i)
+                    .timestamp(month.atDay(1 + i).atTime(12, 0))
+                    .build());
+        }
+        writer.submitAll(SCHEMA, entries);
+    }
+}
@@ -0,0 +1,224 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.SchemaBasedMultiTenantConnectionProvider;
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import com.edstruments.multitenantresourcemanagement.enums.AuditOverflowPolicy;
+import com.edstruments.multitenantresourcemanagement.repository.AuditLogPartitions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditLogWriterTest {
+
+    private static final LocalDateTime TS = LocalDateTime.of(2024, 3, 15, 10, 0);
+    private static final String PARTITION = "audit_logs_202403";
+
+    @TempDir
+    Path dir;
+
+    private String url;
+    private Connection keepAlive;
+    private SchemaBasedMultiTenantConnectionProvider provider;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<AuditLogWriter> writers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        url = "jdbc:h2:mem:audit-writer-" + UUID.randomUUID();
+        keepAlive = DriverManager.getConnection(url);
+        provider = mock(SchemaBasedMultiTenantConnectionProvider.class);
+        when(provider.getConnection(any())).thenAnswer(inv -> {
+            if ("broken".equals(inv.getArgument(0))) {
+                throw new SQLException("schema unavailable");
+            }
+            return DriverManager.getConnection(url);
+        });
+        when(provider.getAnyConnection()).thenAnswer(inv -> DriverManager.getConnection(url));
+        doAnswer(inv -> {
+            inv.<Connection>getArgument(1).close();
+            return null;
+        }).when(provider).releaseConnection(any(), any());
+        doAnswer(inv -> {
+            inv.<Connection>getArgument(0).close();
+            return null;
+        }).when(provider).releaseAnyConnection(any());
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        writers.forEach(AuditLogWriter::stop);
+        keepAlive.close();
+    }
+
+    @Test
+    void writesQueuedEntriesToTheMonthlyPartition() throws Exception {
+        AuditLogWriter writer = writer(AuditOverflowPolicy.BLOCK, 100, true);
+        for (int i = 0; i < 25; i++) {
+            writer.submit("public", entry(i));
+        }
+        writer.stop();
+
+        assertThat(count()).isEqualTo(25);
+    }
+
+    @Test
+    void dropPolicyDiscardsEntriesWhenTheQueueIsFull() throws Exception {
+        AuditLogWriter writer = stalledWriter(AuditOverflowPolicy.DROP, 2);
+        for (int i = 0; i < 5; i++) {
+            writer.submit("public", entry(i));
+        }
+
+        assertThat(counter(writer, "droppedCounter")).isEqualTo(3);
+        assertThat(Files.exists(spillFile())).isFalse();
+    }
+
+    @Test
+    void spillPolicySpillsOverflowAndReplaysItOnTheNextStart() throws Exception {
+        AuditLogWriter writer = stalledWriter(AuditOverflowPolicy.SPILL, 2);
+        for (int i = 0; i < 5; i++) {
+            writer.submit("public", entry(i));
+        }
+        assertThat(counter(writer, "spilledCounter")).isEqualTo(3);
+        assertThat(Files.readAllLines(spillFile())).hasSize(3);
+
+        AuditLogWriter next = writer(AuditOverflowPolicy.SPILL, 100, true);
+        next.stop();
+
+        assertThat(count()).isEqualTo(3);
+        assertThat(Files.exists(spillFile())).isFalse();
+        assertThat(Files.exists(replayingFile())).isFalse();
+    }
+
+    @Test
+    void failedWritesAreSpilledUnderSpillPolicy() throws Exception {
+        AuditLogWriter writer = writer(AuditOverflowPolicy.SPILL, 100, false);
+        writer.submit("broken", entry(1));
+
+        assertThat(Files.readAllLines(spillFile())).hasSize(1);
+        assertThat(counter(writer, "failedCounter")).isZero();
+    }
+
+    @Test
+    void failedWritesAreCountedUnderOtherPolicies() throws Exception {
+        AuditLogWriter writer = writer(AuditOverflowPolicy.DROP, 100, false);
+        writer.submit("broken", entry(1));
+
+        assertThat(counter(writer, "failedCounter")).isEqualTo(1);
+        assertThat(Files.exists(spillFile())).isFalse();
+    }
+
+    @Test
+    void interruptedReplayIsFinishedBeforeTheNewSpillFile() throws Exception {
+        writeSpill(replayingFile(), 0, 4);
+        writeSpill(spillFile(), 4, 3);
+
+        AuditLogWriter writer = writer(AuditOverflowPolicy.SPILL, 100, true);
+        writer.stop();
+
+        assertThat(count()).isEqualTo(7);
+        assertThat(Files.exists(spillFile())).isFalse();
+        assertThat(Files.exists(replayingFile())).isFalse();
+    }
+
+    private AuditLogWriter writer(AuditOverflowPolicy policy, int capacity, boolean async) {
+        AuditLogWriter writer = newWriter(policy, capacity, async);
+        writer.start();
+        writers.add(writer);
+        return writer;
+    }
+
+    /**
+     * A writer whose queue is accepting entries but never drained, so it overflows.
+     */
+    private AuditLogWriter stalledWriter(AuditOverflowPolicy policy, int capacity) {
+        AuditLogWriter writer = newWriter(policy, capacity, false);
+        writer.start();
+        ReflectionTestUtils.setField(writer, "running", true);
+        return writer;
+    }
+
+    private AuditLogWriter newWriter(AuditOverflowPolicy policy, int capacity, boolean async) {
+        AuditLogPartitions partitions = new AuditLogPartitions();
+        ReflectionTestUtils.setField(partitions, "connectionProvider", provider);
+        ReflectionTestUtils.setField(partitions, "ddlAuto", "none");
+        ReflectionTestUtils.setField(partitions, "countCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(partitions, "countCacheTtlSeconds", 600L);
+        ReflectionTestUtils.invokeMethod(partitions, "init");
+        AuditLogWriter writer = new AuditLogWriter();
+        ReflectionTestUtils.setField(writer, "connectionProvider", provider);
+        ReflectionTestUtils.setField(writer, "partitions", partitions);
+        ReflectionTestUtils.setField(writer, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(writer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(writer, "asyncEnabled", async);
+        ReflectionTestUtils.setField(writer, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(writer, "batchSize", 10);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 20L);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(writer, "spillFile", spillFile().toString());
+        ReflectionTestUtils.setField(writer, "shutdownTimeoutMs", 5000L);
+        return writer;
+    }
+
+    private void writeSpill(Path file, int from, int n) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = from; i < from + n; i++) {
+            lines.add(objectMapper.writeValueAsString(new AuditLogWriter.PendingAuditLog("public", entry(i))));
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    private Path spillFile() {
+        return dir.resolve("audit-spill.ndjson");
+    }
+
+    private Path replayingFile() {
+        return dir.resolve("audit-spill.ndjson.replaying");
+    }
+
+    private static AuditLog entry(long entityId) {
+        return AuditLog.builder()
+                .userId(1L)
+                .tenantId(1L)
+                .action(AuditAction.CREATED_RESOURCE)
+                .entityType("Resource")
+                .entityId(entityId)
+                .timestamp(TS)
+                .build();
+    }
+
+    private static double counter(AuditLogWriter writer, String field) {
+        return ((io.micrometer.core.instrument.Counter) ReflectionTestUtils.getField(writer, field)).count();
+    }
+
+    private int count() throws SQLException {
+        try (Statement st = keepAlive.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + PARTITION)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import com.edstruments.multitenantresourcemanagement.dto.ChangeEvent;
+import com.edstruments.multitenantresourcemanagement.entity.Resource;
+import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.enums.ChangeEventType;
+import com.edstruments.multitenantresourcemanagement.security.JwtTokenProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-relay-test;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never",
+        "outbox.relay.sweep-ms=200"
+})
+class OutboxRelayTest {
+
+    @TestConfiguration
+    static class SubscriberConfig {
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    /**
+     * Records every delivery; can fail or hold up the deliveries of a schema.
+     */
+    static class RecordingSubscriber implements ChangeEventSubscriber {
+        private final Map<String, List<List<ChangeEvent>>> deliveries = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+        private final Map<String, CountDownLatch> holds = new ConcurrentHashMap<>();
+        private final CountDownLatch held = new CountDownLatch(1);
+
+        @Override
+        public void onEvents(String schema, List<ChangeEvent> events) {
+            deliveries.computeIfAbsent(schema, s -> new ArrayList<>()).add(events);
+            CountDownLatch hold = holds.get(schema);
+            if (hold != null) {
+                held.countDown();
+                try {
+                    hold.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            AtomicInteger failing = failures.get(schema);
+            if (failing != null && failing.getAndDecrement() > 0) {
+                throw new IllegalStateException("subscriber down");
+            }
+        }
+
+        List<List<ChangeEvent>> deliveries(String schema) {
+            return deliveries.getOrDefault(schema, List.of());
+        }
+
+        List<ChangeEvent> delivered(String schema) {
+            return deliveries(schema).stream().flatMap(List::stream).toList();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RecordingSubscriber subscriber;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private ChangeEventStream stream;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void eventsArePublishedInCommitOrderNotIdOrder() throws Exception {
+        // hold up the single relay thread so both transactions commit before it reads the outbox
+        Tenant blocker = tenant("order_blocker");
+        CountDownLatch release = new CountDownLatch(1);
+        subscriber.holds.put("order_blocker", release);
+        commit(blocker, 1L);
+        assertThat(subscriber.held.await(10, TimeUnit.SECONDS)).isTrue();
+
+        Tenant tenant = tenant("commit_order");
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+        Thread late = new Thread(() -> {
+            TenantContext.setCurrentTenant(tenant.getSchemaName());
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    outboxService.resourceChanged(ChangeEventType.RESOURCE_UPDATED, resource(tenant, 10L));
+                    recorded.countDown();
+                    try {
+                        commitFirst.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } finally {
+                TenantContext.clear();
+            }
+        });
+        late.start();
+        assertThat(recorded.await(10, TimeUnit.SECONDS)).isTrue();
+        commit(tenant, 20L);
+        commitFirst.countDown();
+        late.join(10_000);
+        release.countDown();
+
+        List<ChangeEvent> events = awaitDelivered("commit_order", 2);
+        assertThat(events).extracting(ChangeEvent::aggregateId).containsExactly(20L, 10L);
+        assertThat(events.get(0).id()).isGreaterThan(events.get(1).id());
+        assertThat(events).extracting(ChangeEvent::offset).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void failedDeliveryIsRedeliveredWithTheSameEventsAndOffsets() throws Exception {
+        Tenant tenant = tenant("redelivery");
+        subscriber.failures.put("redelivery", new AtomicInteger(1));
+
+        commit(tenant, 1L, 2L);
+
+        List<ChangeEvent> events = awaitDelivered("redelivery", 4);
+        List<List<ChangeEvent>> deliveries = subscriber.deliveries("redelivery");
+        assertThat(deliveries).hasSize(2);
+        assertThat(deliveries.get(1)).isEqualTo(deliveries.get(0));
+        assertThat(events.subList(0, 2)).extracting(ChangeEvent::offset).containsExactly(1L, 2L);
+        awaitPublished("redelivery", 2);
+    }
+
+    @Test
+    void offsetsContinueFromTheOutboxAfterARestart() throws Exception {
+        Tenant tenant = tenant("offset_resume");
+        commit(tenant, 1L);
+        commit(tenant, 2L);
+        awaitDelivered("offset_resume", 2);
+
+        // a new relay starts without the offsets it had in memory
+        ((Map<?, ?>) ReflectionTestUtils.getField(relay, "lastOffsets")).clear();
+        commit(tenant, 3L);
+
+        assertThat(awaitDelivered("offset_resume", 3)).extracting(ChangeEvent::offset).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void streamResumesAfterTheGivenOffsetThenReceivesNewEvents() throws Exception {
+        Tenant tenant = tenant("stream_resume");
+        commit(tenant, 1L);
+        commit(tenant, 2L);
+        commit(tenant, 3L);
+        awaitPublished("stream_resume", 3);
+
+        try (SseConnection sse = connect(tenant, 1)) {
+            assertThat(sse.nextIds(2)).containsExactly("2", "3");
+
+            commit(tenant, 4L);
+            assertThat(sse.nextIds(1)).containsExactly("4");
+        }
+    }
+
+    @Test
+    void busyStreamClientDoesNotHoldUpTheRelay() throws Exception {
+        Tenant tenant = tenant("busy_client");
+        try (SseConnection sse = connect(tenant, 0)) {
+            ReentrantLock lock = (ReentrantLock) ReflectionTestUtils.getField(awaitClient("busy_client"), "lock");
+            CountDownLatch locked = new CountDownLatch(1);
+            CountDownLatch unlock = new CountDownLatch(1);
+            Thread replaying = new Thread(() -> {
+                // what a long replay does to a client
+                lock.lock();
+                try {
+                    locked.countDown();
+                    unlock.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    lock.unlock();
+                }
+            });
+            replaying.start();
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            commit(tenant, 1L);
+            awaitPublished("busy_client", 1);
+            Tenant other = tenant("busy_other");
+            commit(other, 2L);
+            awaitDelivered("busy_other", 1);
+
+            unlock.countDown();
+            assertThat(sse.nextIds(1)).containsExactly("1");
+        }
+    }
+
+    private Tenant tenant(String schema) {
+        return tenantService.createTenant(Tenant.builder().name("Tenant " + schema).schemaName(schema)
+                .isActive(true).build());
+    }
+
+    private void commit(Tenant tenant, Long... resourceIds) {
+        TenantContext.setCurrentTenant(tenant.getSchemaName());
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (Long id : resourceIds) {
+                    outboxService.resourceChanged(ChangeEventType.RESOURCE_UPDATED, resource(tenant, id));
+                }
+            });
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private static Resource resource(Tenant tenant, long id) {
+        Resource r = new Resource();
+        r.setId(id);
+        r.setTenantId(tenant.getId());
+        r.setOwnerId(1L);
+        r.setName("Resource " + id);
+        return r;
+    }
+
+    private List<ChangeEvent> awaitDelivered(String schema, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (subscriber.delivered(schema).size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        List<ChangeEvent> events = subscriber.delivered(schema);
+        assertThat(events).hasSize(count);
+        return events;
+    }
+
+    private void awaitPublished(String schema, int count) throws InterruptedException {
+        String sql = "SELECT COUNT(*) FROM " + schema + ".outbox_events WHERE stream_offset IS NOT NULL";
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (jdbc.queryForObject(sql, Integer.class) < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(jdbc.queryForObject(sql, Integer.class)).isEqualTo(count);
+    }
+
+    private Object awaitClient(String schema) throws InterruptedException {
+        Map<?, ?> clients = (Map<?, ?>) ReflectionTestUtils.getField(stream, "clients");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Set<?> tenantClients = (Set<?>) clients.get(schema);
+            if (tenantClients != null && !tenantClients.isEmpty()) {
+                return tenantClients.iterator().next();
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No stream client of " + schema);
+    }
+
+    private SseConnection connect(Tenant tenant, long after) throws Exception {
+        String token = tokenProvider.generateToken(1L, "admin", tenant.getId(), "ADMIN");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/events/stream?after=" + after))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return new SseConnection(response.body());
+    }
+
+    /**
+     * Reads the event ids of a stream on a background thread.
+     */
+    private static final class SseConnection implements AutoCloseable {
+        private final Stream<String> lines;
+        private final BlockingQueue<String> ids = new LinkedBlockingQueue<>();
+
+        private SseConnection(Stream<String> lines) {
+            this.lines = lines;
+            Thread reader = new Thread(() -> {
+                try {
+                    lines.filter(l -> l.startsWith("id:")).forEach(l -> ids.add(l.substring(3).trim()));
+                } catch (RuntimeException ex) {
+                    // closed
+                }
+            });
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        List<String> nextIds(int count) throws InterruptedException {
+            List<String> next = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String id = ids.poll(10, TimeUnit.SECONDS);
+                if (id == null) {
+                    break;
+                }
+                next.add(id);
+            }
+            return next;
+        }
+
+        @Override
+        public void close() {
+            lines.close();
+        }
+    }
+}
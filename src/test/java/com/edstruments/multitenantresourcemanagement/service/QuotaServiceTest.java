@@ -0,0 +1,265 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.enums.QuotaScope;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:quota-service-test;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never",
+        "quota.reconcile-interval-ms=3600000",
+        "quota.flush-interval-ms=3600000",
+        "tenancy.pool.max-connections-per-tenant=" + QuotaServiceTest.SHARE,
+        "tenancy.pool.acquire-timeout-ms=2000"
+})
+class QuotaServiceTest {
+
+    private static final QuotaScope SCOPE = QuotaScope.TENANT_RESOURCES;
+
+    /** Connections each tenant schema may hold at once. */
+    static final int SHARE = 2;
+
+    @Autowired
+    private QuotaService quotaService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentReservationsNeverExceedTheLimit() throws Exception {
+        long tenant = 101;
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger timedOut = new AtomicInteger();
+        runConcurrently(SHARE * 4, 25, () -> {
+            try {
+                if (create(tenant, 50)) {
+                    granted.incrementAndGet();
+                }
+            } catch (CannotCreateTransactionException ex) {
+                timedOut.incrementAndGet();
+            }
+        });
+
+        assertThat(timedOut.get()).isZero();
+        assertThat(granted.get()).isEqualTo(50);
+        assertThat(count(tenant)).isEqualTo(50);
+    }
+
+    @Test
+    void firstReservationsDoNotNeedASecondConnection() throws Exception {
+        long tenant = 107;
+        // every connection of the share is held by a transaction when the counter loads
+        CyclicBarrier allConnected = new CyclicBarrier(SHARE);
+        AtomicInteger granted = new AtomicInteger();
+        runConcurrently(SHARE, 1, () -> {
+            boolean ok = Boolean.TRUE.equals(tx().execute(status -> {
+                count(tenant);
+                await(allConnected);
+                if (!quotaService.tryAcquire(SCOPE, tenant, 0, 10, 1)) {
+                    return false;
+                }
+                insertRows(tenant, 1);
+                return true;
+            }));
+            if (ok) {
+                granted.incrementAndGet();
+            }
+        });
+
+        assertThat(granted.get()).isEqualTo(SHARE);
+        assertThat(remaining(tenant, 10)).isEqualTo(10 - SHARE);
+    }
+
+    @Test
+    void rolledBackReservationIsReturned() {
+        long tenant = 102;
+        tx().executeWithoutResult(status -> {
+            assertThat(quotaService.tryAcquire(SCOPE, tenant, 0, 1, 1)).isTrue();
+            status.setRollbackOnly();
+        });
+
+        assertThat(create(tenant, 1)).isTrue();
+        assertThat(create(tenant, 1)).isFalse();
+    }
+
+    @Test
+    void releaseFreesQuotaOnlyWhenItCommits() {
+        long tenant = 103;
+        assertThat(create(tenant, 1)).isTrue();
+
+        tx().executeWithoutResult(status -> {
+            quotaService.release(SCOPE, tenant, 0, 1);
+            status.setRollbackOnly();
+        });
+        assertThat(create(tenant, 1)).isFalse();
+
+        tx().executeWithoutResult(status -> {
+            jdbc.update("DELETE FROM resources WHERE tenant_id = ?", tenant);
+            quotaService.release(SCOPE, tenant, 0, 1);
+        });
+        assertThat(create(tenant, 1)).isTrue();
+    }
+
+    @Test
+    void reconcileCorrectsDriftInBothDirections() {
+        long tenant = 104;
+        for (int i = 0; i < 3; i++) {
+            assertThat(create(tenant, 5)).isTrue();
+        }
+        // rows added behind the engine's back
+        insertRows(tenant, 2);
+        quotaService.reconcile();
+        assertThat(create(tenant, 5)).isFalse();
+
+        jdbc.update("DELETE FROM resources WHERE tenant_id = ? AND id IN " +
+                "(SELECT id FROM resources WHERE tenant_id = ? FETCH FIRST 4 ROWS ONLY)", tenant, tenant);
+        quotaService.reconcile();
+        assertThat(remaining(tenant, 5)).isEqualTo(4);
+    }
+
+    @Test
+    void reconcileDuringConcurrentCommitsNeverUndercounts() throws Exception {
+        long tenant = 105;
+        int limit = 40;
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reconciler = new Thread(() -> {
+            while (!done.get()) {
+                quotaService.reconcile();
+            }
+        });
+        reconciler.start();
+        try {
+            runConcurrently(6, 60, () -> {
+                if (ThreadLocalRandom.current().nextInt(4) == 0) {
+                    deleteOne(tenant);
+                } else {
+                    create(tenant, limit);
+                }
+                assertThat(count(tenant)).isLessThanOrEqualTo(limit);
+            });
+        } finally {
+            done.set(true);
+            reconciler.join();
+        }
+
+        long rows = count(tenant);
+        assertThat(rows).isLessThanOrEqualTo(limit);
+        // once nothing is in flight the counter matches the rows exactly
+        quotaService.reconcile();
+        assertThat(remaining(tenant, limit)).isEqualTo(limit - rows);
+    }
+
+    @Test
+    void committedUsageIsWrittenToQuotaUsage() {
+        long tenant = 106;
+        for (int i = 0; i < 4; i++) {
+            assertThat(create(tenant, 10)).isTrue();
+        }
+        deleteOne(tenant);
+        quotaService.flushUsage();
+
+        Long used = jdbc.queryForObject("SELECT used FROM quota_usage WHERE tenant_id = ? AND scope = ? AND owner_id = 0",
+                Long.class, tenant, SCOPE.name());
+        assertThat(used).isEqualTo(3);
+    }
+
+    /**
+     * Reserves one unit and inserts a resource in the same transaction.
+     */
+    private boolean create(long tenant, long limit) {
+        return Boolean.TRUE.equals(tx().execute(status -> {
+            if (!quotaService.tryAcquire(SCOPE, tenant, 0, limit, 1)) {
+                return false;
+            }
+            insertRows(tenant, 1);
+            return true;
+        }));
+    }
+
+    private void deleteOne(long tenant) {
+        tx().executeWithoutResult(status -> {
+            if (jdbc.update("DELETE FROM resources WHERE tenant_id = ? AND id = " +
+                    "(SELECT MIN(id) FROM resources WHERE tenant_id = ?)", tenant, tenant) == 1) {
+                quotaService.release(SCOPE, tenant, 0, 1);
+            }
+        });
+    }
+
+    /**
+     * Number of further reservations granted, each rolled back afterwards.
+     */
+    private long remaining(long tenant, long limit) {
+        List<Boolean> results = new ArrayList<>();
+        tx().executeWithoutResult(status -> {
+            for (long i = 0; i <= limit; i++) {
+                results.add(quotaService.tryAcquire(SCOPE, tenant, 0, limit, 1));
+            }
+            status.setRollbackOnly();
+        });
+        return results.stream().filter(Boolean::booleanValue).count();
+    }
+
+    private void insertRows(long tenant, int n) {
+        for (int i = 0; i < n; i++) {
+            jdbc.update("INSERT INTO resources (id, name, owner_id, tenant_id, deleted, created_at, updated_at) " +
+                    "VALUES (NEXT VALUE FOR resources_seq, 'r', 1, ?, false, NOW(), NOW())", tenant);
+        }
+    }
+
+    private long count(long tenant) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM resources WHERE tenant_id = ? AND deleted = false",
+                Long.class, tenant);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private TransactionTemplate tx() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private static void runConcurrently(int threads, int iterationsPerThread, Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < iterationsPerThread; i++) {
+                        task.run();
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long TENANT = 1;
+    private static final long USER = 7;
+
+    private final AtomicLong now = new AtomicLong();
+    private final TenantSettingsService settingsService = mock(TenantSettingsService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new RateLimiter();
+        ReflectionTestUtils.setField(limiter, "tenantSettingsService", settingsService);
+        ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "maxBuckets", 1000L);
+        ReflectionTestUtils.setField(limiter, "idleEvictionSeconds", 300L);
+        ReflectionTestUtils.setField(limiter, "ticker", (Ticker) now::get);
+        limiter.init();
+    }
+
+    @Test
+    void allowsABurstOfCapacityThenAsksToWaitOneInterval() {
+        limits(1000, 1000, 5, 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(TENANT, USER)).isZero();
+        }
+        assertThat(limiter.tryAcquire(TENANT, USER)).isEqualTo(SECOND);
+
+        now.addAndGet(SECOND / 4);
+        assertThat(limiter.tryAcquire(TENANT, USER)).isEqualTo(SECOND * 3 / 4);
+    }
+
+    @Test
+    void refillsAtTheSustainedRateUpToTheCapacity() {
+        limits(1000, 1000, 5, 2);
+        drain();
+
+        now.addAndGet(SECOND);
+        assertThat(granted(10)).isEqualTo(2);
+
+        // idle for longer than the refill time: back to a full burst, not more
+        now.addAndGet(60 * SECOND);
+        assertThat(granted(10)).isEqualTo(5);
+    }
+
+    @Test
+    void tenantLimitIsSharedByItsUsers() {
+        limits(3, 1, 100, 100);
+
+        assertThat(limiter.tryAcquire(TENANT, 1)).isZero();
+        assertThat(limiter.tryAcquire(TENANT, 2)).isZero();
+        assertThat(limiter.tryAcquire(TENANT, 3)).isZero();
+        assertThat(limiter.tryAcquire(TENANT, 4)).isEqualTo(SECOND);
+        // other tenants have their own bucket
+        when(settingsService.get(2L)).thenReturn(settings(2L, 3, 1, 100, 100));
+        assertThat(limiter.tryAcquire(2L, 4)).isZero();
+    }
+
+    @Test
+    void requestRejectedByTheTenantLimitIsRefundedToTheUser() {
+        limits(1, 1, 3, 1);
+        assertThat(limiter.tryAcquire(TENANT, USER)).isZero();
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(TENANT, USER)).isPositive();
+        }
+        assertThat(meterRegistry.counter("rate.limit.rejected", "tenant", "1").count()).isEqualTo(3);
+
+        // with the tenant limit lifted the user still has the rest of its burst
+        limits(100_000, 1000, 3, 1);
+        assertThat(granted(10)).isEqualTo(2);
+    }
+
+    @Test
+    void loweredLimitAppliesWithinOneInterval() {
+        // a burst of 1000 leaves the bucket 10 s ahead
+        limits(100_000, 100_000, 1000, 100);
+        drain();
+
+        limits(100_000, 100_000, 2, 1);
+        assertThat(granted(10)).isZero();
+        now.addAndGet(SECOND);
+        assertThat(granted(10)).isEqualTo(1);
+    }
+
+    private void limits(int tenantCapacity, int tenantPerSecond, int userCapacity, int userPerSecond) {
+        when(settingsService.get(TENANT))
+                .thenReturn(settings(TENANT, tenantCapacity, tenantPerSecond, userCapacity, userPerSecond));
+    }
+
+    private static TenantSettings settings(long tenantId, int tenantCapacity, int tenantPerSecond,
+                                           int userCapacity, int userPerSecond) {
+        return new TenantSettings(tenantId, "tenant_" + tenantId, true, 100, 100, 100,
+                tenantCapacity, tenantPerSecond, userCapacity, userPerSecond);
+    }
+
+    private void drain() {
+        while (limiter.tryAcquire(TENANT, USER) == 0) {
+            // take the whole burst
+        }
+    }
+
+    private int granted(int attempts) {
+        int granted = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (limiter.tryAcquire(TENANT, USER) == 0) {
+                granted++;
+            }
+        }
+        return granted;
+    }
+}
@@ -0,0 +1,138 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.dto.ResourceText;
+import com.edstruments.multitenantresourcemanagement.entity.Resource;
+import com.edstruments.multitenantresourcemanagement.enums.SearchMode;
+import com.edstruments.multitenantresourcemanagement.repository.ResourceRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResourceSearchIndexTest {
+
+    private final ResourceRepository repository = mock(ResourceRepository.class);
+
+    @Test
+    void searchesTheIndexBuiltOnFirstUse() {
+        when(repository.findSearchTextByTenantId(1L)).thenReturn(List.of(
+                new ResourceText(1L, "Projector", "Room A"),
+                new ResourceText(2L, "Laptop", "Spare projector cable"),
+                new ResourceText(3L, "Desk", "")));
+        ResourceSearchIndex index = index(1 << 20);
+
+        assertThat(index.search(1L, "proj", SearchMode.PREFIX, 10)).containsExactly(2L, 1L);
+        assertThat(index.search(1L, "ojec", SearchMode.SUBSTRING, 10)).containsExactly(2L, 1L);
+        assertThat(index.search(1L, "projector", SearchMode.RANKED, 10)).containsExactly(1L, 2L);
+        verify(repository, times(1)).findSearchTextByTenantId(1L);
+    }
+
+    @Test
+    void committedChangesAreAppliedToALoadedIndex() {
+        when(repository.findSearchTextByTenantId(1L)).thenReturn(List.of(new ResourceText(1L, "Projector", "")));
+        ResourceSearchIndex index = index(1 << 20);
+        index.search(1L, "x", SearchMode.PREFIX, 10);
+
+        // outside a transaction the change is applied right away
+        index.indexAfterCommit(resource(1L, 2L, "Projector screen"));
+        index.removeAfterCommit(1L, 1L);
+
+        assertThat(index.search(1L, "screen", SearchMode.PREFIX, 10)).containsExactly(2L);
+        assertThat(index.search(1L, "projector", SearchMode.PREFIX, 10)).containsExactly(2L);
+    }
+
+    @Test
+    void indexesAreWeighedByTheirSizeAsTheyGrow() {
+        when(repository.findSearchTextByTenantId(1L)).thenReturn(List.of(new ResourceText(1L, "Projector", "")));
+        ResourceSearchIndex index = index(1 << 20);
+        index.search(1L, "x", SearchMode.PREFIX, 10);
+        long loaded = totalWeight(index);
+
+        List<Resource> added = new ArrayList<>();
+        for (long id = 2; id < 50; id++) {
+            added.add(resource(1L, id, "Resource number " + id));
+        }
+        index.indexAllAfterCommit(1L, added);
+
+        assertThat(loaded).isPositive();
+        assertThat(totalWeight(index)).isGreaterThan(loaded * 10);
+    }
+
+    @Test
+    void leastRecentlyUsedTenantsAreEvictedAndRebuiltOnTheirNextSearch() {
+        for (long tenant = 1; tenant <= 3; tenant++) {
+            List<ResourceText> rows = new ArrayList<>();
+            for (long id = 1; id <= 100; id++) {
+                rows.add(new ResourceText(tenant * 1000 + id, "Tenant " + tenant + " resource " + id, "description"));
+            }
+            when(repository.findSearchTextByTenantId(tenant)).thenReturn(rows);
+        }
+        ResourceSearchIndex index = index(1 << 20);
+        index.search(1L, "resource", SearchMode.PREFIX, 1);
+        long oneTenant = totalWeight(index);
+        // room for two tenants
+        index = index(oneTenant * 2 + oneTenant / 2);
+
+        index.search(1L, "resource", SearchMode.PREFIX, 1);
+        index.search(2L, "resource", SearchMode.PREFIX, 1);
+        index.search(3L, "resource", SearchMode.PREFIX, 1);
+
+        assertThat(indexes(index).estimatedSize()).isEqualTo(2);
+        assertThat(totalWeight(index)).isLessThanOrEqualTo(oneTenant * 2 + oneTenant / 2);
+        assertThat(index.search(1L, "tenant 1 resource 7", SearchMode.PREFIX, 20)).contains(1007L);
+        verify(repository, times(3)).findSearchTextByTenantId(1L);
+    }
+
+    @Test
+    void changesToAnEvictedTenantAreReadFromTheDatabaseOnRebuild() {
+        when(repository.findSearchTextByTenantId(1L)).thenReturn(List.of(new ResourceText(1L, "Projector", "")));
+        ResourceSearchIndex index = index(1 << 20);
+        index.search(1L, "x", SearchMode.PREFIX, 10);
+        indexes(index).invalidateAll();
+
+        // not indexed: the evicted index is not recreated by a change
+        index.indexAfterCommit(resource(1L, 2L, "Projector screen"));
+        assertThat(indexes(index).estimatedSize()).isZero();
+
+        when(repository.findSearchTextByTenantId(1L)).thenReturn(List.of(
+                new ResourceText(1L, "Projector", ""), new ResourceText(2L, "Projector screen", "")));
+        assertThat(index.search(1L, "projector", SearchMode.PREFIX, 10)).containsExactly(2L, 1L);
+    }
+
+    private ResourceSearchIndex index(long maxBytes) {
+        ResourceSearchIndex index = new ResourceSearchIndex();
+        ReflectionTestUtils.setField(index, "resourceRepository", repository);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "maxBytes", maxBytes);
+        index.init();
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> indexes(ResourceSearchIndex index) {
+        return (Cache<Object, Object>) ReflectionTestUtils.getField(index, "indexes");
+    }
+
+    private static long totalWeight(ResourceSearchIndex index) {
+        Cache<Object, Object> cache = indexes(index);
+        cache.cleanUp();
+        return cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+    }
+
+    private static Resource resource(long tenantId, long id, String name) {
+        Resource r = new Resource();
+        r.setId(id);
+        r.setTenantId(tenantId);
+        r.setName(name);
+        return r;
+    }
+}
@@ -0,0 +1,228 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.archive.AuditArchive;
+import com.edstruments.multitenantresourcemanagement.archive.AuditSegmentWriter;
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantContext;
+import com.edstruments.multitenantresourcemanagement.config.multitenancy.TenantFilter;
+import com.edstruments.multitenantresourcemanagement.entity.AuditLog;
+import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.entity.TenantDeletionJob;
+import com.edstruments.multitenantresourcemanagement.enums.AuditAction;
+import com.edstruments.multitenantresourcemanagement.enums.TenantDeletionStatus;
+import com.edstruments.multitenantresourcemanagement.repository.TenantDeletionJobRepository;
+import com.edstruments.multitenantresourcemanagement.repository.TenantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Paths;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenant-deletion-test;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never",
+        "tenant.deletion.chunk-size=2",
+        "tenant.deletion.max-rows-per-second=0",
+        "audit.retention.archive-dir=${java.io.tmpdir}/tenant-deletion-test-archive"
+})
+class TenantDeletionServiceTest {
+
+    @Autowired
+    private TenantDeletionService deletionService;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private TenantDeletionJobRepository jobRepository;
+
+    @Autowired
+    private TenantFilter tenantFilter;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private AuditArchive auditArchive;
+
+    @Value("${audit.retention.archive-dir}")
+    private String archiveDir;
+
+    @Test
+    void deletionPurgesInChunksThenDropsTheSchemaAndTheTenant() throws Exception {
+        Tenant tenant = tenantService.createTenant(tenant("delete_me"));
+        seed("delete_me", 5);
+        long rows = rowCount("delete_me");
+
+        TenantDeletionJob job = tenantService.deleteTenant(tenant.getId());
+        TenantDeletionJob done = awaitFinished(job.getId());
+
+        assertThat(done.getStatus()).isEqualTo(TenantDeletionStatus.COMPLETED);
+        assertThat(rows).isGreaterThanOrEqualTo(10);
+        assertThat(done.getRowsDeleted()).isEqualTo(rows);
+        assertThat(done.getCompletedAt()).isNotNull();
+        assertThat(tenantRepository.findById(tenant.getId())).isEmpty();
+        assertThat(schemaExists("delete_me")).isFalse();
+        assertThat(deletionService.isDeleting("delete_me")).isFalse();
+    }
+
+    @Test
+    void deletionRemovesTheArchivedAuditLogs() throws Exception {
+        Tenant tenant = tenantService.createTenant(tenant("archived"));
+        YearMonth month = YearMonth.of(2026, 1);
+        try (AuditSegmentWriter segment = auditArchive.newSegment("archived", month)) {
+            segment.append(AuditLog.builder().id(1L).tenantId(tenant.getId()).userId(1L)
+                    .action(AuditAction.CREATED_RESOURCE).entityType("Resource").entityId(1L)
+                    .timestamp(month.atDay(1).atStartOfDay()).build());
+            segment.finish();
+        }
+        TenantContext.setCurrentTenant("archived");
+        try {
+            // opens and caches a reader of the segment
+            assertThat(auditArchive.query(tenant.getId(), null, null, null, null)).hasSize(1);
+        } finally {
+            TenantContext.clear();
+        }
+
+        TenantDeletionJob done = awaitFinished(tenantService.deleteTenant(tenant.getId()).getId());
+
+        assertThat(done.getStatus()).isEqualTo(TenantDeletionStatus.COMPLETED);
+        assertThat(Paths.get(archiveDir, "archived")).doesNotExist();
+        TenantContext.setCurrentTenant("archived");
+        try {
+            assertThat(auditArchive.query(tenant.getId(), null, null, null, null)).isEmpty();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    @Test
+    void jobLeftUnfinishedByARestartIsResumed() throws Exception {
+        Tenant tenant = tenantService.createTenant(tenant("resume_me"));
+        seed("resume_me", 3);
+        // what a shutdown in the middle of the purge leaves behind
+        tenant.setIsActive(false);
+        tenantRepository.save(tenant);
+        jdbc.update("DELETE FROM resume_me.resources WHERE id = 1");
+        long rows = rowCount("resume_me");
+        TenantDeletionJob job = jobRepository.save(TenantDeletionJob.builder()
+                .tenantId(tenant.getId())
+                .schemaName("resume_me")
+                .status(TenantDeletionStatus.PURGING)
+                .currentTable("RESOURCES")
+                .rowsDeleted(1L)
+                .build());
+
+        deletionService.resumeJobs();
+        TenantDeletionJob done = awaitFinished(job.getId());
+
+        assertThat(done.getStatus()).isEqualTo(TenantDeletionStatus.COMPLETED);
+        assertThat(done.getRowsDeleted()).isEqualTo(rows + 1);
+        assertThat(schemaExists("resume_me")).isFalse();
+    }
+
+    @Test
+    void failedJobKeepsTheTenantGoneAndIsRetriedByDeletingAgain() throws Exception {
+        Tenant tenant = tenantService.createTenant(tenant("retry_me"));
+        seed("retry_me", 1);
+        // a reference from outside the schema makes purging the users fail
+        jdbc.execute("CREATE TABLE public.retry_blocker (user_id BIGINT REFERENCES retry_me.users (id))");
+        jdbc.update("INSERT INTO public.retry_blocker VALUES (1)");
+
+        TenantDeletionJob job = tenantService.deleteTenant(tenant.getId());
+        TenantDeletionJob failed = awaitFinished(job.getId());
+
+        assertThat(failed.getStatus()).isEqualTo(TenantDeletionStatus.FAILED);
+        assertThat(failed.getError()).isNotBlank();
+        assertThat(filterStatus("retry_me")).isEqualTo(HttpStatus.GONE.value());
+        Tenant reactivate = new Tenant();
+        reactivate.setIsActive(true);
+        assertThatThrownBy(() -> tenantService.updateTenant(tenant.getId(), reactivate))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        jdbc.execute("DROP TABLE public.retry_blocker");
+        TenantDeletionJob retried = tenantService.deleteTenant(tenant.getId());
+        TenantDeletionJob done = awaitFinished(retried.getId());
+
+        assertThat(retried.getId()).isEqualTo(job.getId());
+        assertThat(done.getStatus()).isEqualTo(TenantDeletionStatus.COMPLETED);
+        assertThat(done.getError()).isNull();
+        assertThat(schemaExists("retry_me")).isFalse();
+    }
+
+    @Test
+    void deletingAgainReturnsTheRunningJob() {
+        Tenant tenant = tenantService.createTenant(tenant("twice"));
+
+        TenantDeletionJob first = tenantService.deleteTenant(tenant.getId());
+        TenantDeletionJob second = tenantService.deleteTenant(tenant.getId());
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+    }
+
+    private void seed(String schema, int rows) {
+        for (int i = 1; i <= rows; i++) {
+            jdbc.update("INSERT INTO " + schema + ".users (id, username, password, role, tenant_id, deleted) " +
+                    "VALUES (?, ?, 'x', 'EMPLOYEE', 1, FALSE)", i, "user" + i);
+            jdbc.update("INSERT INTO " + schema + ".resources (id, name, owner_id, tenant_id, deleted) " +
+                    "VALUES (?, ?, ?, 1, FALSE)", i, "resource" + i, i);
+        }
+    }
+
+    /**
+     * Rows the purge deletes: everything but the template version table.
+     */
+    private long rowCount(String schema) {
+        List<String> tables = jdbc.queryForList("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_SCHEMA = UPPER(?) AND TABLE_TYPE = 'BASE TABLE' " +
+                "AND TABLE_NAME <> 'TENANT_SCHEMA_VERSION'", String.class, schema);
+        long rows = 0;
+        for (String table : tables) {
+            rows += jdbc.queryForObject("SELECT COUNT(*) FROM " + schema + "." + table, Long.class);
+        }
+        return rows;
+    }
+
+    private int filterStatus(String schema) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/resources");
+        request.addHeader("X-Tenant-ID", schema);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        tenantFilter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private boolean schemaExists(String schema) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SCHEMATA " +
+                "WHERE SCHEMA_NAME = UPPER(?)", Integer.class, schema);
+        return count > 0;
+    }
+
+    private TenantDeletionJob awaitFinished(long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        TenantDeletionJob job = jobRepository.findById(jobId).orElseThrow();
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = jobRepository.findById(jobId).orElseThrow();
+        }
+        return job;
+    }
+
+    private static Tenant tenant(String schema) {
+        return Tenant.builder().name("Tenant " + schema).schemaName(schema).isActive(true).build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.edstruments.multitenantresourcemanagement.service;
+
+import com.edstruments.multitenantresourcemanagement.dto.TenantProvisioningReport;
+import com.edstruments.multitenantresourcemanagement.entity.Tenant;
+import com.edstruments.multitenantresourcemanagement.repository.TenantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenant-provisioning-test;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never"
+})
+class TenantProvisioningServiceTest {
+
+    @Autowired
+    private TenantProvisioningService provisioningService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void newSchemaIsCreatedFromTheTemplateAndActivated() {
+        Tenant saved = provisioningService.provision(tenant("fresh_tenant"));
+
+        assertThat(saved.getIsActive()).isTrue();
+        assertThat(tableCount("FRESH_TENANT", "RESOURCES")).isEqualTo(1);
+    }
+
+    @Test
+    void reservedSchemaNamesAreRejected() {
+        for (String schema : List.of("public", "INFORMATION_SCHEMA", "pg_catalog")) {
+            assertConflict(() -> provisioningService.provision(tenant(schema)));
+        }
+        assertThat(tenantRepository.findAll()).noneMatch(t -> t.getSchemaName().equalsIgnoreCase("public"));
+    }
+
+    @Test
+    void existingSchemaIsNotAdoptedNorDroppedOnRollback() {
+        jdbc.execute("CREATE SCHEMA foreign_schema");
+        jdbc.execute("CREATE TABLE foreign_schema.keep_me (id INT)");
+
+        assertConflict(() -> provisioningService.provision(tenant("foreign_schema")));
+
+        assertThat(tenantRepository.findAll()).noneMatch(t -> t.getSchemaName().equals("foreign_schema"));
+        assertThat(tableCount("FOREIGN_SCHEMA", "KEEP_ME")).isEqualTo(1);
+        assertThat(tableCount("FOREIGN_SCHEMA", "RESOURCES")).isZero();
+    }
+
+    @Test
+    void batchReportsConflictsPerTenant() {
+        TenantProvisioningReport report = provisioningService.provisionAll(
+                List.of(tenant("batch_ok"), tenant("public")));
+
+        assertThat(report.succeeded()).isEqualTo(1);
+        assertThat(report.items().get(0).success()).isTrue();
+        assertThat(report.items().get(1).success()).isFalse();
+        assertThat(report.items().get(1).error()).contains("Reserved schema name");
+    }
+
+    private int tableCount(String schema, String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?", Integer.class, schema, table);
+    }
+
+    private static void assertConflict(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    private static Tenant tenant(String schema) {
+        return Tenant.builder().name("Tenant " + schema).schemaName(schema).isActive(true).build();
+    }
+}